@@ -0,0 +1,80 @@
+package com.insightdesk.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/event for the binary codec against the JSON encoding it replaces.
+ * bytes/event for both formats is printed once per trial.
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedbackEventCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private FeedbackEvent event;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        event = new FeedbackEvent();
+        event.setId(1234567L);
+        event.setUserId(42L);
+        event.setProjectId(100L);
+        event.setMessage("The new checkout flow is great, but the iOS app crashes when I log in with SSO.");
+        event.setCategory("bug");
+        event.setSentimentScore(new BigDecimal("0.45"));
+        event.setKeywords(new String[]{"checkout", "crash", "login"});
+        event.setEntities(Map.of("platforms", List.of("ios"), "features", List.of("checkout", "sso")));
+        event.setProcessed(false);
+        event.setCreatedAt(OffsetDateTime.now());
+        event.setUpdatedAt(event.getCreatedAt());
+
+        binary = FeedbackEventCodec.encode(event);
+        json = objectMapper.writeValueAsBytes(event);
+        System.out.printf("%nbytes/event: binary=%d json=%d%n", binary.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return FeedbackEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public FeedbackEvent decodeBinary() {
+        return FeedbackEventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public FeedbackEvent decodeJson() throws Exception {
+        return objectMapper.readValue(json, FeedbackEvent.class);
+    }
+}
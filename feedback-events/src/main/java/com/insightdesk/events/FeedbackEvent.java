@@ -1,15 +1,16 @@
-package com.insightdesk.nlp.dto;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
+package com.insightdesk.events;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Map;
 
 /**
- * DTO representing feedback event consumed from Kafka
+ * Feedback event published on the feedback-events topic.
+ * This class is the single schema shared by the producer and the consumer;
+ * see {@link FeedbackEventCodec} for the binary wire format.
  */
 public class FeedbackEvent {
-    
+
     private Long id;
     private Long userId;
     private Long projectId;
@@ -17,14 +18,14 @@ public class FeedbackEvent {
     private String category;
     private BigDecimal sentimentScore;
     private String[] keywords;
-    private Object entities;  // Can be String[] or Map for JSONB
+    private Map<String, Object> entities;
     private Boolean processed;
-    
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
 
     // Constructors
-    public FeedbackEvent() {}
+    public FeedbackEvent() {
+    }
 
     // Getters and Setters
     public Long getId() {
@@ -83,11 +84,11 @@ public class FeedbackEvent {
         this.keywords = keywords;
     }
 
-    public Object getEntities() {
+    public Map<String, Object> getEntities() {
         return entities;
     }
 
-    public void setEntities(Object entities) {
+    public void setEntities(Map<String, Object> entities) {
         this.entities = entities;
     }
 
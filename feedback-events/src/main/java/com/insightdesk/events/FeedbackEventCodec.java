@@ -0,0 +1,417 @@
+package com.insightdesk.events;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link FeedbackEvent}.
+ *
+ * Layout (format version 1, see README.md of this module):
+ * <pre>
+ *   magic      1 byte   0xFB (never the first byte of a JSON document)
+ *   version    1 byte   0x01
+ *   presence   varint   bit i set = field i present
+ *   fields     in field order, absent fields take no space
+ *     0 id              zigzag varlong
+ *     1 userId          zigzag varlong
+ *     2 projectId       zigzag varlong
+ *     3 message         string
+ *     4 category        string
+ *     5 sentimentScore  decimal
+ *     6 keywords        varint count, then strings
+ *     7 entities        tagged value (a map)
+ *     8 processed       1 byte
+ *     9 createdAt       timestamp
+ *    10 updatedAt       timestamp
+ *
+ *   string     varint byte length + UTF-8 bytes
+ *   decimal    zigzag varint scale + varint length + two's-complement unscaled bytes
+ *   timestamp  zigzag varlong epoch seconds + varint nanos + zigzag varint offset seconds
+ * </pre>
+ * New optional fields may only be appended (with the next presence bit); older decoders
+ * stop after the fields they know. Any other change needs a new version byte.
+ */
+public final class FeedbackEventCodec {
+
+    public static final byte MAGIC = (byte) 0xFB;
+    public static final byte VERSION = 1;
+
+    private static final int ID = 0;
+    private static final int USER_ID = 1;
+    private static final int PROJECT_ID = 2;
+    private static final int MESSAGE = 3;
+    private static final int CATEGORY = 4;
+    private static final int SENTIMENT_SCORE = 5;
+    private static final int KEYWORDS = 6;
+    private static final int ENTITIES = 7;
+    private static final int PROCESSED = 8;
+    private static final int CREATED_AT = 9;
+    private static final int UPDATED_AT = 10;
+
+    // Tags for values inside the entities map
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_LONG = 2;
+    private static final int TAG_DOUBLE = 3;
+    private static final int TAG_TRUE = 4;
+    private static final int TAG_FALSE = 5;
+    private static final int TAG_LIST = 6;
+    private static final int TAG_MAP = 7;
+    private static final int TAG_DECIMAL = 8;
+
+    private FeedbackEventCodec() {
+    }
+
+    /**
+     * Whether the payload starts with the binary magic byte (as opposed to JSON)
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(FeedbackEvent event) {
+        int presence = 0;
+        presence |= bit(ID, event.getId());
+        presence |= bit(USER_ID, event.getUserId());
+        presence |= bit(PROJECT_ID, event.getProjectId());
+        presence |= bit(MESSAGE, event.getMessage());
+        presence |= bit(CATEGORY, event.getCategory());
+        presence |= bit(SENTIMENT_SCORE, event.getSentimentScore());
+        presence |= bit(KEYWORDS, event.getKeywords());
+        presence |= bit(ENTITIES, event.getEntities());
+        presence |= bit(PROCESSED, event.getProcessed());
+        presence |= bit(CREATED_AT, event.getCreatedAt());
+        presence |= bit(UPDATED_AT, event.getUpdatedAt());
+
+        int estimate = 64 + (event.getMessage() == null ? 0 : event.getMessage().length() * 3);
+        Output out = new Output(estimate);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(presence);
+
+        if (event.getId() != null) {
+            out.writeZigZag(event.getId());
+        }
+        if (event.getUserId() != null) {
+            out.writeZigZag(event.getUserId());
+        }
+        if (event.getProjectId() != null) {
+            out.writeZigZag(event.getProjectId());
+        }
+        if (event.getMessage() != null) {
+            out.writeString(event.getMessage());
+        }
+        if (event.getCategory() != null) {
+            out.writeString(event.getCategory());
+        }
+        if (event.getSentimentScore() != null) {
+            out.writeDecimal(event.getSentimentScore());
+        }
+        if (event.getKeywords() != null) {
+            out.writeVarLong(event.getKeywords().length);
+            for (String keyword : event.getKeywords()) {
+                out.writeString(keyword == null ? "" : keyword);
+            }
+        }
+        if (event.getEntities() != null) {
+            out.writeValue(event.getEntities());
+        }
+        if (event.getProcessed() != null) {
+            out.writeByte((byte) (event.getProcessed() ? 1 : 0));
+        }
+        if (event.getCreatedAt() != null) {
+            out.writeTimestamp(event.getCreatedAt());
+        }
+        if (event.getUpdatedAt() != null) {
+            out.writeTimestamp(event.getUpdatedAt());
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static FeedbackEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary feedback event");
+        }
+        Input in = new Input(data);
+        in.readByte();
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported feedback event format version: " + version);
+        }
+        long presence = in.readVarLong();
+
+        FeedbackEvent event = new FeedbackEvent();
+        if (has(presence, ID)) {
+            event.setId(in.readZigZag());
+        }
+        if (has(presence, USER_ID)) {
+            event.setUserId(in.readZigZag());
+        }
+        if (has(presence, PROJECT_ID)) {
+            event.setProjectId(in.readZigZag());
+        }
+        if (has(presence, MESSAGE)) {
+            event.setMessage(in.readString());
+        }
+        if (has(presence, CATEGORY)) {
+            event.setCategory(in.readString());
+        }
+        if (has(presence, SENTIMENT_SCORE)) {
+            event.setSentimentScore(in.readDecimal());
+        }
+        if (has(presence, KEYWORDS)) {
+            String[] keywords = new String[(int) in.readVarLong()];
+            for (int i = 0; i < keywords.length; i++) {
+                keywords[i] = in.readString();
+            }
+            event.setKeywords(keywords);
+        }
+        if (has(presence, ENTITIES)) {
+            event.setEntities((Map<String, Object>) in.readValue());
+        }
+        if (has(presence, PROCESSED)) {
+            event.setProcessed(in.readByte() != 0);
+        }
+        if (has(presence, CREATED_AT)) {
+            event.setCreatedAt(in.readTimestamp());
+        }
+        if (has(presence, UPDATED_AT)) {
+            event.setUpdatedAt(in.readTimestamp());
+        }
+        // Bits above UPDATED_AT belong to fields appended by newer producers; they are ignored
+        return event;
+    }
+
+    private static int bit(int field, Object value) {
+        return value == null ? 0 : 1 << field;
+    }
+
+    private static boolean has(long presence, int field) {
+        return (presence & (1L << field)) != 0;
+    }
+
+    private static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeDecimal(BigDecimal value) {
+            writeZigZag(value.scale());
+            writeBytes(value.unscaledValue().toByteArray());
+        }
+
+        void writeTimestamp(OffsetDateTime value) {
+            writeZigZag(value.toEpochSecond());
+            writeVarLong(value.getNano());
+            writeZigZag(value.getOffset().getTotalSeconds());
+        }
+
+        void writeValue(Object value) {
+            if (value == null) {
+                writeByte((byte) TAG_NULL);
+            } else if (value instanceof String s) {
+                writeByte((byte) TAG_STRING);
+                writeString(s);
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeByte((byte) TAG_LONG);
+                writeZigZag(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                writeByte((byte) TAG_DOUBLE);
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                ensure(8);
+                for (int i = 0; i < 8; i++) {
+                    buffer[position++] = (byte) (bits >>> (8 * i));
+                }
+            } else if (value instanceof BigDecimal decimal) {
+                writeByte((byte) TAG_DECIMAL);
+                writeDecimal(decimal);
+            } else if (value instanceof BigInteger integer) {
+                writeByte((byte) TAG_DECIMAL);
+                writeDecimal(new BigDecimal(integer));
+            } else if (value instanceof Boolean b) {
+                writeByte((byte) (b ? TAG_TRUE : TAG_FALSE));
+            } else if (value instanceof Map<?, ?> map) {
+                writeByte((byte) TAG_MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString(String.valueOf(entry.getKey()));
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Collection<?> collection) {
+                writeByte((byte) TAG_LIST);
+                writeVarLong(collection.size());
+                for (Object element : collection) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Object[] array) {
+                writeValue(Arrays.asList(array));
+            } else {
+                writeByte((byte) TAG_STRING);
+                writeString(value.toString());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated feedback event");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in feedback event");
+        }
+
+        long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        byte[] readBytes() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated feedback event");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated feedback event");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            int scale = (int) readZigZag();
+            return new BigDecimal(new BigInteger(readBytes()), scale);
+        }
+
+        OffsetDateTime readTimestamp() {
+            long epochSecond = readZigZag();
+            int nanos = (int) readVarLong();
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) readZigZag());
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), offset);
+        }
+
+        Object readValue() {
+            int tag = readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_STRING:
+                    return readString();
+                case TAG_LONG:
+                    return readZigZag();
+                case TAG_DOUBLE: {
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++) {
+                        bits |= (long) (readByte() & 0xFF) << (8 * i);
+                    }
+                    return Double.longBitsToDouble(bits);
+                }
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_DECIMAL:
+                    return readDecimal();
+                case TAG_LIST: {
+                    int size = (int) readVarLong();
+                    List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case TAG_MAP: {
+                    int size = (int) readVarLong();
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        map.put(readString(), readValue());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown value tag in feedback event: " + tag);
+            }
+        }
+    }
+}
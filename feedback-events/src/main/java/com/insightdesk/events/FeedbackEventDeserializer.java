@@ -0,0 +1,34 @@
+package com.insightdesk.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka deserializer for {@link FeedbackEvent}s.
+ * Binary payloads are decoded with {@link FeedbackEventCodec}; anything else is read as JSON,
+ * so events from producers that have not switched to the binary format are still accepted.
+ */
+public class FeedbackEventDeserializer implements Deserializer<FeedbackEvent> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public FeedbackEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (FeedbackEventCodec.isBinary(data)) {
+                return FeedbackEventCodec.decode(data);
+            }
+            return objectMapper.readValue(data, FeedbackEvent.class);
+        } catch (Exception e) {
+            throw new SerializationException("Could not deserialize feedback event from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.insightdesk.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link FeedbackEvent}s in the binary format of {@link FeedbackEventCodec}
+ */
+public class FeedbackEventSerializer implements Serializer<FeedbackEvent> {
+
+    @Override
+    public byte[] serialize(String topic, FeedbackEvent event) {
+        return event == null ? null : FeedbackEventCodec.encode(event);
+    }
+}
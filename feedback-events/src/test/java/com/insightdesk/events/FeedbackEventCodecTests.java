@@ -0,0 +1,88 @@
+package com.insightdesk.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedbackEventCodecTests {
+
+	@Test
+	void roundTripsAllFields() {
+		FeedbackEvent event = sampleEvent();
+
+		FeedbackEvent decoded = FeedbackEventCodec.decode(FeedbackEventCodec.encode(event));
+
+		assertEquals(event.getId(), decoded.getId());
+		assertEquals(event.getUserId(), decoded.getUserId());
+		assertEquals(event.getProjectId(), decoded.getProjectId());
+		assertEquals(event.getMessage(), decoded.getMessage());
+		assertEquals(event.getCategory(), decoded.getCategory());
+		assertEquals(event.getSentimentScore(), decoded.getSentimentScore());
+		assertArrayEquals(event.getKeywords(), decoded.getKeywords());
+		assertEquals(event.getEntities(), decoded.getEntities());
+		assertEquals(event.getProcessed(), decoded.getProcessed());
+		assertEquals(event.getCreatedAt(), decoded.getCreatedAt());
+		assertEquals(event.getUpdatedAt(), decoded.getUpdatedAt());
+	}
+
+	@Test
+	void absentFieldsStayNull() {
+		FeedbackEvent event = new FeedbackEvent();
+		event.setId(-5L);
+		event.setMessage("only a message");
+
+		FeedbackEvent decoded = FeedbackEventCodec.decode(FeedbackEventCodec.encode(event));
+
+		assertEquals(-5L, decoded.getId().longValue());
+		assertEquals("only a message", decoded.getMessage());
+		assertNull(decoded.getUserId());
+		assertNull(decoded.getEntities());
+		assertNull(decoded.getCreatedAt());
+	}
+
+	@Test
+	void deserializerAcceptsBinaryAndJson() {
+		FeedbackEventDeserializer deserializer = new FeedbackEventDeserializer();
+		byte[] binary = new FeedbackEventSerializer().serialize("feedback-events", sampleEvent());
+		byte[] json = "{\"id\":42,\"message\":\"from a JSON producer\",\"entities\":{\"items\":[\"a\"]},\"unknownField\":1}"
+			.getBytes(StandardCharsets.UTF_8);
+
+		assertTrue(FeedbackEventCodec.isBinary(binary));
+		assertEquals(42L, deserializer.deserialize("feedback-events", binary).getId().longValue());
+		assertEquals("from a JSON producer", deserializer.deserialize("feedback-events", json).getMessage());
+	}
+
+	static FeedbackEvent sampleEvent() {
+		Map<String, Object> entities = new LinkedHashMap<>();
+		entities.put("items", List.of("checkout", "ios"));
+		entities.put("count", 2L);
+		entities.put("confidence", 0.75);
+		entities.put("verified", Boolean.TRUE);
+		entities.put("nested", Map.of("version", "2.3.1"));
+
+		FeedbackEvent event = new FeedbackEvent();
+		event.setId(42L);
+		event.setUserId(7L);
+		event.setProjectId(100L);
+		event.setMessage("The new checkout flow is great, but the iOS app crashes on login – naïve fix?");
+		event.setCategory("praise");
+		event.setSentimentScore(new BigDecimal("0.85"));
+		event.setKeywords(new String[]{"checkout", "crash", "login"});
+		event.setEntities(entities);
+		event.setProcessed(false);
+		event.setCreatedAt(OffsetDateTime.of(2025, 11, 21, 10, 30, 0, 123456789, ZoneOffset.ofHours(6)));
+		event.setUpdatedAt(OffsetDateTime.of(2025, 11, 21, 10, 30, 5, 0, ZoneOffset.UTC));
+		return event;
+	}
+}
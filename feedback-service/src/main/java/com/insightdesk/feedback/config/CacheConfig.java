@@ -0,0 +1,92 @@
+package com.insightdesk.feedback.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.feedback.service.FeedbackSearchService;
+import com.insightdesk.feedback.service.FeedbackService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process Caffeine caches. All caches record stats, which actuator exposes as
+ * cache.gets / cache.puts / cache.evictions metrics tagged with the cache name.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${feedback.cache.by-id.max-size:10000}")
+    private long byIdMaxSize;
+
+    @Value("${feedback.cache.by-id.ttl-seconds:600}")
+    private long byIdTtlSeconds;
+
+    @Value("${feedback.cache.by-id.unprocessed-ttl-seconds:30}")
+    private long byIdUnprocessedTtlSeconds;
+
+    @Value("${feedback.search.cache.max-size:1000}")
+    private long searchMaxSize;
+
+    @Value("${feedback.search.cache.ttl-seconds:30}")
+    private long searchTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Evicted when nlp-processing-service reports the item processed; the short TTL
+        // for unprocessed items bounds staleness if that notification is missed
+        cacheManager.registerCustomCache(FeedbackService.BY_ID_CACHE, Caffeine.newBuilder()
+            .maximumSize(byIdMaxSize)
+            .expireAfter(new ProcessedAwareExpiry(
+                Duration.ofSeconds(byIdTtlSeconds), Duration.ofSeconds(byIdUnprocessedTtlSeconds)))
+            .recordStats()
+            .build());
+
+        cacheManager.registerCustomCache(FeedbackSearchService.CACHE_NAME, Caffeine.newBuilder()
+            .maximumSize(searchMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(searchTtlSeconds))
+            .recordStats()
+            .build());
+
+        return cacheManager;
+    }
+
+    /**
+     * Keeps processed feedback for the full TTL, but unprocessed feedback only briefly,
+     * since it is about to change.
+     */
+    private static class ProcessedAwareExpiry implements Expiry<Object, Object> {
+
+        private final long processedNanos;
+        private final long unprocessedNanos;
+
+        ProcessedAwareExpiry(Duration processedTtl, Duration unprocessedTtl) {
+            this.processedNanos = processedTtl.toNanos();
+            this.unprocessedNanos = unprocessedTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (value instanceof FeedbackResponse response && Boolean.TRUE.equals(response.getProcessed())) {
+                return processedNanos;
+            }
+            return unprocessedNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
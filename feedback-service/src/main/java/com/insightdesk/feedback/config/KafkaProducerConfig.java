@@ -1,5 +1,7 @@
 package com.insightdesk.feedback.config;
 
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.events.FeedbackEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,18 +21,38 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    /** binary = compact feedback-events codec, json = previous JSON encoding (rollback during rollout) */
+    @Value("${feedback.kafka.event-format:binary}")
+    private String eventFormat;
+
+    @Value("${feedback.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${feedback.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, FeedbackEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        if ("json".equalsIgnoreCase(eventFormat)) {
+            configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+            configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        } else {
+            configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, FeedbackEventSerializer.class);
+        }
+        // The outbox relay pipelines whole batches, so let the producer fill its batches
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
+    public KafkaTemplate<String, FeedbackEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 }
@@ -1,8 +1,15 @@
 package com.insightdesk.feedback.controller;
 
+import com.insightdesk.feedback.dto.FeedbackFilter;
+import com.insightdesk.feedback.dto.FeedbackPage;
 import com.insightdesk.feedback.dto.FeedbackRequest;
 import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.feedback.dto.FeedbackSearchPage;
+import com.insightdesk.feedback.dto.ImportJobStatus;
+import com.insightdesk.feedback.service.FeedbackSearchService;
 import com.insightdesk.feedback.service.FeedbackService;
+import com.insightdesk.feedback.service.ImportJob;
+import com.insightdesk.feedback.service.ImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,8 +17,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/feedback")
@@ -21,6 +28,12 @@ public class FeedbackController {
     @Autowired
     private FeedbackService feedbackService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private FeedbackSearchService feedbackSearchService;
+
     @PostMapping
     public ResponseEntity<FeedbackResponse> submitFeedback(@RequestBody FeedbackRequest request) {
         try {
@@ -46,12 +59,16 @@ public class FeedbackController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            List<FeedbackResponse> feedbackList = feedbackService.importFromCsv(file);
-            response.put("message", "Successfully imported " + feedbackList.size() + " feedback entries");
-            response.put("count", feedbackList.size());
-            response.put("data", feedbackList);
+            ImportJobStatus job = importJobService.submit(file, ImportJob.Type.CSV);
+            response.put("message", "Import job accepted");
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/feedback/import/" + job.getJobId());
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("error", "Too many imports in progress, please retry later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (Exception e) {
             response.put("error", "Error importing CSV: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -68,33 +85,88 @@ public class FeedbackController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            if (!file.getOriginalFilename().endsWith(".json")) {
-                response.put("error", "Only JSON files are allowed");
+            String filename = file.getOriginalFilename();
+            if (filename == null || !(filename.endsWith(".json") || filename.endsWith(".ndjson") || filename.endsWith(".jsonl"))) {
+                response.put("error", "Only JSON or NDJSON files are allowed");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            List<FeedbackResponse> feedbackList = feedbackService.importFromJson(file);
-            response.put("message", "Successfully imported " + feedbackList.size() + " feedback entries");
-            response.put("count", feedbackList.size());
-            response.put("data", feedbackList);
+            ImportJobStatus job = importJobService.submit(file, ImportJob.Type.JSON);
+            response.put("message", "Import job accepted");
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/feedback/import/" + job.getJobId());
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("error", "Too many imports in progress, please retry later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (Exception e) {
             response.put("error", "Error importing JSON: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportJob(@PathVariable String jobId) {
+        ImportJobStatus job = importJobService.getStatus(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * List feedback newest first. Filters are optional query parameters
+     * (projectId, userId, category, processed, minSentiment, maxSentiment);
+     * pass the returned nextCursor as cursor to get the next page.
+     */
     @GetMapping
-    public ResponseEntity<List<FeedbackResponse>> getAllFeedback() {
+    public ResponseEntity<FeedbackPage> listFeedback(
+            FeedbackFilter filter,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<FeedbackResponse> feedbackList = feedbackService.getAllFeedback();
-            return ResponseEntity.ok(feedbackList);
+            FeedbackPage page = feedbackService.listFeedback(filter, cursor, limit);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Full-text search on the feedback message, best match first.
+     * q uses web search syntax: words, "quoted phrases", or, -excluded.
+     * language (e.g. es) searches feedback detected in that language, with its stemming.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchFeedback(
+            @RequestParam("q") String q,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        
+        String query = FeedbackSearchService.normalizeQuery(q);
+        if (query.isEmpty()) {
+            response.put("error", "Query parameter q is required");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        
+        try {
+            FeedbackSearchPage page = feedbackSearchService.search(query, FeedbackSearchService.normalizeLanguage(language), projectId, category, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            response.put("error", "Error searching feedback: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FeedbackResponse> getFeedbackById(@PathVariable Long id) {
         try {
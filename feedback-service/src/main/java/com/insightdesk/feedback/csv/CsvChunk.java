@@ -0,0 +1,55 @@
+package com.insightdesk.feedback.csv;
+
+/**
+ * A run of complete CSV records, cut at a record boundary so it can be parsed independently
+ */
+public class CsvChunk {
+
+    private final char[] buffer;
+    private final int length;
+    private final long firstLineNumber;
+    private final boolean first;
+    private final String error;
+
+    CsvChunk(char[] buffer, int length, long firstLineNumber, boolean first) {
+        this(buffer, length, firstLineNumber, first, null);
+    }
+
+    CsvChunk(char[] buffer, int length, long firstLineNumber, boolean first, String error) {
+        this.buffer = buffer;
+        this.length = length;
+        this.firstLineNumber = firstLineNumber;
+        this.first = first;
+        this.error = error;
+    }
+
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Physical line number (1-based) of the first record in this chunk
+     */
+    public long getFirstLineNumber() {
+        return firstLineNumber;
+    }
+
+    /**
+     * Whether this chunk starts at the beginning of the input (and so holds the header row)
+     */
+    public boolean isFirst() {
+        return first;
+    }
+
+    /**
+     * Why the record at the first line was skipped by the chunk reader, or null; such a
+     * chunk holds no records
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,232 @@
+package com.insightdesk.feedback.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Splits a CSV stream into chunks that end on safe record boundaries.
+ *
+ * A newline ends a record only when it is outside quotes. The boundary scan follows the
+ * same rules as {@link CsvParser}: a quote opens a quoted field only at the start of a
+ * field, and a record the parser gives up on (a quote inside an unquoted field, text after
+ * a closing quote) ends at the next newline, where the parser resumes. A cheap character
+ * scan therefore finds exactly the boundaries a single-chunk parse would, and the
+ * field-level parsing of each chunk can run on other threads. Chunk buffers can be handed
+ * back with {@link #recycle(CsvChunk)}.
+ *
+ * A record longer than maxRecordLength characters is not buffered: it is skipped up to
+ * its end, and reported as a chunk whose parser throws a {@link CsvFormatException}.
+ */
+public class CsvChunkReader {
+
+    /** Longest record kept in memory, in characters */
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 1 << 24;
+
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    // Scan states, as CsvParser reads a record
+    private static final int RECORD_END = -1;
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int AFTER_QUOTE = 4;
+    private static final int MALFORMED = 5;
+
+    private final Reader reader;
+    private final int chunkSize;
+    private final int maxRecordLength;
+    private final Deque<char[]> bufferPool = new ArrayDeque<>();
+
+    private char[] carry = new char[0];
+    private int carryLength;
+    private long nextLineNumber = 1;
+    private boolean first = true;
+    private boolean eof;
+
+    public CsvChunkReader(Reader reader, int chunkSize) {
+        this(reader, chunkSize, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    public CsvChunkReader(Reader reader, int chunkSize, int maxRecordLength) {
+        this.reader = reader;
+        this.chunkSize = chunkSize;
+        this.maxRecordLength = Math.max(maxRecordLength, chunkSize);
+    }
+
+    /**
+     * Read the next chunk, or null once the input is exhausted
+     */
+    public CsvChunk next() throws IOException {
+        if (eof && carryLength == 0) {
+            return null;
+        }
+
+        char[] buffer = takeBuffer(Math.min(Math.max(chunkSize, carryLength * 2), maxRecordLength));
+        System.arraycopy(carry, 0, buffer, 0, carryLength);
+        int length = carryLength;
+        int scanned = 0;
+        int state = FIELD_START;
+        int boundary = -1;
+        long newlinesBeforeBoundary = 0;
+        long newlines = 0;
+
+        while (true) {
+            length = fill(buffer, length);
+
+            for (int i = scanned; i < length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    newlines++;
+                }
+                state = scan(state, c);
+                if (state == RECORD_END) {
+                    state = FIELD_START;
+                    boundary = i + 1;
+                    newlinesBeforeBoundary = newlines;
+                }
+            }
+            scanned = length;
+
+            if (eof) {
+                boundary = length;
+                newlinesBeforeBoundary = newlines;
+                break;
+            }
+            if (boundary > 0) {
+                break;
+            }
+            if (buffer.length >= maxRecordLength) {
+                return skipRecord(buffer, state, newlines);
+            }
+            // A single record is larger than the buffer; grow it and keep reading
+            buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxRecordLength));
+        }
+
+        keepCarry(buffer, boundary, length);
+
+        if (boundary == 0) {
+            return null;
+        }
+
+        CsvChunk chunk = new CsvChunk(buffer, boundary, nextLineNumber, first);
+        nextLineNumber += newlinesBeforeBoundary;
+        first = false;
+        return chunk;
+    }
+
+    /**
+     * Return a chunk's buffer once it has been fully parsed
+     */
+    public void recycle(CsvChunk chunk) {
+        if (bufferPool.size() < MAX_POOLED_BUFFERS && chunk.getBuffer().length == chunkSize) {
+            bufferPool.push(chunk.getBuffer());
+        }
+    }
+
+    /**
+     * Read past the end of a record that filled the whole buffer, reusing the buffer for
+     * what is read; the characters after the record are carried to the next chunk
+     */
+    private CsvChunk skipRecord(char[] buffer, int state, long newlines) throws IOException {
+        long lineNumber = nextLineNumber;
+        int boundary = -1;
+        int length = 0;
+        while (boundary < 0) {
+            length = fill(buffer, 0);
+            for (int i = 0; i < length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    newlines++;
+                }
+                state = scan(state, c);
+                if (state == RECORD_END) {
+                    boundary = i + 1;
+                    break;
+                }
+            }
+            if (eof && boundary < 0) {
+                boundary = length;
+            }
+        }
+        keepCarry(buffer, boundary, length);
+
+        CsvChunk chunk = new CsvChunk(new char[0], 0, lineNumber, first,
+            "Record longer than " + maxRecordLength + " characters");
+        nextLineNumber += newlines;
+        first = false;
+        return chunk;
+    }
+
+    private void keepCarry(char[] buffer, int boundary, int length) {
+        carryLength = length - boundary;
+        if (carry.length < carryLength) {
+            carry = new char[Math.max(carryLength, 1024)];
+        }
+        System.arraycopy(buffer, boundary, carry, 0, carryLength);
+    }
+
+    /**
+     * Scan state after the character c
+     */
+    private static int scan(int state, char c) {
+        switch (state) {
+            case FIELD_START:
+                if (c == ' ' || c == '\t') {
+                    return FIELD_START;
+                }
+                if (c == '"') {
+                    return QUOTED;
+                }
+                // Anything else starts an unquoted field
+            case UNQUOTED:
+                if (c == ',') {
+                    return FIELD_START;
+                }
+                if (c == '\n') {
+                    return RECORD_END;
+                }
+                return c == '"' ? MALFORMED : UNQUOTED;
+            case QUOTED:
+                return c == '"' ? QUOTE_IN_QUOTED : QUOTED;
+            case QUOTE_IN_QUOTED:
+                if (c == '"') {
+                    return QUOTED;
+                }
+                // The field was closed; c is the first character after it
+            case AFTER_QUOTE:
+                if (c == ',') {
+                    return FIELD_START;
+                }
+                if (c == '\n') {
+                    return RECORD_END;
+                }
+                return c == ' ' || c == '\t' || c == '\r' ? AFTER_QUOTE : MALFORMED;
+            default:
+                return c == '\n' ? RECORD_END : MALFORMED;
+        }
+    }
+
+    private char[] takeBuffer(int minSize) {
+        char[] pooled = bufferPool.poll();
+        if (pooled != null && pooled.length >= minSize) {
+            return pooled;
+        }
+        return new char[minSize];
+    }
+
+    private int fill(char[] buffer, int length) throws IOException {
+        while (length < buffer.length) {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                eof = true;
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+}
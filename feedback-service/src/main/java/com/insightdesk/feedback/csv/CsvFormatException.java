@@ -0,0 +1,18 @@
+package com.insightdesk.feedback.csv;
+
+/**
+ * Thrown when CSV input is not well-formed or a field cannot be converted
+ */
+public class CsvFormatException extends IllegalArgumentException {
+
+    private final long lineNumber;
+
+    public CsvFormatException(String message, long lineNumber) {
+        super(message + " (line " + lineNumber + ")");
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,130 @@
+package com.insightdesk.feedback.csv;
+
+/**
+ * RFC 4180 record parser over one {@link CsvChunk}.
+ *
+ * Supports quoted fields with embedded commas, newlines and escaped quotes (""),
+ * and CRLF or LF line endings. Quoted fields are unescaped in place in the chunk's
+ * buffer, so no per-field builders are allocated; unquoted fields are trimmed.
+ * After a malformed record the parser resumes at the next line. A chunk holding a record
+ * the chunk reader skipped reports it as a malformed record.
+ */
+public class CsvParser {
+
+    private final CsvRecord record = new CsvRecord();
+    private final char[] buffer;
+    private final int limit;
+    private int position;
+    private long lineNumber;
+    private String skippedRecord;
+
+    public CsvParser(CsvChunk chunk) {
+        this.buffer = chunk.getBuffer();
+        this.limit = chunk.getLength();
+        this.lineNumber = chunk.getFirstLineNumber();
+        this.skippedRecord = chunk.getError();
+    }
+
+    /**
+     * Parse the next record, or return null at the end of the chunk.
+     * The returned record is reused by the following call.
+     */
+    public CsvRecord next() {
+        if (skippedRecord != null) {
+            String message = skippedRecord;
+            skippedRecord = null;
+            throw new CsvFormatException(message, lineNumber);
+        }
+        if (position >= limit) {
+            return null;
+        }
+
+        record.begin(buffer, lineNumber);
+        while (true) {
+            while (position < limit && (buffer[position] == ' ' || buffer[position] == '\t')) {
+                position++;
+            }
+
+            if (position < limit && buffer[position] == '"') {
+                parseQuotedField();
+            } else {
+                parseUnquotedField();
+            }
+
+            if (position >= limit) {
+                return record;
+            }
+            char delimiter = buffer[position++];
+            if (delimiter == '\n') {
+                lineNumber++;
+                return record;
+            }
+        }
+    }
+
+    private void parseQuotedField() {
+        int start = ++position;
+        int write = start;
+        long startLine = lineNumber;
+
+        while (true) {
+            if (position >= limit) {
+                throw new CsvFormatException("Unterminated quoted field", startLine);
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                if (position < limit && buffer[position] == '"') {
+                    buffer[write++] = '"';
+                    position++;
+                } else {
+                    break;
+                }
+            } else {
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                buffer[write++] = c;
+            }
+        }
+        record.addField(start, write);
+
+        // Only whitespace may follow the closing quote
+        while (position < limit && buffer[position] != ',' && buffer[position] != '\n') {
+            char c = buffer[position];
+            if (c != ' ' && c != '\t' && c != '\r') {
+                throw skipRecord("Unexpected character after closing quote");
+            }
+            position++;
+        }
+    }
+
+    private void parseUnquotedField() {
+        int start = position;
+        while (position < limit && buffer[position] != ',' && buffer[position] != '\n') {
+            if (buffer[position] == '"') {
+                throw skipRecord("Unexpected quote in unquoted field");
+            }
+            position++;
+        }
+        int end = position;
+        while (end > start && (buffer[end - 1] == ' ' || buffer[end - 1] == '\t' || buffer[end - 1] == '\r')) {
+            end--;
+        }
+        record.addField(start, end);
+    }
+
+    /**
+     * Skip to the start of the next line so parsing can resume after a malformed record
+     */
+    private CsvFormatException skipRecord(String message) {
+        CsvFormatException exception = new CsvFormatException(message, record.getLineNumber());
+        while (position < limit && buffer[position] != '\n') {
+            position++;
+        }
+        if (position < limit) {
+            position++;
+            lineNumber++;
+        }
+        return exception;
+    }
+}
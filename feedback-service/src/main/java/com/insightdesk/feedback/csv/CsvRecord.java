@@ -0,0 +1,160 @@
+package com.insightdesk.feedback.csv;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * One parsed CSV record. Fields are offsets into the parser's buffer rather than Strings,
+ * and the instance is reused for every record of a chunk.
+ */
+public class CsvRecord {
+
+    /**
+     * Longest run of digits that always fits in a long without overflow checks
+     */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private char[] buffer;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+    private long lineNumber;
+
+    void begin(char[] buffer, long lineNumber) {
+        this.buffer = buffer;
+        this.lineNumber = lineNumber;
+        this.size = 0;
+    }
+
+    void addField(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * Number of fields in this record
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Physical line number (1-based) where this record starts
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Whether the field is missing, empty or only whitespace
+     */
+    public boolean isBlank(int index) {
+        if (index >= size) {
+            return true;
+        }
+        for (int i = starts[index]; i < ends[index]; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getString(int index) {
+        return new String(buffer, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parse an integer field directly from the buffer
+     */
+    public long getLong(int index) {
+        int start = trimStart(index);
+        int end = trimEnd(index, start);
+        boolean negative = false;
+        if (start < end && (buffer[start] == '-' || buffer[start] == '+')) {
+            negative = buffer[start] == '-';
+            start++;
+        }
+        if (start == end) {
+            throw invalidNumber(index);
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw invalidNumber(index);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a decimal field directly from the buffer.
+     * Plain decimals such as 0.95 take an allocation-free fast path to an unscaled long.
+     */
+    public BigDecimal getDecimal(int index) {
+        int start = trimStart(index);
+        int end = trimEnd(index, start);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+
+        if (i == end && digits > 0 && digits <= MAX_FAST_DIGITS) {
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+        try {
+            // Exponents, very long values and malformed input
+            return new BigDecimal(buffer, start, end - start);
+        } catch (NumberFormatException e) {
+            throw invalidNumber(index);
+        }
+    }
+
+    private int trimStart(int index) {
+        int start = starts[index];
+        while (start < ends[index] && Character.isWhitespace(buffer[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int index, int start) {
+        int end = ends[index];
+        while (end > start && Character.isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private CsvFormatException invalidNumber(int index) {
+        return new CsvFormatException("Invalid number '" + getString(index).trim() + "' in column " + (index + 1), lineNumber);
+    }
+}
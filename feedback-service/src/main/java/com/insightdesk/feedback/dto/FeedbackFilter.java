@@ -0,0 +1,69 @@
+package com.insightdesk.feedback.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional filters for the feedback listing; null fields are not applied
+ */
+public class FeedbackFilter {
+
+    private Long projectId;
+    private Long userId;
+    private String category;
+    private Boolean processed;
+    private BigDecimal minSentiment;
+    private BigDecimal maxSentiment;
+
+    // Constructors
+    public FeedbackFilter() {
+    }
+
+    // Getters and Setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Boolean getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(Boolean processed) {
+        this.processed = processed;
+    }
+
+    public BigDecimal getMinSentiment() {
+        return minSentiment;
+    }
+
+    public void setMinSentiment(BigDecimal minSentiment) {
+        this.minSentiment = minSentiment;
+    }
+
+    public BigDecimal getMaxSentiment() {
+        return maxSentiment;
+    }
+
+    public void setMaxSentiment(BigDecimal maxSentiment) {
+        this.maxSentiment = maxSentiment;
+    }
+}
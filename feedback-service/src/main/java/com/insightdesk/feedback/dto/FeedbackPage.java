@@ -0,0 +1,39 @@
+package com.insightdesk.feedback.dto;
+
+import java.util.List;
+
+/**
+ * One page of the feedback listing. nextCursor is passed back as ?cursor= to get
+ * the following page and is null on the last page.
+ */
+public class FeedbackPage {
+
+    private List<FeedbackSummary> items;
+    private Long nextCursor;
+
+    // Constructors
+    public FeedbackPage() {
+    }
+
+    public FeedbackPage(List<FeedbackSummary> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<FeedbackSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<FeedbackSummary> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
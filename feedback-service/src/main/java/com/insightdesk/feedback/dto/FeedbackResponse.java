@@ -11,9 +11,11 @@ public class FeedbackResponse {
     private Long projectId;
     private String message;
     private String category;
+    private String language;
     private BigDecimal sentimentScore;
     private String[] keywords;
     private Map<String, Object> entities;
+    private Long duplicateOf;
     private Boolean processed;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
@@ -63,6 +65,14 @@ public class FeedbackResponse {
         this.category = category;
     }
 
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
     public BigDecimal getSentimentScore() {
         return sentimentScore;
     }
@@ -87,6 +97,14 @@ public class FeedbackResponse {
         this.entities = entities;
     }
 
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
     public Boolean getProcessed() {
         return processed;
     }
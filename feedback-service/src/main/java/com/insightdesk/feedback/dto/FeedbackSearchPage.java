@@ -0,0 +1,39 @@
+package com.insightdesk.feedback.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results, best match first. nextCursor is passed back as
+ * ?cursor= to get the following page and is null on the last page.
+ */
+public class FeedbackSearchPage {
+
+    private List<FeedbackSearchHit> items;
+    private String nextCursor;
+
+    // Constructors
+    public FeedbackSearchPage() {
+    }
+
+    public FeedbackSearchPage(List<FeedbackSearchHit> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<FeedbackSearchHit> getItems() {
+        return items;
+    }
+
+    public void setItems(List<FeedbackSearchHit> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.insightdesk.feedback.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Listing projection of a feedback row: the columns a list view needs, without
+ * keywords, entities or the tsvector
+ */
+public class FeedbackSummary {
+
+    private Long id;
+    private Long userId;
+    private Long projectId;
+    private String message;
+    private String category;
+    private BigDecimal sentimentScore;
+    private Boolean processed;
+    private OffsetDateTime createdAt;
+
+    // Constructors
+    public FeedbackSummary() {
+    }
+
+    /**
+     * Used by the JPA constructor projection in FeedbackRepositoryCustomImpl
+     */
+    public FeedbackSummary(Long id, Long userId, Long projectId, String message, String category, BigDecimal sentimentScore, Boolean processed, OffsetDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.projectId = projectId;
+        this.message = message;
+        this.category = category;
+        this.sentimentScore = sentimentScore;
+        this.processed = processed;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getSentimentScore() {
+        return sentimentScore;
+    }
+
+    public void setSentimentScore(BigDecimal sentimentScore) {
+        this.sentimentScore = sentimentScore;
+    }
+
+    public Boolean getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(Boolean processed) {
+        this.processed = processed;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -12,8 +12,14 @@ import java.util.Map;
 @Table(name = "feedback")
 public class Feedback {
 
+    /**
+     * Must match INCREMENT BY of feedback_id_seq (see src/scripts/feedback.sql)
+     */
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_id_seq")
+    @SequenceGenerator(name = "feedback_id_seq", sequenceName = "feedback_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id")
@@ -28,6 +34,10 @@ public class Feedback {
     @Column(length = 50)
     private String category;
 
+    /** ISO 639-1 code detected by the NLP service; also selects the text search configuration */
+    @Column(length = 8)
+    private String language;
+
     @Column(name = "sentiment_score", precision = 3, scale = 2)
     private BigDecimal sentimentScore;
 
@@ -39,6 +49,10 @@ public class Feedback {
     @JdbcTypeCode(SqlTypes.JSON)
     private Map<String, Object> entities;
 
+    /** Earlier feedback of the same project this one nearly duplicates, linked by the NLP service */
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
     @Column(nullable = false)
     private Boolean processed = false;
 
@@ -104,6 +118,14 @@ public class Feedback {
         this.category = category;
     }
 
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
     public BigDecimal getSentimentScore() {
         return sentimentScore;
     }
@@ -128,6 +150,14 @@ public class Feedback {
         this.entities = entities;
     }
 
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
     public Boolean getProcessed() {
         return processed;
     }
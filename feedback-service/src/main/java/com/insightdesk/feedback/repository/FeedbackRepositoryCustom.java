@@ -0,0 +1,15 @@
+package com.insightdesk.feedback.repository;
+
+import com.insightdesk.feedback.dto.FeedbackFilter;
+import com.insightdesk.feedback.dto.FeedbackSummary;
+
+import java.util.List;
+
+public interface FeedbackRepositoryCustom {
+
+    /**
+     * Keyset page of feedback, newest id first.
+     * Only rows with id below the cursor are returned (all rows when cursor is null).
+     */
+    List<FeedbackSummary> findPage(FeedbackFilter filter, Long cursor, int limit);
+}
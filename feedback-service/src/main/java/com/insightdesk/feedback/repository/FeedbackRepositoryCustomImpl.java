@@ -0,0 +1,74 @@
+package com.insightdesk.feedback.repository;
+
+import com.insightdesk.feedback.dto.FeedbackFilter;
+import com.insightdesk.feedback.dto.FeedbackSummary;
+import com.insightdesk.feedback.entity.Feedback;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the listing query with only the filters that are set, so each filter
+ * combination gets its own plan and can use the matching (column, id) index
+ * instead of a generic "(:param IS NULL OR ...)" plan.
+ */
+public class FeedbackRepositoryCustomImpl implements FeedbackRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FeedbackSummary> findPage(FeedbackFilter filter, Long cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FeedbackSummary> query = cb.createQuery(FeedbackSummary.class);
+        Root<Feedback> feedback = query.from(Feedback.class);
+
+        // Constructor projection: selects only these columns, no entity hydration
+        query.select(cb.construct(FeedbackSummary.class,
+            feedback.get("id"),
+            feedback.get("userId"),
+            feedback.get("projectId"),
+            feedback.get("message"),
+            feedback.get("category"),
+            feedback.get("sentimentScore"),
+            feedback.get("processed"),
+            feedback.get("createdAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (cursor != null) {
+            predicates.add(cb.lessThan(feedback.<Long>get("id"), cursor));
+        }
+        if (filter.getProjectId() != null) {
+            predicates.add(cb.equal(feedback.get("projectId"), filter.getProjectId()));
+        }
+        if (filter.getUserId() != null) {
+            predicates.add(cb.equal(feedback.get("userId"), filter.getUserId()));
+        }
+        if (filter.getCategory() != null) {
+            predicates.add(cb.equal(feedback.get("category"), filter.getCategory()));
+        }
+        if (filter.getProcessed() != null) {
+            predicates.add(cb.equal(feedback.get("processed"), filter.getProcessed()));
+        }
+        if (filter.getMinSentiment() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(feedback.<BigDecimal>get("sentimentScore"), filter.getMinSentiment()));
+        }
+        if (filter.getMaxSentiment() != null) {
+            predicates.add(cb.lessThanOrEqualTo(feedback.<BigDecimal>get("sentimentScore"), filter.getMaxSentiment()));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(feedback.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
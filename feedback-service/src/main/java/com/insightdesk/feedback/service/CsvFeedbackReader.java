@@ -0,0 +1,172 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.feedback.csv.CsvChunk;
+import com.insightdesk.feedback.csv.CsvChunkReader;
+import com.insightdesk.feedback.csv.CsvFormatException;
+import com.insightdesk.feedback.csv.CsvParser;
+import com.insightdesk.feedback.csv.CsvRecord;
+import com.insightdesk.feedback.dto.FeedbackRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reads feedback rows from CSV.
+ * Expected CSV format: userId,projectId,message,category,sentimentScore,keywords
+ *
+ * The input is cut into chunks at record boundaries and the chunks are parsed on the
+ * csvParserExecutor pool; results are still delivered in file order.
+ */
+@Component
+public class CsvFeedbackReader {
+
+    /**
+     * Characters per parse task
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    @Autowired
+    @Qualifier("csvParserExecutor")
+    private ExecutorService csvParserExecutor;
+
+    @Value("${feedback.import.parser-threads:0}")
+    private int parserThreads;
+
+    /**
+     * Parse the input and hand each parsed chunk of rows to the consumer, in file order,
+     * on the calling thread. The first line is treated as a header. Rows that cannot be
+     * parsed are passed on as failed rows instead of aborting the read.
+     */
+    public void read(InputStream input, Consumer<List<ImportRow>> consumer) throws IOException {
+        CsvChunkReader chunkReader = new CsvChunkReader(new InputStreamReader(input, StandardCharsets.UTF_8), CHUNK_SIZE);
+        int maxInFlight = 2 * (parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors());
+        Deque<CsvChunk> chunks = new ArrayDeque<>();
+        Deque<Future<List<ImportRow>>> inFlight = new ArrayDeque<>();
+
+        try {
+            CsvChunk chunk;
+            while ((chunk = chunkReader.next()) != null) {
+                CsvChunk task = chunk;
+                chunks.add(task);
+                inFlight.add(csvParserExecutor.submit(() -> parseChunk(task)));
+                if (inFlight.size() >= maxInFlight) {
+                    consumer.accept(await(inFlight.poll()));
+                    chunkReader.recycle(chunks.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                consumer.accept(await(inFlight.poll()));
+                chunkReader.recycle(chunks.poll());
+            }
+        } finally {
+            for (Future<List<ImportRow>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private List<ImportRow> parseChunk(CsvChunk chunk) {
+        List<ImportRow> rows = new ArrayList<>();
+        CsvParser parser = new CsvParser(chunk);
+        boolean isHeader = chunk.isFirst();
+
+        while (true) {
+            CsvRecord record;
+            try {
+                record = parser.next();
+            } catch (CsvFormatException e) {
+                // The parser has skipped the rest of the malformed record
+                rows.add(ImportRow.failed(e.getLineNumber(), e.getMessage()));
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+
+            // Skip header line
+            if (isHeader) {
+                isHeader = false;
+                continue;
+            }
+            if (record.size() >= 3) { // At minimum we need userId, projectId, and message
+                try {
+                    rows.add(ImportRow.parsed(record.getLineNumber(), mapRecord(record)));
+                } catch (CsvFormatException e) {
+                    rows.add(ImportRow.failed(e.getLineNumber(), e.getMessage()));
+                }
+            } else if (record.size() > 1 || !record.isBlank(0)) {
+                rows.add(ImportRow.failed(record.getLineNumber(), "expected at least 3 columns"));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Map one CSV record to a feedback request; numeric fields are parsed straight from the buffer
+     */
+    private FeedbackRequest mapRecord(CsvRecord record) {
+        FeedbackRequest request = new FeedbackRequest();
+
+        // Parse userId (optional)
+        if (!record.isBlank(0)) {
+            request.setUserId(record.getLong(0));
+        }
+
+        // Parse projectId (optional)
+        if (!record.isBlank(1)) {
+            request.setProjectId(record.getLong(1));
+        }
+
+        // Parse message (required)
+        request.setMessage(record.getString(2).trim());
+
+        // Parse category (optional)
+        if (!record.isBlank(3)) {
+            request.setCategory(record.getString(3).trim());
+        }
+
+        // Parse sentimentScore (optional)
+        if (!record.isBlank(4)) {
+            request.setSentimentScore(record.getDecimal(4));
+        }
+
+        // Parse keywords (optional)
+        if (!record.isBlank(5)) {
+            String[] keywords = record.getString(5).trim().split(",");
+            for (int i = 0; i < keywords.length; i++) {
+                keywords[i] = keywords[i].trim();
+            }
+            request.setKeywords(keywords);
+        }
+
+        return request;
+    }
+
+    private List<ImportRow> await(Future<List<ImportRow>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing CSV", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Error parsing CSV", e.getCause());
+        }
+    }
+}
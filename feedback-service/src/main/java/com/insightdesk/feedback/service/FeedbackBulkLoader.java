@@ -0,0 +1,190 @@
+package com.insightdesk.feedback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.feedback.dto.FeedbackRequest;
+import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.feedback.entity.Feedback;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk loader that streams feedback rows into PostgreSQL with COPY ... FROM STDIN
+ * instead of one INSERT round trip per row.
+ */
+@Service
+public class FeedbackBulkLoader {
+
+    private static final String RESERVE_ID_BLOCKS_SQL =
+        "SELECT nextval('feedback_id_seq') FROM generate_series(1, ?)";
+
+    private static final String COPY_SQL =
+        "COPY feedback (id, user_id, project_id, message, category, sentiment_score, keywords, entities, "
+            + "processed, created_at, updated_at) FROM STDIN";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Load a chunk of feedback rows in one transaction, with ids reserved by
+     * {@link #reserveIds} (one per request, assigned in input order). Ids of a load that was
+     * rolled back were never used and can be passed again.
+     */
+    @Transactional
+    public List<FeedbackResponse> copyIn(List<FeedbackRequest> requests, List<Long> ids) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (ids.size() != requests.size()) {
+            throw new IllegalArgumentException("Expected " + requests.size() + " ids, got " + ids.size());
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<FeedbackResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            responses.add(toResponse(ids.get(i), requests.get(i), now));
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(copyManager.copyIn(COPY_SQL), COPY_BUFFER_SIZE),
+                    StandardCharsets.UTF_8))) {
+                for (FeedbackResponse row : responses) {
+                    writeRow(writer, row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error streaming rows to COPY", e);
+            }
+            return (long) responses.size();
+        });
+
+        return responses;
+    }
+
+    /**
+     * Reserve ids for a chunk, in ascending order so they can be assigned in input order.
+     * Uses the same pooled scheme as Hibernate: each nextval value v owns the block (v - size, v].
+     */
+    public List<Long> reserveIds(int count) {
+        int blockSize = Feedback.ID_ALLOCATION_SIZE;
+        int blocks = (count + blockSize - 1) / blockSize;
+        List<Long> blockEnds = jdbcTemplate.queryForList(RESERVE_ID_BLOCKS_SQL, Long.class, blocks);
+        blockEnds.sort(null);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockEnd : blockEnds) {
+            for (long id = blockEnd - blockSize + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private FeedbackResponse toResponse(Long id, FeedbackRequest request, OffsetDateTime now) {
+        FeedbackResponse response = new FeedbackResponse();
+        response.setId(id);
+        response.setUserId(request.getUserId());
+        response.setProjectId(request.getProjectId());
+        response.setMessage(request.getMessage());
+        response.setCategory(request.getCategory());
+        response.setSentimentScore(request.getSentimentScore());
+        response.setKeywords(request.getKeywords());
+        response.setEntities(request.getEntities());
+        response.setProcessed(false);
+        response.setCreatedAt(now);
+        response.setUpdatedAt(now);
+        return response;
+    }
+
+    /**
+     * Write one row in COPY text format (tab separated, \N for NULL)
+     */
+    private void writeRow(Writer writer, FeedbackResponse row) throws IOException {
+        writer.write(row.getId().toString());
+        writer.write('\t');
+        writeNullable(writer, row.getUserId() == null ? null : row.getUserId().toString());
+        writer.write('\t');
+        writeNullable(writer, row.getProjectId() == null ? null : row.getProjectId().toString());
+        writer.write('\t');
+        writeNullable(writer, row.getMessage());
+        writer.write('\t');
+        writeNullable(writer, row.getCategory());
+        writer.write('\t');
+        writeNullable(writer, row.getSentimentScore() == null ? null : row.getSentimentScore().toPlainString());
+        writer.write('\t');
+        writeNullable(writer, row.getKeywords() == null ? null : toArrayLiteral(row.getKeywords()));
+        writer.write('\t');
+        writeNullable(writer, row.getEntities() == null ? null : objectMapper.writeValueAsString(row.getEntities()));
+        writer.write('\t');
+        writer.write(row.getProcessed() ? "t" : "f");
+        writer.write('\t');
+        writer.write(row.getCreatedAt().toString());
+        writer.write('\t');
+        writer.write(row.getUpdatedAt().toString());
+        writer.write('\n');
+    }
+
+    private void writeNullable(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> writer.write("\\\\");
+                case '\t' -> writer.write("\\t");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                default -> writer.write(c);
+            }
+        }
+    }
+
+    /**
+     * Build a PostgreSQL array literal such as {"a","b"} for the TEXT[] column
+     */
+    private String toArrayLiteral(String[] values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            if (values[i] == null) {
+                literal.append("NULL");
+                continue;
+            }
+            literal.append('"');
+            for (int j = 0; j < values[i].length(); j++) {
+                char c = values[i].charAt(j);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+}
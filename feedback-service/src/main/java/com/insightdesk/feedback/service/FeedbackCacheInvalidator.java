@@ -0,0 +1,50 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts cached feedback once nlp-processing-service has committed its results,
+ * so the next read loads the processed version.
+ */
+@Component
+public class FeedbackCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * The group id is unique per instance so that every instance evicts from its own cache
+     */
+    @KafkaListener(
+        topics = "${feedback.kafka.processed-topic}",
+        groupId = "feedback-cache-${random.uuid}",
+        containerFactory = "feedbackProcessedListenerContainerFactory"
+    )
+    public void onFeedbackProcessed(List<ConsumerRecord<String, FeedbackEvent>> records) {
+        Cache cache = cacheManager.getCache(FeedbackService.BY_ID_CACHE);
+        if (cache == null) {
+            return;
+        }
+        for (ConsumerRecord<String, FeedbackEvent> record : records) {
+            // The record key is the feedback id, so this works even if the value cannot be decoded
+            try {
+                cache.evict(Long.valueOf(record.key()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring feedback-processed record with key {}", record.key());
+            }
+        }
+        logger.debug("Evicted {} processed feedback entries from cache", records.size());
+    }
+}
@@ -0,0 +1,155 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.feedback.dto.FeedbackSearchHit;
+import com.insightdesk.feedback.dto.FeedbackSearchPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Full-text search over feedback.message_tsv (GIN index idx_feedback_message_tsv).
+ *
+ * Without a language the query is parsed as English; with one, it is parsed with that
+ * language's text search configuration (feedback_ts_config) and only rows indexed with
+ * the same configuration are searched.
+ *
+ * Results are ordered by ts_rank, then id, and paged with a keyset cursor on
+ * (rank, id). Snippets are built with ts_headline for the returned page only.
+ * Pages are cached briefly in the "feedback-search" cache, since support staff
+ * tend to repeat the same queries.
+ */
+@Service
+public class FeedbackSearchService {
+
+    public static final String CACHE_NAME = "feedback-search";
+
+    /** Configuration of rows indexed before their language is known; see feedback_ts_config() */
+    private static final String DEFAULT_TS_CONFIG = "'english'::regconfig";
+
+    private static final String LANGUAGE_TS_CONFIG = "feedback_ts_config(?)";
+
+    private static final String HEADLINE_OPTIONS =
+        "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${feedback.search.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * Trim, collapse whitespace and lower-case a query so equivalent queries share a cache entry.
+     * Text search is case-insensitive, so this does not change the results.
+     */
+    public static String normalizeQuery(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lower-case a language code; null if none was given
+     */
+    public static String normalizeLanguage(String language) {
+        return language == null || language.isBlank() ? null : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Search feedback messages using web search syntax ("quoted phrases", or, -excluded).
+     * The query is expected to be normalized with {@link #normalizeQuery(String)}.
+     */
+    @Cacheable(cacheNames = CACHE_NAME)
+    public FeedbackSearchPage search(String query, String language, Long projectId, String category, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder ranked = new StringBuilder(
+            "SELECT f.id, f.user_id, f.project_id, f.category, f.sentiment_score, f.processed, f.created_at, f.message, "
+                + "ts_rank(f.message_tsv, q.query) AS rank, q.query, c.config "
+                + "FROM feedback f, (SELECT " + (language != null ? LANGUAGE_TS_CONFIG : DEFAULT_TS_CONFIG) + ") AS c(config), "
+                + "websearch_to_tsquery(c.config, ?) AS q(query) "
+                + "WHERE f.message_tsv @@ q.query");
+        if (language != null) {
+            args.add(language);
+        }
+        args.add(query);
+        if (language != null) {
+            // Only rows whose message_tsv was built with the same configuration
+            ranked.append(" AND feedback_ts_config(f.language) = c.config");
+        }
+        if (projectId != null) {
+            ranked.append(" AND f.project_id = ?");
+            args.add(projectId);
+        }
+        if (category != null) {
+            ranked.append(" AND f.category = ?");
+            args.add(category);
+        }
+
+        StringBuilder page = new StringBuilder("SELECT * FROM (").append(ranked).append(") ranked");
+        if (cursor != null) {
+            SearchCursor position = SearchCursor.parse(cursor);
+            page.append(" WHERE (rank, id) < (?::real, ?)");
+            args.add(position.rank());
+            args.add(position.id());
+        }
+        page.append(" ORDER BY rank DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        // ts_headline re-parses the message, so only run it on the rows being returned
+        String sql = "SELECT id, user_id, project_id, category, sentiment_score, processed, created_at, rank, "
+            + "ts_headline(config, message, query, '" + HEADLINE_OPTIONS + "') AS snippet "
+            + "FROM (" + page + ") page ORDER BY rank DESC, id DESC";
+
+        List<FeedbackSearchHit> hits = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            FeedbackSearchHit hit = new FeedbackSearchHit();
+            hit.setId(rs.getLong("id"));
+            hit.setUserId(rs.getObject("user_id", Long.class));
+            hit.setProjectId(rs.getObject("project_id", Long.class));
+            hit.setCategory(rs.getString("category"));
+            hit.setSentimentScore(rs.getBigDecimal("sentiment_score"));
+            hit.setProcessed(rs.getObject("processed", Boolean.class));
+            hit.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+            hit.setRank(rs.getFloat("rank"));
+            hit.setSnippet(rs.getString("snippet"));
+            return hit;
+        }, args.toArray());
+
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = new ArrayList<>(hits.subList(0, pageSize));
+            FeedbackSearchHit last = hits.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.getRank(), last.getId()).format();
+        }
+        return new FeedbackSearchPage(hits, nextCursor);
+    }
+
+    /**
+     * Position after the last hit of a page, as "rank:id".
+     * The rank is a float4, and Float.toString round-trips it exactly.
+     */
+    private record SearchCursor(float rank, long id) {
+
+        static SearchCursor parse(String cursor) {
+            int separator = cursor.indexOf(':');
+            try {
+                if (separator < 0) {
+                    throw new NumberFormatException("missing ':'");
+                }
+                return new SearchCursor(Float.parseFloat(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+        }
+
+        String format() {
+            return rank + ":" + id;
+        }
+    }
+}
@@ -1,25 +1,41 @@
 package com.insightdesk.feedback.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.insightdesk.feedback.dto.FeedbackFilter;
+import com.insightdesk.feedback.dto.FeedbackPage;
 import com.insightdesk.feedback.dto.FeedbackRequest;
 import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.feedback.dto.FeedbackSummary;
 import com.insightdesk.feedback.entity.Feedback;
 import com.insightdesk.feedback.repository.FeedbackRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class FeedbackService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackService.class);
+
+    public static final String BY_ID_CACHE = "feedback-by-id";
+
+    private static final String IMPORT_MODE_COPY = "copy";
+
     @Autowired
     private FeedbackRepository feedbackRepository;
 
@@ -27,28 +43,36 @@ public class FeedbackService {
     private ObjectMapper objectMapper;
 
     @Autowired
-    private KafkaProducerService kafkaProducerService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FeedbackBulkLoader feedbackBulkLoader;
+
+    @Autowired
+    private CsvFeedbackReader csvFeedbackReader;
+
+    @Value("${feedback.import.mode:copy}")
+    private String importMode;
+
+    @Value("${feedback.import.chunk-size:5000}")
+    private int importChunkSize;
+
+    @Value("${feedback.list.max-limit:500}")
+    private int listMaxLimit;
 
     /**
      * Create a single feedback entry
      */
     @Transactional
     public FeedbackResponse createFeedback(FeedbackRequest request) {
-        Feedback feedback = new Feedback();
-        feedback.setUserId(request.getUserId());
-        feedback.setProjectId(request.getProjectId());
-        feedback.setMessage(request.getMessage());
-        feedback.setCategory(request.getCategory());
-        feedback.setSentimentScore(request.getSentimentScore());
-        feedback.setKeywords(request.getKeywords());
-        feedback.setEntities(request.getEntities());
-        feedback.setProcessed(false);
-
-        Feedback savedFeedback = feedbackRepository.save(feedback);
+        Feedback savedFeedback = feedbackRepository.save(mapToEntity(request));
         FeedbackResponse response = mapToResponse(savedFeedback);
         
-        // Send feedback event to Kafka
-        kafkaProducerService.sendFeedbackEvent(response);
+        // Queue feedback event for Kafka in the same transaction
+        outboxService.enqueue(List.of(response));
         
         return response;
     }
@@ -57,127 +81,88 @@ public class FeedbackService {
      * Import feedback from CSV file
      * Expected CSV format: userId,projectId,message,category,sentimentScore,keywords
      * Example: 1,100,"Great product","positive",0.95,"quality,excellent,satisfied"
+     * Rows are committed in chunks; rows that cannot be parsed or saved are reported on the job.
      */
-    @Transactional
-    public List<FeedbackResponse> importFromCsv(MultipartFile file) throws Exception {
-        List<FeedbackResponse> responses = new ArrayList<>();
+    public void importFromCsv(InputStream input, ImportJob job) throws Exception {
+        List<ImportRow> chunk = new ArrayList<>(importChunkSize);
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isHeader = true;
-            
-            while ((line = reader.readLine()) != null) {
-                // Skip header line
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-                
-                String[] fields = parseCsvLine(line);
-                
-                if (fields.length >= 3) { // At minimum we need userId, projectId, and message
-                    Feedback feedback = new Feedback();
-                    
-                    // Parse userId (optional)
-                    if (!fields[0].trim().isEmpty()) {
-                        feedback.setUserId(Long.parseLong(fields[0].trim()));
-                    }
-                    
-                    // Parse projectId (optional)
-                    if (fields.length > 1 && !fields[1].trim().isEmpty()) {
-                        feedback.setProjectId(Long.parseLong(fields[1].trim()));
-                    }
-                    
-                    // Parse message (required)
-                    if (fields.length > 2) {
-                        feedback.setMessage(fields[2].trim());
-                    }
-                    
-                    // Parse category (optional)
-                    if (fields.length > 3 && !fields[3].trim().isEmpty()) {
-                        feedback.setCategory(fields[3].trim());
-                    }
-                    
-                    // Parse sentimentScore (optional)
-                    if (fields.length > 4 && !fields[4].trim().isEmpty()) {
-                        feedback.setSentimentScore(new BigDecimal(fields[4].trim()));
-                    }
-                    
-                    // Parse keywords (optional)
-                    if (fields.length > 5 && !fields[5].trim().isEmpty()) {
-                        String[] keywords = fields[5].trim().split(",");
-                        feedback.setKeywords(keywords);
-                    }
-                    
-                    feedback.setProcessed(false);
-                    Feedback savedFeedback = feedbackRepository.save(feedback);
-                    FeedbackResponse response = mapToResponse(savedFeedback);
-                    responses.add(response);
-                    
-                    // Send feedback event to Kafka
-                    kafkaProducerService.sendFeedbackEvent(response);
-                }
+        csvFeedbackReader.read(input, rows -> {
+            for (ImportRow row : rows) {
+                addRow(row, chunk, job);
             }
-        }
+        });
         
-        return responses;
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, job);
+        }
     }
 
     /**
      * Import feedback from JSON file
-     * Expected JSON format: Array of feedback objects
+     * Accepted formats: a JSON array of feedback objects, or newline-delimited JSON (one object per line)
      * [{"userId": 1, "projectId": 100, "message": "Great product", "category": "positive", ...}, ...]
+     * The input is streamed one object at a time, so only one chunk of rows is held in memory at a time.
      */
-    @Transactional
-    public List<FeedbackResponse> importFromJson(MultipartFile file) throws Exception {
-        List<FeedbackResponse> responses = new ArrayList<>();
-        
-        // Parse JSON array
-        FeedbackRequest[] feedbackRequests = objectMapper.readValue(
-            file.getInputStream(), 
-            FeedbackRequest[].class
-        );
+    public void importFromJson(InputStream input, ImportJob job) throws Exception {
+        List<ImportRow> chunk = new ArrayList<>(importChunkSize);
+        ObjectReader requestReader = objectMapper.readerFor(FeedbackRequest.class);
         
-        // Save each feedback
-        for (FeedbackRequest request : feedbackRequests) {
-            Feedback feedback = new Feedback();
-            feedback.setUserId(request.getUserId());
-            feedback.setProjectId(request.getProjectId());
-            feedback.setMessage(request.getMessage());
-            feedback.setCategory(request.getCategory());
-            feedback.setSentimentScore(request.getSentimentScore());
-            feedback.setKeywords(request.getKeywords());
-            feedback.setEntities(request.getEntities());
-            feedback.setProcessed(false);
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean isArray = token == JsonToken.START_ARRAY;
+            if (isArray) {
+                token = parser.nextToken();
+            }
             
-            Feedback savedFeedback = feedbackRepository.save(feedback);
-            FeedbackResponse response = mapToResponse(savedFeedback);
-            responses.add(response);
+            // Each START_OBJECT is either an array element or a top-level NDJSON value
+            while (token == JsonToken.START_OBJECT) {
+                long lineNumber = parser.currentTokenLocation().getLineNr();
+                
+                // Read the object as a tree first so a bad field only rejects this row
+                JsonNode node = objectMapper.readTree(parser);
+                ImportRow row;
+                try {
+                    row = ImportRow.parsed(lineNumber, requestReader.readValue(node));
+                } catch (JsonProcessingException e) {
+                    row = ImportRow.failed(lineNumber, e.getOriginalMessage());
+                }
+                addRow(row, chunk, job);
+                token = parser.nextToken();
+            }
             
-            // Send feedback event to Kafka
-            kafkaProducerService.sendFeedbackEvent(response);
+            if (isArray ? token != JsonToken.END_ARRAY : token != null) {
+                throw new IllegalArgumentException("Expected a JSON array of objects or one JSON object per line, found "
+                    + token + " at line " + parser.currentLocation().getLineNr());
+            }
         }
         
-        return responses;
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, job);
+        }
     }
 
     /**
-     * Get all feedback entries
+     * List feedback newest first, one keyset page at a time.
+     * One extra row is fetched to tell whether another page follows.
      */
-    public List<FeedbackResponse> getAllFeedback() {
-        List<Feedback> feedbackList = feedbackRepository.findAll();
-        List<FeedbackResponse> responses = new ArrayList<>();
+    public FeedbackPage listFeedback(FeedbackFilter filter, Long cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, listMaxLimit));
+        List<FeedbackSummary> rows = feedbackRepository.findPage(filter, cursor, pageSize + 1);
         
-        for (Feedback feedback : feedbackList) {
-            responses.add(mapToResponse(feedback));
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
         }
         
-        return responses;
+        return new FeedbackPage(rows, nextCursor);
     }
 
     /**
-     * Get feedback by ID
+     * Get feedback by ID (read-through cache, evicted by FeedbackCacheInvalidator
+     * when NLP processing completes)
      */
+    @Cacheable(cacheNames = BY_ID_CACHE)
     public FeedbackResponse getFeedbackById(Long id) {
         Feedback feedback = feedbackRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Feedback not found with id: " + id));
@@ -185,28 +170,101 @@ public class FeedbackService {
     }
 
     /**
-     * Helper method to parse CSV line considering quoted fields
+     * Validate a parsed row and add it to the current chunk, writing the chunk once it is full
      */
-    private String[] parseCsvLine(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder currentField = new StringBuilder();
-        boolean inQuotes = false;
+    private void addRow(ImportRow row, List<ImportRow> chunk, ImportJob job) {
+        if (row.isFailed()) {
+            job.addFailure(row.getLineNumber(), row.getError());
+            return;
+        }
+        String message = row.getRequest().getMessage();
+        if (message == null || message.isBlank()) {
+            job.addFailure(row.getLineNumber(), "message is required");
+            return;
+        }
         
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                fields.add(currentField.toString());
-                currentField = new StringBuilder();
-            } else {
-                currentField.append(c);
-            }
+        chunk.add(row);
+        if (chunk.size() >= importChunkSize) {
+            writeChunk(chunk, job);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Write one chunk of rows in its own transaction. If the chunk fails, it is retried in
+     * halves, down to single rows, so a bad row does not reject the rest and costs only a
+     * few extra transactions. In copy mode the ids are reserved once for the chunk and its
+     * halves reuse them: a rolled-back COPY leaves its ids unused.
+     */
+    private void writeChunk(List<ImportRow> rows, ImportJob job) {
+        List<Long> ids = IMPORT_MODE_COPY.equalsIgnoreCase(importMode)
+            ? feedbackBulkLoader.reserveIds(rows.size())
+            : null;
+        writeChunk(rows, ids, job);
+    }
+
+    private void writeChunk(List<ImportRow> rows, List<Long> ids, ImportJob job) {
+        List<FeedbackRequest> requests = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            requests.add(row.getRequest());
         }
         
-        fields.add(currentField.toString());
-        return fields.toArray(new String[0]);
+        try {
+            job.addImported(saveChunk(requests, ids));
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                job.addFailure(rows.get(0).getLineNumber(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            logger.warn("Import job {}: chunk of {} rows failed, retrying in halves: {}",
+                job.getId(), rows.size(), e.getMessage());
+            int half = rows.size() / 2;
+            writeChunk(rows.subList(0, half), ids == null ? null : ids.subList(0, half), job);
+            writeChunk(rows.subList(half, rows.size()), ids == null ? null : ids.subList(half, ids.size()), job);
+        }
+    }
+
+    /**
+     * Persist one chunk of imported rows and their outbox events in one transaction;
+     * ids are the ones reserved for the rows in copy mode
+     */
+    private List<FeedbackResponse> saveChunk(List<FeedbackRequest> chunk, List<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            List<FeedbackResponse> saved;
+            if (IMPORT_MODE_COPY.equalsIgnoreCase(importMode)) {
+                saved = feedbackBulkLoader.copyIn(chunk, ids);
+            } else {
+                List<Feedback> entities = new ArrayList<>(chunk.size());
+                for (FeedbackRequest request : chunk) {
+                    entities.add(mapToEntity(request));
+                }
+                saved = new ArrayList<>(chunk.size());
+                for (Feedback feedback : feedbackRepository.saveAll(entities)) {
+                    saved.add(mapToResponse(feedback));
+                }
+            }
+            
+            // Queue feedback events for Kafka
+            outboxService.enqueue(saved);
+            
+            return saved;
+        });
+    }
+
+    /**
+     * Map request DTO to a new, unprocessed entity
+     */
+    private Feedback mapToEntity(FeedbackRequest request) {
+        Feedback feedback = new Feedback();
+        feedback.setUserId(request.getUserId());
+        feedback.setProjectId(request.getProjectId());
+        feedback.setMessage(request.getMessage());
+        feedback.setCategory(request.getCategory());
+        feedback.setSentimentScore(request.getSentimentScore());
+        feedback.setKeywords(request.getKeywords());
+        feedback.setEntities(request.getEntities());
+        feedback.setProcessed(false);
+        return feedback;
     }
 
     /**
@@ -219,9 +277,11 @@ public class FeedbackService {
         response.setProjectId(feedback.getProjectId());
         response.setMessage(feedback.getMessage());
         response.setCategory(feedback.getCategory());
+        response.setLanguage(feedback.getLanguage());
         response.setSentimentScore(feedback.getSentimentScore());
         response.setKeywords(feedback.getKeywords());
         response.setEntities(feedback.getEntities());
+        response.setDuplicateOf(feedback.getDuplicateOf());
         response.setProcessed(feedback.getProcessed());
         response.setCreatedAt(feedback.getCreatedAt());
         response.setUpdatedAt(feedback.getUpdatedAt());
@@ -0,0 +1,191 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.feedback.dto.ImportJobStatus;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Mutable state of one asynchronous import. Written by the import worker, read by status requests.
+ */
+public class ImportJob {
+
+    public enum Type { CSV, JSON }
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Failed line numbers kept for the report; further failures are only counted
+     */
+    private static final int MAX_TRACKED_FAILED_LINES = 10_000;
+
+    private static final int MAX_TRACKED_ERRORS = 20;
+
+    private final String id;
+    private final Type type;
+    private final String fileName;
+    private final long totalBytes;
+    private final OffsetDateTime createdAt = OffsetDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long bytesRead;
+    private volatile OffsetDateTime startedAt;
+    private volatile OffsetDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile String error;
+
+    private long importedCount;
+    private long failedCount;
+    private Long firstId;
+    private Long lastId;
+    private final TreeSet<Long> failedLines = new TreeSet<>();
+    private final List<String> errors = new ArrayList<>();
+
+    public ImportJob(String id, Type type, String fileName, long totalBytes) {
+        this.id = id;
+        this.type = type;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void markRunning() {
+        startedNanos = System.nanoTime();
+        startedAt = OffsetDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void markCompleted() {
+        finish(Status.COMPLETED);
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status finalStatus) {
+        finishedNanos = System.nanoTime();
+        finishedAt = OffsetDateTime.now();
+        status = finalStatus;
+    }
+
+    void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    /**
+     * Record a committed chunk of imported rows
+     */
+    synchronized void addImported(List<FeedbackResponse> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (firstId == null) {
+            firstId = chunk.get(0).getId();
+        }
+        lastId = chunk.get(chunk.size() - 1).getId();
+        importedCount += chunk.size();
+    }
+
+    /**
+     * Record a row that was rejected or could not be written
+     */
+    synchronized void addFailure(long lineNumber, String reason) {
+        failedCount++;
+        if (failedLines.size() < MAX_TRACKED_FAILED_LINES) {
+            failedLines.add(lineNumber);
+        }
+        if (errors.size() < MAX_TRACKED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    public synchronized ImportJobStatus toStatus() {
+        ImportJobStatus jobStatus = new ImportJobStatus();
+        jobStatus.setJobId(id);
+        jobStatus.setType(type.name());
+        jobStatus.setFileName(fileName);
+        jobStatus.setStatus(status.name());
+        jobStatus.setTotalBytes(totalBytes);
+        jobStatus.setBytesRead(bytesRead);
+        jobStatus.setProgress(status == Status.COMPLETED ? 1.0
+            : totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 0.0);
+        jobStatus.setImportedCount(importedCount);
+        jobStatus.setFailedCount(failedCount);
+        jobStatus.setRowsPerSecond(rowsPerSecond());
+        jobStatus.setFirstId(firstId);
+        jobStatus.setLastId(lastId);
+        jobStatus.setFailedLines(compactLines());
+        jobStatus.setErrors(new ArrayList<>(errors));
+        jobStatus.setError(error);
+        jobStatus.setCreatedAt(createdAt);
+        jobStatus.setStartedAt(startedAt);
+        jobStatus.setFinishedAt(finishedAt);
+        return jobStatus;
+    }
+
+    private double rowsPerSecond() {
+        if (startedAt == null) {
+            return 0.0;
+        }
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        double seconds = (end - startedNanos) / 1_000_000_000.0;
+        return seconds > 0 ? Math.round((importedCount + failedCount) / seconds * 10) / 10.0 : 0.0;
+    }
+
+    /**
+     * Failed line numbers as ranges, e.g. "3,7-9,15"
+     */
+    private String compactLines() {
+        StringBuilder compact = new StringBuilder();
+        Long rangeStart = null;
+        Long previous = null;
+        for (Long line : failedLines) {
+            if (previous != null && line == previous + 1) {
+                previous = line;
+                continue;
+            }
+            appendRange(compact, rangeStart, previous);
+            rangeStart = line;
+            previous = line;
+        }
+        appendRange(compact, rangeStart, previous);
+        if (failedCount > failedLines.size()) {
+            compact.append(compact.length() > 0 ? "," : "").append("...");
+        }
+        return compact.toString();
+    }
+
+    private void appendRange(StringBuilder compact, Long start, Long end) {
+        if (start == null) {
+            return;
+        }
+        if (compact.length() > 0) {
+            compact.append(',');
+        }
+        compact.append(start);
+        if (!end.equals(start)) {
+            compact.append('-').append(end);
+        }
+    }
+}
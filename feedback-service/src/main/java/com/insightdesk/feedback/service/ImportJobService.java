@@ -0,0 +1,141 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.feedback.dto.ImportJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs CSV/JSON imports as background jobs on the bounded importExecutor and tracks their progress
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private TaskExecutor importExecutor;
+
+    @Value("${feedback.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    /**
+     * Spool the upload to a temp file and queue it for import.
+     * Throws RejectedExecutionException when the import queue is full.
+     */
+    public ImportJobStatus submit(MultipartFile file, ImportJob.Type type) throws IOException {
+        purgeFinishedJobs();
+
+        // The multipart file is only valid for the duration of the request
+        Path spooled = Files.createTempFile("feedback-import-", "." + type.name().toLowerCase());
+        try {
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, file.getOriginalFilename(), file.getSize());
+        jobs.put(job.getId(), job);
+        try {
+            importExecutor.execute(() -> run(job, spooled));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        logger.info("Queued {} import job {} for file {}", type, job.getId(), file.getOriginalFilename());
+        return job.toStatus();
+    }
+
+    /**
+     * Get the current status of a job, or null if it is unknown or has expired
+     */
+    public ImportJobStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job == null ? null : job.toStatus();
+    }
+
+    private void run(ImportJob job, Path spooled) {
+        job.markRunning();
+        try (InputStream input = new ProgressInputStream(Files.newInputStream(spooled), job)) {
+            if (job.getType() == ImportJob.Type.CSV) {
+                feedbackService.importFromCsv(input, job);
+            } else {
+                feedbackService.importFromJson(input, job);
+            }
+            job.markCompleted();
+            logger.info("Import job {} completed", job.getId());
+        } catch (Exception e) {
+            job.markFailed(e.getMessage());
+            logger.error("Import job {} failed: {}", job.getId(), e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled import file {}: {}", spooled, e.getMessage());
+            }
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Reports bytes consumed from the spooled file as job progress
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+
+        private final ImportJob job;
+        private long bytesRead;
+
+        ProgressInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.setBytesRead(++bytesRead);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                bytesRead += read;
+                job.setBytesRead(bytesRead);
+            }
+            return read;
+        }
+    }
+}
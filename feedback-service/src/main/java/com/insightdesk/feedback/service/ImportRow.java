@@ -0,0 +1,43 @@
+package com.insightdesk.feedback.service;
+
+import com.insightdesk.feedback.dto.FeedbackRequest;
+
+/**
+ * One input row of an import, either parsed into a request or rejected with an error
+ */
+public class ImportRow {
+
+    private final long lineNumber;
+    private final FeedbackRequest request;
+    private final String error;
+
+    private ImportRow(long lineNumber, FeedbackRequest request, String error) {
+        this.lineNumber = lineNumber;
+        this.request = request;
+        this.error = error;
+    }
+
+    public static ImportRow parsed(long lineNumber, FeedbackRequest request) {
+        return new ImportRow(lineNumber, request, null);
+    }
+
+    public static ImportRow failed(long lineNumber, String error) {
+        return new ImportRow(lineNumber, null, error);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public FeedbackRequest getRequest() {
+        return request;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -1,10 +1,9 @@
 package com.insightdesk.feedback.service;
 
-import com.insightdesk.feedback.dto.FeedbackResponse;
+import com.insightdesk.events.FeedbackEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
@@ -17,32 +16,26 @@ public class KafkaProducerService {
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
-
-    @Value("${feedback.kafka.topic}")
-    private String feedbackTopic;
+    private KafkaTemplate<String, FeedbackEvent> kafkaTemplate;
 
     /**
-     * Send feedback event to Kafka
+     * Send feedback event to Kafka without waiting for the broker.
+     * Events are written through the outbox; this is only called by {@link OutboxRelay}.
      */
-    public void sendFeedbackEvent(FeedbackResponse feedback) {
-        try {
-            CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(feedbackTopic, feedback.getId().toString(), feedback);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("Sent feedback event: [id={}] with offset=[{}]", 
-                        feedback.getId(), 
-                        result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Unable to send feedback event: [id={}] due to: {}", 
-                        feedback.getId(), 
-                        ex.getMessage());
-                }
-            });
-        } catch (Exception ex) {
-            logger.error("Error sending feedback event: {}", ex.getMessage(), ex);
-        }
+    public CompletableFuture<SendResult<String, FeedbackEvent>> send(String topic, String key, FeedbackEvent feedback) {
+        CompletableFuture<SendResult<String, FeedbackEvent>> future = kafkaTemplate.send(topic, key, feedback);
+        
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                logger.debug("Sent feedback event: [id={}] with offset=[{}]", 
+                    feedback.getId(), 
+                    result.getRecordMetadata().offset());
+            } else {
+                logger.error("Unable to send feedback event: [id={}] due to: {}", 
+                    feedback.getId(), 
+                    ex.getMessage());
+            }
+        });
+        return future;
     }
 }
@@ -0,0 +1,177 @@
+package com.insightdesk.feedback.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.events.FeedbackEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains feedback_outbox into Kafka.
+ *
+ * A batch is claimed in a short transaction: FOR UPDATE SKIP LOCKED picks pending rows no
+ * other instance is working on, and claimed_until marks them as taken for the lease, so
+ * several service instances can relay concurrently without sending the same row twice.
+ * The sends run after that transaction, pipelined and awaited together, and each row is
+ * deleted once the broker has acknowledged it. A failed send releases its row for the next
+ * run; if the instance dies instead, the row is taken again when its lease runs out
+ * (at-least-once; the consumer is idempotent).
+ *
+ * Events of one key stay in order: a row is only claimed once no earlier pending row has
+ * its key, so a later event never overtakes one that is claimed elsewhere or waiting for a
+ * retry. A row whose payload cannot be read will never send; it is marked FAILED with the
+ * error, kept for inspection, and no longer holds back its key.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String CLAIM_SQL =
+        "UPDATE feedback_outbox SET claimed_until = NOW() + ? * INTERVAL '1 millisecond' "
+            + "WHERE id IN ("
+            + "SELECT c.id FROM feedback_outbox c "
+            + "WHERE c.status = 'PENDING' AND (c.claimed_until IS NULL OR c.claimed_until < NOW()) "
+            + "AND NOT EXISTS (SELECT 1 FROM feedback_outbox e WHERE e.status = 'PENDING' "
+            + "AND e.topic = c.topic AND e.event_key = c.event_key AND e.id < c.id) "
+            + "ORDER BY c.id LIMIT ? FOR UPDATE SKIP LOCKED"
+            + ") RETURNING id, topic, event_key, payload";
+
+    private static final String DELETE_SQL = "DELETE FROM feedback_outbox WHERE id = ANY(?)";
+
+    private static final String RELEASE_SQL = "UPDATE feedback_outbox SET claimed_until = NULL WHERE id = ANY(?)";
+
+    private static final String FAIL_SQL =
+        "UPDATE feedback_outbox SET status = 'FAILED', claimed_until = NULL, failure = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${feedback.outbox.relay.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${feedback.outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${feedback.outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    /**
+     * Relay everything currently in the outbox, batch by batch in id order. Stops at the
+     * first batch with a failed send, so an unavailable broker is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${feedback.outbox.relay.interval-ms:200}")
+    public void drain() {
+        while (true) {
+            List<OutboxRow> rows = transactionTemplate.execute(status ->
+                jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getString("topic"), rs.getString("event_key"), rs.getString("payload")),
+                    Math.max(leaseMs, sendTimeoutMs), batchSize));
+            if (rows == null || rows.isEmpty()) {
+                return;
+            }
+            // RETURNING does not keep the subquery's order
+            rows.sort(Comparator.comparingLong(OutboxRow::id));
+            if (!relay(rows) || rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Send claimed rows and delete the acknowledged ones; returns whether all were sent
+     */
+    private boolean relay(List<OutboxRow> rows) {
+        // Pipeline every send of the batch before waiting on any of them
+        List<CompletableFuture<SendResult<String, FeedbackEvent>>> futures = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            futures.add(send(row));
+        }
+
+        List<Long> sentIds = new ArrayList<>(rows.size());
+        List<Long> unsentIds = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxRow row = rows.get(i);
+            if (futures.get(i) == null) {
+                continue;
+            }
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(row.id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unsentIds.add(row.id());
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("Outbox event {} not sent, will retry: {}", row.id(), e.getMessage());
+                unsentIds.add(row.id());
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            jdbcTemplate.update(DELETE_SQL, (Object) sentIds.toArray(new Long[0]));
+        }
+        if (!unsentIds.isEmpty()) {
+            jdbcTemplate.update(RELEASE_SQL, (Object) unsentIds.toArray(new Long[0]));
+        }
+        logger.debug("Relayed {} of {} outbox events", sentIds.size(), rows.size());
+        return unsentIds.isEmpty();
+    }
+
+    /**
+     * Start sending a row, or mark it FAILED and return null if its payload cannot be read
+     */
+    private CompletableFuture<SendResult<String, FeedbackEvent>> send(OutboxRow row) {
+        FeedbackEvent feedback;
+        try {
+            feedback = readEvent(objectMapper, row.payload());
+        } catch (IOException e) {
+            logger.error("Outbox event {} has an unreadable payload, marking it failed: {}", row.id(), e.getMessage());
+            jdbcTemplate.update(FAIL_SQL, e.getMessage(), row.id());
+            return null;
+        }
+        try {
+            return kafkaProducerService.send(row.topic(), row.key(), feedback);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Read an outbox payload as written by {@link OutboxService}. Unknown properties are
+     * ignored, so a payload with fields this version does not know still relays.
+     */
+    static FeedbackEvent readEvent(ObjectMapper objectMapper, String payload) throws IOException {
+        return objectMapper.readerFor(FeedbackEvent.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readValue(payload);
+    }
+
+    private record OutboxRow(long id, String topic, String key, String payload) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.insightdesk.feedback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.feedback.dto.FeedbackResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes feedback events to the feedback_outbox table in the caller's transaction.
+ * {@link OutboxRelay} publishes them to Kafka after commit.
+ *
+ * The payload is a {@link FeedbackEvent}, not the API response: fields added to the response
+ * (language, duplicateOf) are not part of the event schema and would not read back.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO feedback_outbox (topic, event_key, payload) VALUES (?, ?, ?::jsonb)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${feedback.kafka.topic}")
+    private String feedbackTopic;
+
+    /**
+     * Enqueue one feedback event per row; must run inside the transaction that writes the rows
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(List<FeedbackResponse> feedbackList) {
+        List<Object[]> rows = new ArrayList<>(feedbackList.size());
+        for (FeedbackResponse feedback : feedbackList) {
+            rows.add(new Object[]{feedbackTopic, feedback.getId().toString(), toJson(feedback)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * The event published for a feedback row
+     */
+    static FeedbackEvent toEvent(FeedbackResponse feedback) {
+        FeedbackEvent event = new FeedbackEvent();
+        event.setId(feedback.getId());
+        event.setUserId(feedback.getUserId());
+        event.setProjectId(feedback.getProjectId());
+        event.setMessage(feedback.getMessage());
+        event.setCategory(feedback.getCategory());
+        event.setSentimentScore(feedback.getSentimentScore());
+        event.setKeywords(feedback.getKeywords());
+        event.setEntities(feedback.getEntities());
+        event.setProcessed(feedback.getProcessed());
+        event.setCreatedAt(feedback.getCreatedAt());
+        event.setUpdatedAt(feedback.getUpdatedAt());
+        return event;
+    }
+
+    private String toJson(FeedbackResponse feedback) {
+        try {
+            return objectMapper.writeValueAsString(toEvent(feedback));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feedback event: id=" + feedback.getId(), e);
+        }
+    }
+}
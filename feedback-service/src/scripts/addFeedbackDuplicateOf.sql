@@ -0,0 +1,15 @@
+-- ======================================================
+-- Add the near-duplicate link to an existing feedback table
+-- (new databases get it from feedback.sql).
+--
+-- duplicate_of holds the id of the earlier feedback of the
+-- same project that the NLP service found nearly identical.
+-- Rows processed before the migration stay unlinked.
+-- ======================================================
+
+ALTER TABLE feedback ADD COLUMN IF NOT EXISTS duplicate_of BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_feedback_duplicate_of ON feedback (duplicate_of) WHERE duplicate_of IS NOT NULL;
+
+-- Used by the NLP service to read the recent rows at startup
+CREATE INDEX IF NOT EXISTS idx_feedback_created_at ON feedback (created_at);
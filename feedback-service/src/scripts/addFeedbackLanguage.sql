@@ -0,0 +1,51 @@
+-- ======================================================
+-- Add the detected language to an existing feedback table
+-- (new databases get it from feedback.sql).
+--
+-- message_tsv is rebuilt with the row's text search
+-- configuration once the NLP service has set its language;
+-- existing rows keep their English index until then.
+-- ======================================================
+
+ALTER TABLE feedback ADD COLUMN IF NOT EXISTS language VARCHAR(8);
+
+CREATE OR REPLACE FUNCTION feedback_ts_config(lang TEXT)
+RETURNS regconfig AS $$
+    SELECT CASE COALESCE(lang, 'en')
+        WHEN 'en' THEN 'english'
+        WHEN 'es' THEN 'spanish'
+        WHEN 'fr' THEN 'french'
+        WHEN 'de' THEN 'german'
+        WHEN 'pt' THEN 'portuguese'
+        WHEN 'it' THEN 'italian'
+        WHEN 'nl' THEN 'dutch'
+        WHEN 'ru' THEN 'russian'
+        WHEN 'el' THEN 'greek'
+        WHEN 'ar' THEN 'arabic'
+        ELSE 'simple'
+    END::regconfig
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION feedback_tsv_trigger()
+RETURNS trigger AS $$
+BEGIN
+    -- (OLD is only read on UPDATE)
+    IF TG_OP = 'INSERT' THEN
+        NEW.message_tsv := to_tsvector(feedback_ts_config(NEW.language), COALESCE(NEW.message,''));
+    ELSIF NEW.message IS DISTINCT FROM OLD.message
+        OR feedback_ts_config(NEW.language) <> feedback_ts_config(OLD.language) THEN
+        NEW.message_tsv := to_tsvector(feedback_ts_config(NEW.language), COALESCE(NEW.message,''));
+    END IF;
+
+    NEW.updated_at := NOW();
+
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_feedback_tsv ON feedback;
+CREATE TRIGGER trg_feedback_tsv
+BEFORE INSERT OR UPDATE OF message, language
+ON feedback
+FOR EACH ROW
+EXECUTE FUNCTION feedback_tsv_trigger();
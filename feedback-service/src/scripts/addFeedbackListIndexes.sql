@@ -0,0 +1,14 @@
+-- ======================================================
+-- Add the keyset listing indexes to an existing feedback
+-- table (new databases get them from feedback.sql).
+--
+-- CONCURRENTLY builds them without blocking writes, so this
+-- can run while the services are up. It cannot run inside a
+-- transaction block: run it with plain psql -f.
+-- ======================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_feedback_project_id_id ON feedback (project_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_feedback_user_id_id ON feedback (user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_feedback_category_id ON feedback (category, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_feedback_unprocessed_id ON feedback (id) WHERE processed = FALSE;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_feedback_sentiment_score ON feedback (sentiment_score);
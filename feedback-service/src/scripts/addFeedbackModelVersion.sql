@@ -0,0 +1,9 @@
+-- ======================================================
+-- Add the NLP model version to an existing feedback table
+-- (new databases get it from feedback.sql).
+--
+-- Rows processed before the migration have no version, so
+-- an NLP backfill with scope "stale" reprocesses them.
+-- ======================================================
+
+ALTER TABLE feedback ADD COLUMN IF NOT EXISTS model_version VARCHAR(32);
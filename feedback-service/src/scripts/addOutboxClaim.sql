@@ -0,0 +1,14 @@
+-- ======================================================
+-- Add relay claims and failed rows to an existing
+-- feedback_outbox table (new databases get them from
+-- feedbackOutbox.sql).
+--
+-- Existing rows become PENDING and unclaimed.
+-- ======================================================
+
+ALTER TABLE feedback_outbox ADD COLUMN IF NOT EXISTS status VARCHAR(16) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE feedback_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+ALTER TABLE feedback_outbox ADD COLUMN IF NOT EXISTS failure TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_feedback_outbox_pending_key
+    ON feedback_outbox (topic, event_key, id) WHERE status = 'PENDING';
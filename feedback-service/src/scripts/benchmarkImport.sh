@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# ======================================================
+# Rough ingest benchmark for feedback-service.
+# Reports rows/sec for POST /api/feedback (createFeedback)
+# and for the CSV and JSON import endpoints.
+#
+# Usage: ./benchmarkImport.sh [rows] [base-url]
+# Run it once per configuration (e.g. before and after the
+# pooled id sequence migration, or with feedback.import.mode
+# set to copy vs jpa) against the same database.
+# ======================================================
+set -euo pipefail
+
+ROWS=${1:-20000}
+BASE_URL=${2:-http://localhost:8080}
+SINGLE_ROWS=$(( ROWS / 10 ))
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+now_ms() { date +%s%3N; }
+
+# Upload a file and wait for its import job to finish
+import_and_wait() { # endpoint file
+    local job_id status
+    job_id=$(curl -s -X POST "$BASE_URL/api/feedback/import/$1" -F "file=@$2" \
+        | sed -n 's/.*"jobId":"\([^"]*\)".*/\1/p')
+    while true; do
+        status=$(curl -s "$BASE_URL/api/feedback/import/$job_id" | sed -n 's/.*"status":"\([A-Z]*\)".*/\1/p')
+        [ "$status" = "COMPLETED" ] || [ "$status" = "FAILED" ] && break
+        sleep 0.2
+    done
+}
+
+rate() { # rows elapsed_ms
+    awk -v r="$1" -v ms="$2" 'BEGIN { printf "%.0f", (ms > 0) ? r * 1000 / ms : 0 }'
+}
+
+# 1. Generate input files
+echo "userId,projectId,message,category,sentimentScore,keywords" > "$WORK_DIR/bench.csv"
+echo "[" > "$WORK_DIR/bench.json"
+for i in $(seq 1 "$ROWS"); do
+    echo "$i,$(( i % 20 )),\"Benchmark feedback message number $i, the app works great\",praise,0.80,\"bench,import\"" >> "$WORK_DIR/bench.csv"
+    sep=","; [ "$i" -eq "$ROWS" ] && sep=""
+    echo "{\"userId\":$i,\"projectId\":$(( i % 20 )),\"message\":\"Benchmark feedback message number $i\",\"category\":\"praise\",\"sentimentScore\":0.80}$sep" >> "$WORK_DIR/bench.json"
+done
+echo "]" >> "$WORK_DIR/bench.json"
+
+# 2. Single-row createFeedback
+start=$(now_ms)
+for i in $(seq 1 "$SINGLE_ROWS"); do
+    curl -s -o /dev/null -X POST "$BASE_URL/api/feedback" \
+        -H "Content-Type: application/json" \
+        -d "{\"userId\":$i,\"projectId\":1,\"message\":\"Single benchmark feedback $i\",\"category\":\"other\"}"
+done
+elapsed=$(( $(now_ms) - start ))
+echo "createFeedback : $SINGLE_ROWS rows in ${elapsed} ms -> $(rate "$SINGLE_ROWS" "$elapsed") rows/sec"
+
+# 3. CSV import
+start=$(now_ms)
+import_and_wait csv "$WORK_DIR/bench.csv"
+elapsed=$(( $(now_ms) - start ))
+echo "import/csv     : $ROWS rows in ${elapsed} ms -> $(rate "$ROWS" "$elapsed") rows/sec"
+
+# 4. JSON import
+start=$(now_ms)
+import_and_wait json "$WORK_DIR/bench.json"
+elapsed=$(( $(now_ms) - start ))
+echo "import/json    : $ROWS rows in ${elapsed} ms -> $(rate "$ROWS" "$elapsed") rows/sec"
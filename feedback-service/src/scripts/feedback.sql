@@ -5,35 +5,93 @@
 --  - keywords (TEXT array)
 --  - entities (JSONB)
 --  - sentiment_score
---  - automatic trigger for tsvector update
+--  - language (detected by the NLP service)
+--  - duplicate_of (near-duplicate link set by the NLP service)
+--  - model_version (NLP model version the row was processed with)
+--  - automatic trigger for tsvector update, using the text
+--    search configuration of the row's language
+--  - pooled id sequence (ids are allocated by the services in blocks)
+--  - (column, id) indexes for the keyset listing API
 -- ======================================================
 
+-- 0. Id sequence; INCREMENT BY must match Feedback.ID_ALLOCATION_SIZE.
+--    Each nextval value v reserves the block (v - 100, v], so there is no
+--    column default: a plain nextval default would collide with those blocks.
+CREATE SEQUENCE IF NOT EXISTS feedback_id_seq
+    START WITH 100
+    INCREMENT BY 100;
+
 -- 1. Create the table
 CREATE TABLE IF NOT EXISTS feedback (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     user_id BIGINT,
     project_id BIGINT,
     message TEXT NOT NULL,
     category VARCHAR(50),
+    language VARCHAR(8),
     sentiment_score NUMERIC(3,2) DEFAULT 0,
     keywords TEXT[],
     entities JSONB,
+    duplicate_of BIGINT,
+    model_version VARCHAR(32),
     processed BOOLEAN DEFAULT FALSE,
     created_at TIMESTAMPTZ DEFAULT NOW(),
     updated_at TIMESTAMPTZ DEFAULT NOW(),
     message_tsv tsvector
 );
 
+ALTER SEQUENCE feedback_id_seq OWNED BY feedback.id;
+
 -- 2. Create GIN index on tsvector for fast full-text search
 CREATE INDEX IF NOT EXISTS idx_feedback_message_tsv
 ON feedback USING GIN (message_tsv);
 
--- 3. Function to update message_tsv automatically
+-- 2b. Indexes for the keyset listing (GET /api/feedback): each filter column
+--     paired with id, so "filter = ? AND id < cursor ORDER BY id DESC" is a
+--     single index range scan
+CREATE INDEX IF NOT EXISTS idx_feedback_project_id_id ON feedback (project_id, id);
+CREATE INDEX IF NOT EXISTS idx_feedback_user_id_id ON feedback (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_feedback_category_id ON feedback (category, id);
+CREATE INDEX IF NOT EXISTS idx_feedback_unprocessed_id ON feedback (id) WHERE processed = FALSE;
+CREATE INDEX IF NOT EXISTS idx_feedback_sentiment_score ON feedback (sentiment_score);
+
+-- 2c. Near-duplicates: the duplicates of a canonical feedback item, and the
+--     recent rows the NLP service indexes at startup
+CREATE INDEX IF NOT EXISTS idx_feedback_duplicate_of ON feedback (duplicate_of) WHERE duplicate_of IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_feedback_created_at ON feedback (created_at);
+
+-- 3. Text search configuration for a language code; rows not yet
+--    processed (NULL) are indexed as English, unknown languages as simple
+CREATE OR REPLACE FUNCTION feedback_ts_config(lang TEXT)
+RETURNS regconfig AS $$
+    SELECT CASE COALESCE(lang, 'en')
+        WHEN 'en' THEN 'english'
+        WHEN 'es' THEN 'spanish'
+        WHEN 'fr' THEN 'french'
+        WHEN 'de' THEN 'german'
+        WHEN 'pt' THEN 'portuguese'
+        WHEN 'it' THEN 'italian'
+        WHEN 'nl' THEN 'dutch'
+        WHEN 'ru' THEN 'russian'
+        WHEN 'el' THEN 'greek'
+        WHEN 'ar' THEN 'arabic'
+        ELSE 'simple'
+    END::regconfig
+$$ LANGUAGE sql IMMUTABLE;
+
+-- 3b. Function to update message_tsv automatically
 CREATE OR REPLACE FUNCTION feedback_tsv_trigger()
 RETURNS trigger AS $$
 BEGIN
-    -- Populate message_tsv column from message
-    NEW.message_tsv := to_tsvector('english', COALESCE(NEW.message,''));
+    -- Populate message_tsv column from message, unless neither the message
+    -- nor the text search configuration has changed
+    -- (OLD is only read on UPDATE)
+    IF TG_OP = 'INSERT' THEN
+        NEW.message_tsv := to_tsvector(feedback_ts_config(NEW.language), COALESCE(NEW.message,''));
+    ELSIF NEW.message IS DISTINCT FROM OLD.message
+        OR feedback_ts_config(NEW.language) <> feedback_ts_config(OLD.language) THEN
+        NEW.message_tsv := to_tsvector(feedback_ts_config(NEW.language), COALESCE(NEW.message,''));
+    END IF;
     
     -- Update updated_at timestamp automatically
     NEW.updated_at := NOW();
@@ -44,7 +102,7 @@ $$ LANGUAGE plpgsql;
 
 -- 4. Trigger to run function BEFORE INSERT OR UPDATE
 CREATE TRIGGER trg_feedback_tsv
-BEFORE INSERT OR UPDATE OF message
+BEFORE INSERT OR UPDATE OF message, language
 ON feedback
 FOR EACH ROW
 EXECUTE FUNCTION feedback_tsv_trigger();
\ No newline at end of file
@@ -0,0 +1,23 @@
+-- ======================================================
+-- Transactional outbox for feedback events
+-- Rows are written in the same transaction as the feedback
+-- rows and relayed to Kafka by OutboxRelay, which claims a
+-- batch for claimed_until, sends it, and deletes each row
+-- once the broker has acknowledged it. A row whose payload
+-- cannot be read is kept with status FAILED and the error.
+-- ======================================================
+
+CREATE TABLE IF NOT EXISTS feedback_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    claimed_until TIMESTAMPTZ,
+    failure TEXT,
+    created_at TIMESTAMPTZ DEFAULT NOW()
+);
+
+-- A row is relayed only once no earlier pending row has its key
+CREATE INDEX IF NOT EXISTS idx_feedback_outbox_pending_key
+    ON feedback_outbox (topic, event_key, id) WHERE status = 'PENDING';
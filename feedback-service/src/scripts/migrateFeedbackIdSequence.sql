@@ -0,0 +1,25 @@
+-- ======================================================
+-- Migrate an existing feedback table from BIGSERIAL/IDENTITY
+-- ids to the pooled sequence used by both services.
+--
+-- Hibernate and the COPY import path reserve ids in blocks:
+-- each nextval value v owns (v - 100, v]. INCREMENT BY must
+-- match Feedback.ID_ALLOCATION_SIZE in both services.
+--
+-- Run once, with both services stopped.
+-- ======================================================
+
+BEGIN;
+
+-- 1. Stop handing out single ids from the column default;
+--    they would collide with blocks reserved by the services
+ALTER TABLE feedback ALTER COLUMN id DROP DEFAULT;
+
+-- 2. Switch the sequence to block increments
+ALTER SEQUENCE feedback_id_seq INCREMENT BY 100;
+
+-- 3. Move past existing ids; the next nextval returns MAX(id) + 100,
+--    whose block starts right after the highest existing id
+SELECT setval('feedback_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM feedback), 1), true);
+
+COMMIT;
@@ -0,0 +1,94 @@
+package com.insightdesk.feedback.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvChunkReaderTests {
+
+	private static final String MALFORMED = "userId,projectId,message\n"
+		+ "1,7,first\n"
+		+ "2,7,he said \"hi, then left\n"
+		+ "3,7,\"quoted\" trailing text\n"
+		+ "4,7,\"spans\ntwo lines\"\n"
+		+ "5,7,last";
+
+	@Test
+	void malformedRowsEndWhereTheParserResumes() throws IOException {
+		List<String> expected = List.of(
+			"1:userId|projectId|message",
+			"2:1|7|first",
+			"3:error Unexpected quote in unquoted field (line 3)",
+			"4:error Unexpected character after closing quote (line 4)",
+			"5:4|7|spans\ntwo lines",
+			"7:5|7|last");
+		assertEquals(expected, parse(MALFORMED, 1 << 16, CsvChunkReader.DEFAULT_MAX_RECORD_LENGTH));
+
+		for (int chunkSize = 4; chunkSize < 80; chunkSize++) {
+			assertEquals(expected, parse(MALFORMED, chunkSize, CsvChunkReader.DEFAULT_MAX_RECORD_LENGTH),
+				"chunk size " + chunkSize);
+		}
+	}
+
+	@Test
+	void recordsLongerThanTheLimitAreSkipped() throws IOException {
+		String input = "1,7,short\n"
+			+ "2,7,\"" + "x".repeat(500) + "\nstill quoted\"\n"
+			+ "3,7," + "y".repeat(500) + "\n"
+			+ "4,7,after";
+		List<String> expected = List.of(
+			"1:1|7|short",
+			"2:error Record longer than 64 characters (line 2)",
+			"4:error Record longer than 64 characters (line 4)",
+			"5:4|7|after");
+
+		for (int chunkSize = 4; chunkSize <= 64; chunkSize *= 2) {
+			assertEquals(expected, parse(input, chunkSize, 64), "chunk size " + chunkSize);
+		}
+	}
+
+	@Test
+	void anUnterminatedQuoteOverTheLimitSkipsTheRest() throws IOException {
+		String input = "1,7,ok\n2,7,\"open " + "z".repeat(200) + "\n3,7,never reached";
+
+		assertEquals(List.of(
+			"1:1|7|ok",
+			"2:error Record longer than 64 characters (line 2)"), parse(input, 16, 64));
+	}
+
+	/**
+	 * Records as line:fields, and malformed ones as line:error, the way the import reads them
+	 */
+	private List<String> parse(String input, int chunkSize, int maxRecordLength) throws IOException {
+		List<String> rows = new ArrayList<>();
+		CsvChunkReader reader = new CsvChunkReader(new StringReader(input), chunkSize, maxRecordLength);
+		CsvChunk chunk;
+		while ((chunk = reader.next()) != null) {
+			CsvParser parser = new CsvParser(chunk);
+			while (true) {
+				CsvRecord record;
+				try {
+					record = parser.next();
+				} catch (CsvFormatException e) {
+					rows.add(e.getLineNumber() + ":error " + e.getMessage());
+					continue;
+				}
+				if (record == null) {
+					break;
+				}
+				StringBuilder row = new StringBuilder().append(record.getLineNumber()).append(':');
+				for (int i = 0; i < record.size(); i++) {
+					row.append(i > 0 ? "|" : "").append(record.getString(i));
+				}
+				rows.add(row.toString());
+			}
+			reader.recycle(chunk);
+		}
+		return rows;
+	}
+}
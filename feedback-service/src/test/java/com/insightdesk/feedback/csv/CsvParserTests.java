@@ -0,0 +1,80 @@
+package com.insightdesk.feedback.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvParserTests {
+
+	private static final String INPUT = "userId,projectId,message,category,sentimentScore\r\n"
+		+ "1, 100 ,\"Great, \"\"really\"\" great\nsecond line\",praise,0.95\r\n"
+		+ "2,,plain message,,-1.5e1\n"
+		+ "3,7,\"last\"  ,other,0.10";
+
+	@Test
+	void parsesQuotedFieldsEscapedQuotesAndEmbeddedNewlines() throws IOException {
+		List<String> rows = parse(INPUT, 1 << 16);
+
+		assertEquals(List.of(
+			"1:userId|projectId|message|category|sentimentScore",
+			"2:1|100|Great, \"really\" great\nsecond line|praise|0.95",
+			"4:2||plain message||-1.5e1",
+			"5:3|7|last|other|0.10"), rows);
+	}
+
+	@Test
+	void chunkBoundariesNeverSplitRecords() throws IOException {
+		List<String> expected = parse(INPUT, 1 << 16);
+
+		for (int chunkSize = 4; chunkSize < 64; chunkSize++) {
+			assertEquals(expected, parse(INPUT, chunkSize), "chunk size " + chunkSize);
+		}
+	}
+
+	@Test
+	void parsesNumbersFromBuffer() throws IOException {
+		CsvParser parser = new CsvParser(new CsvChunkReader(new StringReader("42, -7 ,0.95,-1.5e1,12345678901234567890.5"), 64).next());
+		CsvRecord record = parser.next();
+
+		assertEquals(42L, record.getLong(0));
+		assertEquals(-7L, record.getLong(1));
+		assertEquals(new BigDecimal("0.95"), record.getDecimal(2));
+		assertEquals(0, new BigDecimal("-15").compareTo(record.getDecimal(3)));
+		assertEquals(new BigDecimal("12345678901234567890.5"), record.getDecimal(4));
+	}
+
+	@Test
+	void rejectsMalformedInput() throws IOException {
+		CsvParser unterminated = new CsvParser(new CsvChunkReader(new StringReader("1,2,\"open"), 64).next());
+		assertThrows(CsvFormatException.class, unterminated::next);
+
+		CsvParser badNumber = new CsvParser(new CsvChunkReader(new StringReader("1x,2,msg"), 64).next());
+		assertThrows(CsvFormatException.class, () -> badNumber.next().getLong(0));
+	}
+
+	private List<String> parse(String input, int chunkSize) throws IOException {
+		List<String> rows = new ArrayList<>();
+		CsvChunkReader reader = new CsvChunkReader(new StringReader(input), chunkSize);
+		CsvChunk chunk;
+		while ((chunk = reader.next()) != null) {
+			CsvParser parser = new CsvParser(chunk);
+			CsvRecord record;
+			while ((record = parser.next()) != null) {
+				StringBuilder row = new StringBuilder().append(record.getLineNumber()).append(':');
+				for (int i = 0; i < record.size(); i++) {
+					row.append(i > 0 ? "|" : "").append(record.getString(i));
+				}
+				rows.add(row.toString());
+			}
+			reader.recycle(chunk);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,78 @@
+package com.insightdesk.feedback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.feedback.config.AppConfig;
+import com.insightdesk.feedback.dto.FeedbackResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OutboxRelayTests {
+
+	private final ObjectMapper objectMapper = new AppConfig().objectMapper();
+
+	@Test
+	void outboxPayloadReadsBackAsTheEvent() throws Exception {
+		FeedbackResponse feedback = new FeedbackResponse();
+		feedback.setId(42L);
+		feedback.setUserId(7L);
+		feedback.setProjectId(3L);
+		feedback.setMessage("Login fails on Android");
+		feedback.setCategory("bug");
+		feedback.setLanguage("en");
+		feedback.setSentimentScore(new BigDecimal("-0.40"));
+		feedback.setKeywords(new String[]{"login", "android"});
+		feedback.setEntities(Map.of("platform", "Android"));
+		feedback.setDuplicateOf(41L);
+		feedback.setProcessed(true);
+		feedback.setCreatedAt(OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC));
+
+		String payload = objectMapper.writeValueAsString(OutboxService.toEvent(feedback));
+		FeedbackEvent event = OutboxRelay.readEvent(objectMapper, payload);
+
+		assertEquals(42L, event.getId());
+		assertEquals(7L, event.getUserId());
+		assertEquals(3L, event.getProjectId());
+		assertEquals("Login fails on Android", event.getMessage());
+		assertEquals("bug", event.getCategory());
+		assertEquals(new BigDecimal("-0.40"), event.getSentimentScore());
+		assertArrayEquals(new String[]{"login", "android"}, event.getKeywords());
+		assertEquals(Map.of("platform", "Android"), event.getEntities());
+		assertEquals(true, event.getProcessed());
+		assertEquals(feedback.getCreatedAt().toInstant(), event.getCreatedAt().toInstant());
+	}
+
+	@Test
+	void responseOnlyFieldsStayOutOfThePayload() throws Exception {
+		FeedbackResponse feedback = new FeedbackResponse();
+		feedback.setId(43L);
+		feedback.setLanguage("fr");
+		feedback.setDuplicateOf(42L);
+
+		String payload = objectMapper.writeValueAsString(OutboxService.toEvent(feedback));
+
+		assertFalse(payload.contains("language"), payload);
+		assertFalse(payload.contains("duplicateOf"), payload);
+	}
+
+	@Test
+	void payloadsWithUnknownFieldsStillRelay() throws Exception {
+		// Fields the event does not have are skipped rather than failing the row
+		String payload = "{\"id\":44,\"projectId\":3,\"message\":\"Same crash again\","
+			+ "\"language\":\"en\",\"duplicateOf\":42,\"processed\":false}";
+
+		FeedbackEvent event = OutboxRelay.readEvent(objectMapper, payload);
+
+		assertEquals(44L, event.getId());
+		assertEquals("Same crash again", event.getMessage());
+		assertEquals(false, event.getProcessed());
+	}
+}
@@ -0,0 +1,55 @@
+package com.insightdesk.nlp.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/message for entity extraction with the bundled dictionary plus a generated one of the given size.
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class EntityExtractorBenchmark {
+
+    @Param({"0", "500000"})
+    private int generatedEntries;
+
+    private EntityExtractor extractor;
+    private String message;
+
+    @Setup
+    public void setUp() throws Exception {
+        EntityExtractor.Builder builder = EntityExtractor.builder();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(EntityExtractor.DEFAULT_DICTIONARY)) {
+            builder.addDictionary(input, EntityExtractor.DEFAULT_DICTIONARY);
+        }
+        for (int i = 0; i < generatedEntries; i++) {
+            builder.add("product " + Integer.toString(i, 36) + " suite", "product", "P" + i);
+        }
+        extractor = builder.build();
+        message = "Dark mode crashes on my iPhone 15 (iOS 17.2) since release 4.2, see https://status.example.com/x. "
+            + "The export in product 3k suite is really slow, mail me at jane@example.com";
+    }
+
+    @Benchmark
+    public Map<String, Object> extract() {
+        return extractor.extract(message);
+    }
+}
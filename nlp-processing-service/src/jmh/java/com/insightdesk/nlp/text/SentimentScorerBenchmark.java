@@ -0,0 +1,62 @@
+package com.insightdesk.nlp.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/message for the automaton scorer against the contains() scans it replaced.
+ * Run with: ./gradlew jmh (add -prof gc to confirm the scorer does not allocate)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentScorerBenchmark {
+
+    @Param({"short", "long"})
+    private String size;
+
+    private SentimentScorer scorer;
+    private String message;
+
+    @Setup
+    public void setUp() {
+        scorer = SentimentScorer.load();
+        String sentence = "The new checkout flow is great, but the iOS app crashes when I log in and it is really slow. ";
+        message = "short".equals(size) ? sentence : sentence.repeat(20);
+    }
+
+    @Benchmark
+    public double automaton() {
+        return scorer.score(message);
+    }
+
+    /**
+     * The previous NlpProcessingService.simulateSentimentScore, for comparison
+     */
+    @Benchmark
+    public double legacyContains() {
+        String lowerMessage = message.toLowerCase();
+        if (lowerMessage.contains("great") || lowerMessage.contains("excellent")
+            || lowerMessage.contains("amazing") || lowerMessage.contains("love")) {
+            return 0.85;
+        } else if (lowerMessage.contains("bad") || lowerMessage.contains("terrible")
+            || lowerMessage.contains("hate") || lowerMessage.contains("poor")) {
+            return 0.25;
+        }
+        return 0.50;
+    }
+}
@@ -0,0 +1,44 @@
+package com.insightdesk.nlp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightdesk.nlp.service.NlpResultCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process Caffeine caches. All caches record stats, which actuator exposes as
+ * cache.gets / cache.puts / cache.evictions metrics tagged with the cache name.
+ */
+@Configuration
+public class CacheConfig {
+
+    /** Rough per-entry overhead of key and cache node, added to the serialized value size */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    @Value("${nlp.cache.max-bytes:67108864}")
+    private long resultsMaxBytes;
+
+    @Value("${nlp.cache.ttl-seconds:3600}")
+    private long resultsTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Bounded by the bytes held rather than the entry count; Caffeine's W-TinyLFU admission
+        // keeps messages that repeat often over ones seen once
+        cacheManager.registerCustomCache(NlpResultCache.CACHE_NAME, Caffeine.newBuilder()
+            .maximumWeight(resultsMaxBytes)
+            .weigher((key, value) -> ENTRY_OVERHEAD_BYTES + (value instanceof byte[] bytes ? bytes.length : 0))
+            .expireAfterWrite(Duration.ofSeconds(resultsTtlSeconds))
+            .recordStats()
+            .build());
+
+        return cacheManager;
+    }
+}
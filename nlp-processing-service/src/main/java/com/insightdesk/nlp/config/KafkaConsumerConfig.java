@@ -1,8 +1,14 @@
 package com.insightdesk.nlp.config;
 
-import com.insightdesk.nlp.dto.FeedbackEvent;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.events.FeedbackEventDeserializer;
+import com.insightdesk.nlp.service.FeedbackRetryRouter;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,8 +16,9 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +33,24 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${nlp.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${nlp.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${nlp.kafka.consumer.error-backoff.initial-ms:1000}")
+    private long errorBackoffInitialMs;
+
+    @Value("${nlp.kafka.consumer.error-backoff.max-ms:60000}")
+    private long errorBackoffMaxMs;
+
+    @Value("${nlp.kafka.consumer.error-backoff.max-elapsed-ms:1800000}")
+    private long errorBackoffMaxElapsedMs;
+
+    @Autowired
+    private FeedbackRetryRouter feedbackRetryRouter;
+
     @Bean
     public ConsumerFactory<String, FeedbackEvent> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -33,12 +58,15 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Upper bound on the batch handed to the batch listener
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Incremental rebalances: when the autoscaler adds or removes listeners, only the
+        // partitions that move are revoked
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
-        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, FeedbackEvent.class.getName());
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        // Reads the binary event format and still accepts JSON events from producers not yet switched over
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, FeedbackEventDeserializer.class.getName());
 
         return new DefaultKafkaConsumerFactory<>(config);
     }
@@ -48,7 +76,38 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, FeedbackEvent> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        // One listener thread per partition; NLP within a batch is spread over the worker pool.
+        // This is the initial concurrency: ConsumerAutoscaler adjusts it to the lag
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(feedbackErrorHandler());
         return factory;
     }
+
+    /**
+     * When the listener throws (the database or broker is down), the batch is retried with
+     * exponential backoff and no offset is committed past it. Rows the database rejects are
+     * already split out by FeedbackResultWriter, so what remains is an outage; once it has
+     * lasted max-elapsed-ms the batch's records are sent to the dead-letter topic (from
+     * which they can be replayed) and the partition moves on. The default handler would
+     * give up after ten immediate retries and commit the batch's offsets, losing its events.
+     */
+    @Bean
+    public DefaultErrorHandler feedbackErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(errorBackoffInitialMs, 2.0);
+        backOff.setMaxInterval(errorBackoffMaxMs);
+        backOff.setMaxElapsedTime(errorBackoffMaxElapsedMs);
+        return new DefaultErrorHandler(feedbackRetryRouter::deadLetter, backOff);
+    }
+
+    /**
+     * Reads the consumer group's lag for the autoscaler
+     */
+    @Bean(destroyMethod = "close")
+    public AdminClient consumerAdminClient() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return AdminClient.create(config);
+    }
 }
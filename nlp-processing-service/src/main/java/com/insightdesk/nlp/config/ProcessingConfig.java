@@ -0,0 +1,141 @@
+package com.insightdesk.nlp.config;
+
+import com.insightdesk.nlp.service.NearDuplicateDetector;
+import com.insightdesk.nlp.text.DocumentFrequencies;
+import com.insightdesk.nlp.text.EntityExtractor;
+import com.insightdesk.nlp.text.KeywordExtractor;
+import com.insightdesk.nlp.text.LanguageDetector;
+import com.insightdesk.nlp.text.MinHash;
+import com.insightdesk.nlp.text.NearDuplicateIndex;
+import com.insightdesk.nlp.text.SentimentScorers;
+import com.insightdesk.nlp.text.Tokenizers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ProcessingConfig {
+
+    /**
+     * Language identification: trigram profiles for the configured Latin-script languages
+     */
+    @Bean
+    public LanguageDetector languageDetector(
+            @Value("${nlp.text.detect-languages:en}") List<String> languages,
+            @Value("${nlp.text.default-language:en}") String defaultLanguage) {
+        return LanguageDetector.load(languages, defaultLanguage);
+    }
+
+    /**
+     * Sentiment lexicons, each compiled once into an automaton at startup
+     */
+    @Bean
+    public SentimentScorers sentimentScorers(@Value("${nlp.text.detect-languages:en}") List<String> languages) {
+        return new SentimentScorers(languages);
+    }
+
+    /**
+     * Entity dictionaries, compiled once into an automaton at startup
+     */
+    @Bean
+    public EntityExtractor entityExtractor(
+            @Value("${nlp.entities.dictionaries:classpath:lexicon/entities.tsv}") Resource[] dictionaries) throws IOException {
+        EntityExtractor.Builder builder = EntityExtractor.builder();
+        for (Resource dictionary : dictionaries) {
+            try (InputStream input = dictionary.getInputStream()) {
+                builder.addDictionary(input, dictionary.getDescription());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Tokenizers with the stop words of each configured language
+     */
+    @Bean
+    public Tokenizers tokenizers(
+            @Value("${nlp.text.stopword-languages:en}") List<String> languages,
+            @Value("${nlp.text.default-language:en}") String defaultLanguage) {
+        return new Tokenizers(languages, defaultLanguage);
+    }
+
+    /**
+     * Per-project document frequencies for keyword ranking, shared by all workers
+     */
+    @Bean
+    public DocumentFrequencies documentFrequencies(@Value("${nlp.keywords.max-terms:1000000}") int maxTerms) {
+        return new DocumentFrequencies(maxTerms);
+    }
+
+    @Bean
+    public KeywordExtractor keywordExtractor(DocumentFrequencies documentFrequencies) {
+        return new KeywordExtractor(documentFrequencies);
+    }
+
+    /**
+     * MinHash signatures for near-duplicate detection: one value per row of every LSH band
+     */
+    @Bean
+    public MinHash minHash(NearDuplicateIndex nearDuplicateIndex) {
+        return new MinHash(nearDuplicateIndex.signatureLength());
+    }
+
+    /**
+     * Recent signatures of all projects, allocated once at its maximum size (about 1 KB per
+     * entry). With the postgres store it only carries the banding, and holds one entry.
+     */
+    @Bean
+    public NearDuplicateIndex nearDuplicateIndex(
+            @Value("${nlp.duplicates.bands:16}") int bands,
+            @Value("${nlp.duplicates.rows:4}") int rows,
+            @Value("${nlp.duplicates.max-entries:50000}") int maxEntries,
+            @Value("${nlp.duplicates.window-minutes:1440}") long windowMinutes,
+            @Value("${nlp.duplicates.threshold:0.8}") double threshold,
+            @Value("${nlp.duplicates.store:postgres}") String store) {
+        int capacity = NearDuplicateDetector.STORE_MEMORY.equalsIgnoreCase(store) ? maxEntries : 1;
+        return new NearDuplicateIndex(bands, rows, capacity, windowMinutes * 60_000, threshold);
+    }
+
+    /**
+     * Worker pool running NLP lanes; shared by all listener threads. This is its initial
+     * size: ConsumerAutoscaler resizes it with the listener concurrency
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor nlpWorkerExecutor(@Value("${nlp.processing.workers:0}") int workers) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("nlp-worker-"));
+    }
+
+    /**
+     * Pool running pipeline stages concurrently (long messages) or under a time budget; separate
+     * from the worker pool, whose threads wait for these stages
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService nlpStageExecutor(@Value("${nlp.pipeline.stage-workers:0}") int workers) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("nlp-stage-"));
+    }
+
+    /**
+     * Small pool of low-priority threads running backfill chunks, so reprocessing yields
+     * the CPU to the consumer's workers
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService nlpBackfillExecutor(@Value("${nlp.backfill.workers:2}") int workers) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("nlp-backfill-");
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        return Executors.newFixedThreadPool(workers, threadFactory);
+    }
+}
@@ -0,0 +1,90 @@
+package com.insightdesk.nlp.controller;
+
+import com.insightdesk.nlp.dto.BackfillRequest;
+import com.insightdesk.nlp.dto.BackfillStatus;
+import com.insightdesk.nlp.service.BackfillService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoints for reprocessing (backfill) jobs
+ */
+@RestController
+@RequestMapping("/admin/backfill")
+public class BackfillController {
+
+    @Autowired
+    private BackfillService backfillService;
+
+    /**
+     * Start a job; poll statusUrl for its progress
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startBackfill(@RequestBody(required = false) BackfillRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            BackfillStatus job = backfillService.start(request == null ? new BackfillRequest() : request);
+            response.put("job", job);
+            response.put("statusUrl", "/admin/backfill/" + job.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DuplicateKeyException e) {
+            response.put("error", "Another backfill job is running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackfillStatus>> listBackfills() {
+        return ResponseEntity.ok(backfillService.listJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BackfillStatus> getBackfill(@PathVariable long id) {
+        BackfillStatus job = backfillService.getStatus(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<BackfillStatus> stopBackfill(@PathVariable long id) {
+        if (!backfillService.stop(id)) {
+            return conflictOrNotFound(id);
+        }
+        return ResponseEntity.ok(backfillService.getStatus(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<BackfillStatus> resumeBackfill(@PathVariable long id) {
+        try {
+            if (!backfillService.resume(id)) {
+                return conflictOrNotFound(id);
+            }
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(backfillService.getStatus(id));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillService.getStatus(id));
+    }
+
+    /**
+     * The job exists but is not in a state the action applies to, or does not exist
+     */
+    private ResponseEntity<BackfillStatus> conflictOrNotFound(long id) {
+        BackfillStatus job = backfillService.getStatus(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+    }
+}
@@ -0,0 +1,61 @@
+package com.insightdesk.nlp.controller;
+
+import com.insightdesk.nlp.dto.DeadLetterReplayStatus;
+import com.insightdesk.nlp.service.DeadLetterReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoints for the dead-letter topic of feedback-events
+ */
+@RestController
+@RequestMapping("/admin/dlt")
+public class DeadLetterController {
+
+    @Autowired
+    private DeadLetterReplayService deadLetterReplayService;
+
+    /**
+     * Dead letters not yet replayed, and the latest replay
+     */
+    @GetMapping
+    public ResponseEntity<DeadLetterReplayStatus> getDeadLetters() {
+        return ResponseEntity.ok(deadLetterReplayService.getStatus());
+    }
+
+    /**
+     * Replay dead letters into feedback-events; poll GET /admin/dlt for progress
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam(required = false) Long maxRecords,
+            @RequestParam(required = false) Double ratePerSecond,
+            @RequestParam(defaultValue = "false") boolean skipUndecodable) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!deadLetterReplayService.start(maxRecords, ratePerSecond, skipUndecodable)) {
+                response.put("error", "A replay is already running");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        response.put("replay", deadLetterReplayService.getStatus());
+        response.put("statusUrl", "/admin/dlt");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @PostMapping("/replay/stop")
+    public ResponseEntity<DeadLetterReplayStatus> stopReplay() {
+        if (!deadLetterReplayService.stop()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(deadLetterReplayService.getStatus());
+        }
+        return ResponseEntity.ok(deadLetterReplayService.getStatus());
+    }
+}
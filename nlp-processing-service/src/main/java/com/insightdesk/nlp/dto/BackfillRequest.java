@@ -0,0 +1,60 @@
+package com.insightdesk.nlp.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Request to start a reprocessing (backfill) job. Rows are selected by scope and,
+ * optionally, by project and a created_at range [createdFrom, createdTo).
+ */
+public class BackfillRequest {
+
+    /**
+     * UNPROCESSED: rows never processed; STALE: rows processed with another model version
+     * (or before versions were recorded); ALL: both
+     */
+    public enum Scope {
+        UNPROCESSED, STALE, ALL
+    }
+
+    private String scope;
+    private Long projectId;
+    private OffsetDateTime createdFrom;
+    private OffsetDateTime createdTo;
+
+    // Constructors
+    public BackfillRequest() {
+    }
+
+    // Getters and Setters
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public OffsetDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(OffsetDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public OffsetDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(OffsetDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+}
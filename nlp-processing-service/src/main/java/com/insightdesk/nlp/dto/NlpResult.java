@@ -0,0 +1,111 @@
+package com.insightdesk.nlp.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * NLP output for one feedback item: only the columns the NLP service owns.
+ * sentimentScore stays a primitive in [0, 1] until it is written (see SentimentScorer.toNumeric);
+ * duplicateOf is the id of the canonical feedback this one nearly duplicates, if any;
+ * updatedAt is filled in when the result is written. projectId and documentTerms are not
+ * written: they are the message's keyword terms, counted in the project's document
+ * frequencies once the row is (null if it must not be counted).
+ */
+public class NlpResult {
+
+    private Long id;
+    private String category;
+    private String language;
+    private double sentimentScore;
+    private String[] keywords;
+    private Map<String, Object> entities;
+    private Long duplicateOf;
+    private OffsetDateTime updatedAt;
+    private Long projectId;
+    private int[] documentTerms;
+
+    // Constructors
+    public NlpResult() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public double getSentimentScore() {
+        return sentimentScore;
+    }
+
+    public void setSentimentScore(double sentimentScore) {
+        this.sentimentScore = sentimentScore;
+    }
+
+    public String[] getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(String[] keywords) {
+        this.keywords = keywords;
+    }
+
+    public Map<String, Object> getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Map<String, Object> entities) {
+        this.entities = entities;
+    }
+
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public int[] getDocumentTerms() {
+        return documentTerms;
+    }
+
+    public void setDocumentTerms(int[] documentTerms) {
+        this.documentTerms = documentTerms;
+    }
+}
@@ -16,8 +16,14 @@ import java.util.Map;
 @Table(name = "feedback")
 public class Feedback {
 
+    /**
+     * Must match INCREMENT BY of feedback_id_seq (see src/scripts/feedback.sql)
+     */
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_id_seq")
+    @SequenceGenerator(name = "feedback_id_seq", sequenceName = "feedback_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id")
@@ -32,6 +38,9 @@ public class Feedback {
     @Column(name = "category", length = 50)
     private String category;
 
+    @Column(name = "language", length = 8)
+    private String language;
+
     @Column(name = "sentiment_score", precision = 3, scale = 2)
     private BigDecimal sentimentScore;
 
@@ -42,6 +51,12 @@ public class Feedback {
     @Column(name = "entities", columnDefinition = "JSONB")
     private Map<String, Object> entities;
 
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
+    @Column(name = "model_version", length = 32)
+    private String modelVersion;
+
     @Column(name = "processed")
     private Boolean processed = false;
 
@@ -96,6 +111,14 @@ public class Feedback {
         this.category = category;
     }
 
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
     public BigDecimal getSentimentScore() {
         return sentimentScore;
     }
@@ -120,6 +143,22 @@ public class Feedback {
         this.entities = entities;
     }
 
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
     public Boolean getProcessed() {
         return processed;
     }
@@ -0,0 +1,48 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.service.NearDuplicateDetector;
+import com.insightdesk.nlp.text.TokenBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Links the message to a nearly identical earlier message of its project; the output is
+ * the canonical feedback id. Reprocessed feedback keeps the link it has.
+ */
+@Component
+public class DuplicateStage implements NlpStage<Long> {
+
+    public static final String NAME = "duplicates";
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Indexes the message for later near-duplicates
+     */
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return List.of(TokenizeStage.NAME);
+    }
+
+    @Override
+    public Long process(NlpContext context) {
+        TokenBuffer tokens = context.output(TokenizeStage.NAME);
+        if (tokens == null || context.reprocessing()) {
+            return null;
+        }
+        return nearDuplicateDetector.findDuplicateOf(context.event().getId(), context.event().getProjectId(), tokens);
+    }
+}
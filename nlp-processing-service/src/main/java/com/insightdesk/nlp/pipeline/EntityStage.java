@@ -0,0 +1,47 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.service.NearDuplicateDetector;
+import com.insightdesk.nlp.text.EntityExtractor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entities from the dictionaries and scanners, for feedback that came without entities
+ */
+@Component
+public class EntityStage implements NlpStage<Map<String, Object>> {
+
+    public static final String NAME = "entities";
+
+    @Autowired
+    private EntityExtractor entityExtractor;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return List.of(DuplicateStage.NAME);
+    }
+
+    @Override
+    public Map<String, Object> process(NlpContext context) {
+        Map<String, Object> supplied = context.event().getEntities();
+        if ((supplied != null && !supplied.isEmpty())
+                || nearDuplicateDetector.skipsStages(context.output(DuplicateStage.NAME))) {
+            return null;
+        }
+        if (context.cached() != null) {
+            return context.cached().entities();
+        }
+        return entityExtractor.extract(context.message());
+    }
+}
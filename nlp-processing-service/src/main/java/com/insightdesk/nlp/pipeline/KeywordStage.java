@@ -0,0 +1,66 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.service.NearDuplicateDetector;
+import com.insightdesk.nlp.text.KeywordExtractor;
+import com.insightdesk.nlp.text.TokenBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * TF-IDF keywords against the project's document frequencies. The output also carries the
+ * message's terms, which are counted in those frequencies only once its result is written
+ * (see {@link com.insightdesk.nlp.service.NlpProcessingService#countDocuments}), even if
+ * the feedback came with keywords or repeats a cached message. A message whose result is
+ * dropped, retried or redelivered is therefore counted once; reprocessed feedback was
+ * counted the first time and carries no terms.
+ */
+@Component
+public class KeywordStage implements NlpStage<KeywordStage.Keywords> {
+
+    public static final String NAME = "keywords";
+
+    @Value("${nlp.keywords.max-keywords:5}")
+    private int maxKeywords;
+
+    @Autowired
+    private KeywordExtractor keywordExtractor;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return List.of(TokenizeStage.NAME, DuplicateStage.NAME);
+    }
+
+    @Override
+    public Keywords process(NlpContext context) {
+        if (nearDuplicateDetector.skipsStages(context.output(DuplicateStage.NAME))) {
+            return null;
+        }
+        TokenBuffer tokens = context.output(TokenizeStage.NAME);
+        int[] terms = tokens == null || context.reprocessing() ? null : keywordExtractor.terms(tokens);
+        if (context.cached() != null) {
+            return new Keywords(context.cached().keywords(), terms);
+        }
+        if (tokens == null) {
+            return null;
+        }
+        return new Keywords(keywordExtractor.extract(context.event().getProjectId(), tokens, maxKeywords, false), terms);
+    }
+
+    /**
+     * Keywords best first, and the distinct term ids to count for the message (null if it
+     * is not counted)
+     */
+    public record Keywords(String[] ranked, int[] terms) {
+    }
+}
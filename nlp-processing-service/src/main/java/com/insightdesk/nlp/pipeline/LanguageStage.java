@@ -0,0 +1,30 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.text.LanguageDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects the message language, which selects the stop words and sentiment lexicon
+ */
+@Component
+public class LanguageStage implements NlpStage<String> {
+
+    public static final String NAME = "language";
+
+    @Autowired
+    private LanguageDetector languageDetector;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String process(NlpContext context) {
+        if (context.cached() != null) {
+            return context.cached().language();
+        }
+        return languageDetector.detect(context.message());
+    }
+}
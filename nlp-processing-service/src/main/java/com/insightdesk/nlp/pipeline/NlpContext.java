@@ -0,0 +1,75 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.service.NlpResultCache;
+import com.insightdesk.nlp.text.TokenBuffer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Input and stage outputs of one pipeline run.
+ *
+ * Outputs are stored by the pipeline once a stage has finished in time, so a stage only
+ * ever sees complete outputs of the stages it depends on.
+ */
+public final class NlpContext {
+
+    private final FeedbackEvent event;
+    private final NlpResultCache.Outputs cached;
+    private final TokenBuffer tokenBuffer;
+    private final boolean reprocessing;
+    private final Map<String, Object> outputs = new ConcurrentHashMap<>();
+
+    NlpContext(FeedbackEvent event, NlpResultCache.Outputs cached, TokenBuffer tokenBuffer, boolean reprocessing) {
+        this.event = event;
+        this.cached = cached;
+        this.tokenBuffer = tokenBuffer;
+        this.reprocessing = reprocessing;
+    }
+
+    public FeedbackEvent event() {
+        return event;
+    }
+
+    public String message() {
+        return event.getMessage();
+    }
+
+    /**
+     * Outputs memoized for an identical earlier message; stages return theirs instead of
+     * computing them. Null on a cache miss.
+     */
+    public NlpResultCache.Outputs cached() {
+        return cached;
+    }
+
+    /**
+     * Whether the feedback was processed before (a backfill of stale rows): it has already
+     * been counted and linked, so stages must not count or index it again
+     */
+    public boolean reprocessing() {
+        return reprocessing;
+    }
+
+    /**
+     * Buffer for the message's tokens; only the tokenize stage writes it
+     */
+    public TokenBuffer tokenBuffer() {
+        return tokenBuffer;
+    }
+
+    /**
+     * Output of a stage; null if it returned none, did not run or ran out of time
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T output(String stage) {
+        return (T) outputs.get(stage);
+    }
+
+    void setOutput(String stage, Object output) {
+        if (output != null) {
+            outputs.put(stage, output);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.service.NlpResultCache;
+import com.insightdesk.nlp.text.TokenBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the configured NLP stages over a feedback event.
+ *
+ * nlp.pipeline.stages lists the stages in an order that respects their dependencies; each
+ * can be turned off with nlp.pipeline.{stage}.enabled=false. For a short message the stages
+ * run one after another on the calling thread. For messages of at least
+ * nlp.pipeline.parallel-min-chars chars every stage is submitted to the stage pool as soon
+ * as its dependencies are done, so independent stages (sentiment, keywords, entities) run
+ * concurrently.
+ *
+ * A stage with a time budget (nlp.pipeline.{stage}.timeout-ms) always runs on the stage
+ * pool. If it has not finished within its budget, counted from submission, its output is
+ * dropped and the message is processed without it. The stage is interrupted, but a
+ * CPU-bound stage runs to completion on its pool thread. Stages with side effects
+ * (duplicates) cannot have a budget, so nothing is indexed for a message whose output was
+ * dropped. Each stage records its duration
+ * (nlp.stage.duration, with a histogram) and its timeouts (nlp.stage.timeouts), tagged with
+ * the stage name. An exception in a stage fails the message.
+ */
+@Component
+public class NlpPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(NlpPipeline.class);
+
+    @Value("${nlp.pipeline.stages:language,sentiment,tokenize,duplicates,keywords,entities}")
+    private List<String> stageNames;
+
+    @Value("${nlp.pipeline.parallel-min-chars:2000}")
+    private int parallelMinChars;
+
+    @Autowired
+    private List<NlpStage<?>> availableStages;
+
+    @Autowired
+    @Qualifier("nlpStageExecutor")
+    private ExecutorService nlpStageExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    /** Reused per worker thread when no stage can outlive the run */
+    private final ThreadLocal<TokenBuffer> tokenBuffers = ThreadLocal.withInitial(TokenBuffer::new);
+
+    private Step[] steps;
+    private boolean budgeted;
+
+    @PostConstruct
+    public void init() {
+        Map<String, NlpStage<?>> byName = new HashMap<>();
+        for (NlpStage<?> stage : availableStages) {
+            byName.put(stage.name(), stage);
+        }
+
+        List<Step> configured = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+        for (String name : stageNames) {
+            String key = name.trim();
+            NlpStage<?> stage = byName.get(key);
+            if (stage == null) {
+                throw new IllegalStateException("Unknown NLP stage in nlp.pipeline.stages: " + key + ", available: " + byName.keySet());
+            }
+            if (!environment.getProperty("nlp.pipeline." + key + ".enabled", Boolean.class, true)) {
+                logger.info("NLP stage {} is disabled", key);
+                continue;
+            }
+            List<Integer> dependencies = new ArrayList<>();
+            for (String dependency : stage.dependsOn()) {
+                Integer position = positions.get(dependency);
+                if (position != null) {
+                    dependencies.add(position);
+                } else if (stageNames.stream().map(String::trim).anyMatch(dependency::equals)) {
+                    if (environment.getProperty("nlp.pipeline." + dependency + ".enabled", Boolean.class, true)) {
+                        throw new IllegalStateException("NLP stage " + key + " must come after " + dependency + " in nlp.pipeline.stages");
+                    }
+                }
+            }
+            long timeoutMs = environment.getProperty("nlp.pipeline." + key + ".timeout-ms", Long.class, 0L);
+            if (timeoutMs > 0 && stage.hasSideEffects()) {
+                throw new IllegalStateException("NLP stage " + key + " changes shared state and cannot have nlp.pipeline."
+                    + key + ".timeout-ms: its output would be dropped while its effect stayed");
+            }
+            budgeted |= timeoutMs > 0;
+            positions.put(key, configured.size());
+            configured.add(new Step(stage, dependencies.stream().mapToInt(Integer::intValue).toArray(),
+                TimeUnit.MILLISECONDS.toNanos(timeoutMs),
+                Timer.builder("nlp.stage.duration")
+                    .description("Time spent in an NLP pipeline stage")
+                    .tag("stage", key)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry),
+                Counter.builder("nlp.stage.timeouts")
+                    .description("Messages processed without a stage's output because it ran out of time")
+                    .tag("stage", key)
+                    .register(meterRegistry)));
+        }
+        steps = configured.toArray(new Step[0]);
+        logger.info("NLP pipeline: {}", configured.stream().map(step -> step.stage.name()).toList());
+    }
+
+    /**
+     * Run all stages over the event; the outputs are in the returned context
+     */
+    public NlpContext run(FeedbackEvent event, NlpResultCache.Outputs cached, boolean reprocessing) {
+        String message = event.getMessage();
+        boolean parallel = parallelMinChars > 0 && message != null && message.length() >= parallelMinChars;
+        if (!parallel && !budgeted) {
+            NlpContext context = new NlpContext(event, cached, tokenBuffers.get(), reprocessing);
+            for (Step step : steps) {
+                context.setOutput(step.stage.name(), step.run(context));
+            }
+            return context;
+        }
+
+        // A stage dropped at its deadline may still be reading the tokens, so they get their own buffer
+        NlpContext context = new NlpContext(event, cached, new TokenBuffer(), reprocessing);
+        Future<?>[] futures = new Future<?>[steps.length];
+        long[] submitted = new long[steps.length];
+        try {
+            for (int i = 0; i < steps.length; i++) {
+                Step step = steps[i];
+                for (int dependency : step.dependencies) {
+                    await(dependency, futures, submitted, context);
+                }
+                if (parallel || step.timeoutNanos > 0) {
+                    submitted[i] = System.nanoTime();
+                    futures[i] = nlpStageExecutor.submit(() -> step.run(context));
+                } else {
+                    context.setOutput(step.stage.name(), step.run(context));
+                }
+            }
+            for (int i = 0; i < steps.length; i++) {
+                await(i, futures, submitted, context);
+            }
+        } finally {
+            // Only left running if a stage failed or the worker was interrupted
+            for (Future<?> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Wait for a submitted stage within its budget and store its output
+     */
+    private void await(int index, Future<?>[] futures, long[] submitted, NlpContext context) {
+        Future<?> future = futures[index];
+        if (future == null) {
+            return;
+        }
+        futures[index] = null;
+        Step step = steps[index];
+        try {
+            Object output = step.timeoutNanos > 0
+                ? future.get(Math.max(0, submitted[index] + step.timeoutNanos - System.nanoTime()), TimeUnit.NANOSECONDS)
+                : future.get();
+            context.setOutput(step.stage.name(), output);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            step.timeouts.increment();
+            logger.debug("NLP stage {} ran out of time for feedback {}", step.stage.name(), context.event().getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for NLP stage " + step.stage.name(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("NLP stage " + step.stage.name() + " failed", e.getCause());
+        }
+    }
+
+    private static final class Step {
+
+        private final NlpStage<?> stage;
+        /** Positions of the configured dependencies in the pipeline */
+        private final int[] dependencies;
+        private final long timeoutNanos;
+        private final Timer duration;
+        private final Counter timeouts;
+
+        Step(NlpStage<?> stage, int[] dependencies, long timeoutNanos, Timer duration, Counter timeouts) {
+            this.stage = stage;
+            this.dependencies = dependencies;
+            this.timeoutNanos = timeoutNanos;
+            this.duration = duration;
+            this.timeouts = timeouts;
+        }
+
+        Object run(NlpContext context) {
+            long started = System.nanoTime();
+            try {
+                return stage.process(context);
+            } finally {
+                duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.insightdesk.nlp.pipeline;
+
+import java.util.List;
+
+/**
+ * One step of the NLP pipeline ({@link NlpPipeline}).
+ *
+ * A stage reads the feedback event and the outputs of earlier stages from the context and
+ * returns its own output, or null if it has none for this message. Stages it does not
+ * depend on may run at the same time on other threads, so a stage must not change shared
+ * state other than through its return value, unless it declares so with
+ * {@link #hasSideEffects()}.
+ */
+public interface NlpStage<T> {
+
+    /**
+     * Name used in nlp.pipeline.stages, the stage properties and the stage metrics
+     */
+    String name();
+
+    /**
+     * Stages whose outputs this stage reads; they must come earlier in the pipeline. A
+     * dependency that is disabled, not configured or timed out reads as null.
+     */
+    default List<String> dependsOn() {
+        return List.of();
+    }
+
+    /**
+     * Whether the stage changes shared state besides returning its output, such as indexing
+     * the message for near-duplicates. Such a stage cannot be given
+     * a time budget: its output would be dropped while its effect stayed.
+     */
+    default boolean hasSideEffects() {
+        return false;
+    }
+
+    T process(NlpContext context);
+}
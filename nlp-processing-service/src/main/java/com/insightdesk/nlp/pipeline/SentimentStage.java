@@ -0,0 +1,42 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.text.SentimentScorers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scores sentiment with the lexicon of the message language, unless the feedback already
+ * has a score
+ */
+@Component
+public class SentimentStage implements NlpStage<Double> {
+
+    public static final String NAME = "sentiment";
+
+    @Autowired
+    private SentimentScorers sentimentScorers;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return List.of(LanguageStage.NAME);
+    }
+
+    @Override
+    public Double process(NlpContext context) {
+        if (context.event().getSentimentScore() != null) {
+            return null;
+        }
+        if (context.cached() != null) {
+            return context.cached().sentimentScore();
+        }
+        String language = context.output(LanguageStage.NAME);
+        return sentimentScorers.forLanguage(language).score(context.message());
+    }
+}
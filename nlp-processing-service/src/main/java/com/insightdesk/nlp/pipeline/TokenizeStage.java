@@ -0,0 +1,39 @@
+package com.insightdesk.nlp.pipeline;
+
+import com.insightdesk.nlp.text.TokenBuffer;
+import com.insightdesk.nlp.text.Tokenizers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One tokenization pass with the stop words of the message language, shared by the
+ * token-based stages
+ */
+@Component
+public class TokenizeStage implements NlpStage<TokenBuffer> {
+
+    public static final String NAME = "tokenize";
+
+    @Autowired
+    private Tokenizers tokenizers;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return List.of(LanguageStage.NAME);
+    }
+
+    @Override
+    public TokenBuffer process(NlpContext context) {
+        String language = context.output(LanguageStage.NAME);
+        TokenBuffer tokens = context.tokenBuffer();
+        tokenizers.forLanguage(language).tokenize(context.message(), tokens);
+        return tokens;
+    }
+}
@@ -0,0 +1,262 @@
+package com.insightdesk.nlp.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.BackfillRequest;
+import com.insightdesk.nlp.dto.BackfillStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backfill jobs (src/scripts/backfillJob.sql) and the feedback rows they walk.
+ *
+ * Every change to a running job is guarded by its owner, so an instance whose lease was
+ * taken over, or whose job was stopped, cannot write a checkpoint any more.
+ */
+@Repository
+public class BackfillRepository {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String STOPPED = "STOPPED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static final String JOB_COLUMNS =
+        "id, scope, project_id, created_from, created_to, model_version, status, first_id, last_id, max_id, "
+            + "processed_count, written_count, failed_count, owner, error, created_at, updated_at";
+
+    /**
+     * The id range is fixed at creation: rows added later are processed by the consumer
+     */
+    private static final String INSERT_JOB_SQL =
+        "INSERT INTO nlp_backfill_job (scope, project_id, created_from, created_to, model_version, status, first_id, last_id, max_id) "
+            + "SELECT ?, ?, ?, ?, ?, 'RUNNING', r.first_id, r.first_id, r.max_id "
+            + "FROM (SELECT COALESCE(MIN(id), 1) - 1 AS first_id, COALESCE(MAX(id), 0) AS max_id FROM feedback) r "
+            + "RETURNING id";
+
+    private static final String CLAIM_SQL =
+        "UPDATE nlp_backfill_job SET owner = ?, lease_until = NOW() + make_interval(secs => ?), updated_at = NOW() "
+            + "WHERE id = ? AND status = 'RUNNING' AND (owner IS NULL OR owner = ? OR lease_until < NOW())";
+
+    private static final String CHECKPOINT_SQL =
+        "UPDATE nlp_backfill_job SET last_id = ?, processed_count = processed_count + ?, "
+            + "written_count = written_count + ?, failed_count = failed_count + ?, "
+            + "lease_until = NOW() + make_interval(secs => ?), updated_at = NOW() "
+            + "WHERE id = ? AND owner = ? AND status = 'RUNNING'";
+
+    private static final String FINISH_SQL =
+        "UPDATE nlp_backfill_job SET status = ?, error = ?, last_id = CASE WHEN ? THEN max_id ELSE last_id END, "
+            + "owner = NULL, lease_until = NULL, updated_at = NOW() "
+            + "WHERE id = ? AND owner = ? AND status = 'RUNNING'";
+
+    private static final String FEEDBACK_COLUMNS =
+        "id, user_id, project_id, message, category, sentiment_score, keywords, entities, processed, created_at";
+
+    private static final TypeReference<Map<String, Object>> ENTITIES_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final RowMapper<BackfillStatus> jobMapper = (rs, rowNum) -> toStatus(rs);
+
+    /**
+     * Create a RUNNING job over the current id range of feedback; throws
+     * DuplicateKeyException if another job is running
+     */
+    public long createJob(BackfillRequest.Scope scope, BackfillRequest request, String modelVersion) {
+        return jdbcTemplate.queryForObject(INSERT_JOB_SQL, Long.class,
+            scope.name(), request.getProjectId(), request.getCreatedFrom(), request.getCreatedTo(), modelVersion);
+    }
+
+    /**
+     * The job, or null if there is none with this id
+     */
+    public BackfillStatus findJob(long id) {
+        List<BackfillStatus> jobs = jdbcTemplate.query(
+            "SELECT " + JOB_COLUMNS + " FROM nlp_backfill_job WHERE id = ?", jobMapper, id);
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    /**
+     * The newest jobs first
+     */
+    public List<BackfillStatus> findJobs(int limit) {
+        return jdbcTemplate.query(
+            "SELECT " + JOB_COLUMNS + " FROM nlp_backfill_job ORDER BY id DESC LIMIT ?", jobMapper, limit);
+    }
+
+    /**
+     * Running jobs that no instance holds a lease on
+     */
+    public List<Long> findClaimableJobIds() {
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM nlp_backfill_job WHERE status = 'RUNNING' AND (owner IS NULL OR lease_until < NOW()) ORDER BY id",
+            Long.class);
+    }
+
+    /**
+     * Take (or renew) the lease on a running job; false if another instance holds it
+     */
+    public boolean claim(long id, String owner, long leaseSeconds) {
+        return jdbcTemplate.update(CLAIM_SQL, owner, leaseSeconds, id, owner) == 1;
+    }
+
+    /**
+     * Record a processed chunk and renew the lease. Call in the transaction that writes
+     * the chunk's results; false means the job was stopped or taken over, and the
+     * transaction must be rolled back.
+     */
+    public boolean checkpoint(long id, String owner, long lastId, int processed, int written, int failed, long leaseSeconds) {
+        return jdbcTemplate.update(CHECKPOINT_SQL, lastId, processed, written, failed, leaseSeconds, id, owner) == 1;
+    }
+
+    /**
+     * Mark a job the owner is running COMPLETED (its checkpoint moves to max_id) or FAILED
+     * and release it
+     */
+    public boolean finish(long id, String owner, String status, String error) {
+        return jdbcTemplate.update(FINISH_SQL, status, error, COMPLETED.equals(status), id, owner) == 1;
+    }
+
+    /**
+     * Release the lease so another instance can resume the job at once
+     */
+    public void release(long id, String owner) {
+        jdbcTemplate.update("UPDATE nlp_backfill_job SET owner = NULL, lease_until = NULL WHERE id = ? AND owner = ?",
+            id, owner);
+    }
+
+    /**
+     * Stop a running job; the instance running it notices at its next checkpoint
+     */
+    public boolean stop(long id) {
+        return jdbcTemplate.update(
+            "UPDATE nlp_backfill_job SET status = 'STOPPED', owner = NULL, lease_until = NULL, updated_at = NOW() "
+                + "WHERE id = ? AND status = 'RUNNING'", id) == 1;
+    }
+
+    /**
+     * Make a stopped or failed job claimable again, from its checkpoint; throws
+     * DuplicateKeyException if another job is running
+     */
+    public boolean resume(long id) {
+        return jdbcTemplate.update(
+            "UPDATE nlp_backfill_job SET status = 'RUNNING', error = NULL, owner = NULL, lease_until = NULL, updated_at = NOW() "
+                + "WHERE id = ? AND status IN ('STOPPED', 'FAILED')", id) == 1;
+    }
+
+    /**
+     * The next rows of the job after lastId, in id order (keyset paging on the primary key).
+     *
+     * Rows never processed carry the sentiment, keywords and entities they were submitted
+     * with, which the NLP result keeps. In a processed row those columns hold the earlier
+     * NLP output, so they are left out and everything is computed again.
+     */
+    public List<FeedbackEvent> findChunk(BackfillStatus job, long lastId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(FEEDBACK_COLUMNS)
+            .append(" FROM feedback WHERE id > ? AND id <= ?");
+        List<Object> params = new ArrayList<>();
+        params.add(lastId);
+        params.add(job.getMaxId());
+
+        switch (BackfillRequest.Scope.valueOf(job.getScope())) {
+            case UNPROCESSED -> sql.append(" AND processed IS NOT TRUE");
+            case STALE -> {
+                sql.append(" AND processed = TRUE AND model_version IS DISTINCT FROM ?");
+                params.add(job.getModelVersion());
+            }
+            case ALL -> {
+                sql.append(" AND (processed IS NOT TRUE OR model_version IS DISTINCT FROM ?)");
+                params.add(job.getModelVersion());
+            }
+        }
+        if (job.getProjectId() != null) {
+            sql.append(" AND project_id = ?");
+            params.add(job.getProjectId());
+        }
+        if (job.getCreatedFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(job.getCreatedFrom());
+        }
+        if (job.getCreatedTo() != null) {
+            sql.append(" AND created_at < ?");
+            params.add(job.getCreatedTo());
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toEvent(rs), params.toArray());
+    }
+
+    private FeedbackEvent toEvent(ResultSet rs) throws SQLException {
+        FeedbackEvent event = new FeedbackEvent();
+        event.setId(rs.getLong("id"));
+        event.setUserId(rs.getObject("user_id", Long.class));
+        event.setProjectId(rs.getObject("project_id", Long.class));
+        event.setMessage(rs.getString("message"));
+        event.setCategory(rs.getString("category"));
+        event.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        boolean processed = rs.getBoolean("processed");
+        event.setProcessed(processed);
+        if (!processed) {
+            event.setSentimentScore(rs.getBigDecimal("sentiment_score"));
+            Array keywords = rs.getArray("keywords");
+            if (keywords != null) {
+                event.setKeywords((String[]) keywords.getArray());
+            }
+            String entities = rs.getString("entities");
+            if (entities != null) {
+                event.setEntities(toEntities(entities));
+            }
+        }
+        return event;
+    }
+
+    private Map<String, Object> toEntities(String json) {
+        try {
+            return objectMapper.readValue(json, ENTITIES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Entities are not valid JSON", e);
+        }
+    }
+
+    private BackfillStatus toStatus(ResultSet rs) throws SQLException {
+        BackfillStatus status = new BackfillStatus();
+        status.setId(rs.getLong("id"));
+        status.setScope(rs.getString("scope"));
+        status.setProjectId(rs.getObject("project_id", Long.class));
+        status.setCreatedFrom(rs.getObject("created_from", OffsetDateTime.class));
+        status.setCreatedTo(rs.getObject("created_to", OffsetDateTime.class));
+        status.setModelVersion(rs.getString("model_version"));
+        status.setStatus(rs.getString("status"));
+        status.setFirstId(rs.getLong("first_id"));
+        status.setLastId(rs.getLong("last_id"));
+        status.setMaxId(rs.getLong("max_id"));
+        long range = status.getMaxId() - status.getFirstId();
+        status.setProgress(range <= 0 ? 1.0 : (double) (status.getLastId() - status.getFirstId()) / range);
+        status.setProcessedCount(rs.getLong("processed_count"));
+        status.setWrittenCount(rs.getLong("written_count"));
+        status.setFailedCount(rs.getLong("failed_count"));
+        status.setOwner(rs.getString("owner"));
+        status.setError(rs.getString("error"));
+        status.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        status.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+        return status;
+    }
+}
@@ -0,0 +1,91 @@
+package com.insightdesk.nlp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+/**
+ * Snapshot of the keyword document frequencies (keyword_document_count, keyword_term_frequency).
+ *
+ * Each consumer instance adds the counts it accumulated since its previous snapshot, so
+ * instances sharing the topic build one corpus between them.
+ */
+@Repository
+public class DocumentFrequencyRepository {
+
+    private static final int TERM_CHUNK_SIZE = 10000;
+
+    private static final String ADD_DOCUMENTS_SQL =
+        "INSERT INTO keyword_document_count (project_id, documents, updated_at) VALUES (?, ?, NOW()) "
+            + "ON CONFLICT (project_id) DO UPDATE SET "
+            + "documents = keyword_document_count.documents + EXCLUDED.documents, updated_at = NOW()";
+
+    private static final String ADD_TERMS_SQL =
+        "INSERT INTO keyword_term_frequency (project_id, term, documents) "
+            + "SELECT ?, u.term, u.documents FROM unnest(?::text[], ?::int[]) AS u(term, documents) "
+            + "ON CONFLICT (project_id, term) DO UPDATE SET "
+            + "documents = keyword_term_frequency.documents + EXCLUDED.documents";
+
+    private static final String SELECT_DOCUMENTS_SQL = "SELECT project_id, documents FROM keyword_document_count";
+
+    private static final String SELECT_TERMS_SQL = "SELECT project_id, term, documents FROM keyword_term_frequency";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a project's message count and term frequencies (parallel arrays)
+     */
+    public void addCounts(long projectId, long documents, String[] terms, int[] frequencies) {
+        if (documents > 0) {
+            jdbcTemplate.update(ADD_DOCUMENTS_SQL, projectId, documents);
+        }
+        for (int from = 0; from < terms.length; from += TERM_CHUNK_SIZE) {
+            int to = Math.min(terms.length, from + TERM_CHUNK_SIZE);
+            String[] termChunk = Arrays.copyOfRange(terms, from, to);
+            Integer[] frequencyChunk = new Integer[to - from];
+            for (int i = from; i < to; i++) {
+                frequencyChunk[i - from] = frequencies[i];
+            }
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ADD_TERMS_SQL);
+                statement.setLong(1, projectId);
+                statement.setArray(2, connection.createArrayOf("text", termChunk));
+                statement.setArray(3, connection.createArrayOf("integer", frequencyChunk));
+                return statement;
+            });
+        }
+    }
+
+    public void forEachDocumentCount(DocumentCountHandler handler) {
+        jdbcTemplate.query(SELECT_DOCUMENTS_SQL, rs -> {
+            handler.accept(rs.getLong("project_id"), rs.getLong("documents"));
+        });
+    }
+
+    /**
+     * Stream all term frequencies; call inside a transaction so rows are fetched in chunks
+     */
+    public void forEachTermFrequency(TermFrequencyHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_TERMS_SQL);
+            statement.setFetchSize(TERM_CHUNK_SIZE);
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong("project_id"), rs.getString("term"), rs.getLong("documents"));
+        });
+    }
+
+    @FunctionalInterface
+    public interface DocumentCountHandler {
+        void accept(long projectId, long documents);
+    }
+
+    @FunctionalInterface
+    public interface TermFrequencyHandler {
+        void accept(long projectId, String term, long documents);
+    }
+}
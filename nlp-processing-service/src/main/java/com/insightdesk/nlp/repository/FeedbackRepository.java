@@ -3,16 +3,18 @@ package com.insightdesk.nlp.repository;
 import com.insightdesk.nlp.entity.Feedback;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
-    
+
     /**
-     * Find unprocessed feedback entries
+     * Ids among the given ones that are already processed (idempotency check for a batch)
      */
-    @Query("SELECT f FROM Feedback f WHERE f.processed = false")
-    List<Feedback> findUnprocessedFeedback();
+    @Query("SELECT f.id FROM Feedback f WHERE f.id IN :ids AND f.processed = true")
+    List<Long> findProcessedIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,117 @@
+package com.insightdesk.nlp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+
+/**
+ * MinHash signatures of canonical feedback and their LSH band keys (feedback_signature,
+ * feedback_signature_band), shared by all consumer instances for near-duplicate detection.
+ *
+ * Call {@link #lockProject} first in the transaction that looks a message up and adds it,
+ * so two instances never both take near-duplicate messages of one project as canonical.
+ */
+@Repository
+public class FeedbackSignatureRepository {
+
+    /** First key of the advisory locks, so they do not collide with other uses */
+    private static final int LOCK_NAMESPACE = 0x4E445550;
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private static final String SELECT_CANDIDATES_SQL =
+        "SELECT s.feedback_id, s.signature FROM feedback_signature s "
+            + "WHERE s.feedback_id IN ("
+            + "SELECT b.feedback_id FROM feedback_signature_band b WHERE b.project_id = ? AND b.band_key = ANY(?::int[])"
+            + ") AND s.created_at > ?";
+
+    private static final String INSERT_SIGNATURE_SQL =
+        "INSERT INTO feedback_signature (feedback_id, project_id, signature, created_at) VALUES (?, ?, ?::int[], NOW()) "
+            + "ON CONFLICT (feedback_id) DO NOTHING";
+
+    private static final String INSERT_BANDS_SQL =
+        "INSERT INTO feedback_signature_band (project_id, band_key, feedback_id) "
+            + "SELECT ?, u.band_key, ? FROM unnest(?::int[]) AS u(band_key) "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM feedback_signature WHERE created_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hold the project's lock until the current transaction ends
+     */
+    public void lockProject(long projectId) {
+        jdbcTemplate.query(LOCK_SQL, rs -> { }, LOCK_NAMESPACE, Long.hashCode(projectId));
+    }
+
+    /**
+     * Stream the signatures of the project created after since that share a band key
+     */
+    public void forEachCandidate(long projectId, int[] bandKeys, OffsetDateTime since, CandidateHandler handler) {
+        Integer[] keys = boxed(bandKeys);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CANDIDATES_SQL);
+            statement.setLong(1, projectId);
+            statement.setArray(2, connection.createArrayOf("integer", keys));
+            statement.setObject(3, since);
+            return statement;
+        }, rs -> {
+            Integer[] signature = (Integer[]) rs.getArray("signature").getArray();
+            int[] values = new int[signature.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = signature[i];
+            }
+            handler.accept(rs.getLong("feedback_id"), values);
+        });
+    }
+
+    /**
+     * Add a canonical message; a message already added is left alone
+     */
+    public void add(long feedbackId, long projectId, int[] signature, int[] bandKeys) {
+        Integer[] values = boxed(signature);
+        Integer[] keys = boxed(bandKeys);
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SIGNATURE_SQL);
+            statement.setLong(1, feedbackId);
+            statement.setLong(2, projectId);
+            statement.setArray(3, connection.createArrayOf("integer", values));
+            return statement;
+        });
+        if (inserted == 0) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_BANDS_SQL);
+            statement.setLong(1, projectId);
+            statement.setLong(2, feedbackId);
+            statement.setArray(3, connection.createArrayOf("integer", keys));
+            return statement;
+        });
+    }
+
+    /**
+     * Delete signatures created before cutoff, with their band keys; returns how many
+     */
+    public int deleteOlderThan(OffsetDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff);
+    }
+
+    private static Integer[] boxed(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+    @FunctionalInterface
+    public interface CandidateHandler {
+        void accept(long feedbackId, int[] signature);
+    }
+}
@@ -0,0 +1,146 @@
+package com.insightdesk.nlp.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.text.SentimentScorer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes NLP results with one multi-row UPDATE per batch.
+ *
+ * Only the NLP columns are written, so ingest fields (message, user/project, created_at)
+ * are never overwritten. Writing language fires the message_tsv trigger, which rebuilds
+ * message_tsv only when the language maps to a different text search configuration.
+ * Rows are matched by id from parallel arrays passed through unnest; there is no read first.
+ * Each row records the model version it was processed with, and a processed row is only
+ * written again by a different model version (a backfill of stale rows).
+ */
+@Repository
+public class NlpResultRepository {
+
+    /**
+     * keywords and entities are passed as text (array literal / JSON) and cast per row,
+     * since unnest cannot return a TEXT[] per row from a two-dimensional array
+     */
+    private static final String UPDATE_SQL =
+        "UPDATE feedback AS f SET "
+            + "category = u.category, "
+            + "language = u.language, "
+            + "sentiment_score = u.sentiment_score, "
+            + "keywords = u.keywords::text[], "
+            + "entities = u.entities::jsonb, "
+            + "duplicate_of = COALESCE(u.duplicate_of, f.duplicate_of), "
+            + "model_version = v.model_version, "
+            + "processed = TRUE, "
+            + "updated_at = NOW() "
+            + "FROM unnest(?::bigint[], ?::text[], ?::text[], ?::numeric[], ?::text[], ?::text[], ?::bigint[]) "
+            + "AS u(id, category, language, sentiment_score, keywords, entities, duplicate_of), "
+            + "(SELECT ?::varchar) AS v(model_version) "
+            + "WHERE f.id = u.id AND (f.processed IS NOT TRUE OR f.model_version IS DISTINCT FROM v.model_version) "
+            + "RETURNING f.id, f.updated_at";
+
+    @Value("${nlp.model.version:1}")
+    private String modelVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write a batch of results. Rows that are missing or were already processed with this
+     * model version are left alone; the returned list holds only the results actually written, with updatedAt set.
+     */
+    public List<NlpResult> updateResults(List<NlpResult> results) {
+        if (results.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int size = results.size();
+        Long[] ids = new Long[size];
+        String[] categories = new String[size];
+        String[] languages = new String[size];
+        BigDecimal[] scores = new BigDecimal[size];
+        String[] keywords = new String[size];
+        String[] entities = new String[size];
+        Long[] duplicatesOf = new Long[size];
+        Map<Long, NlpResult> byId = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            NlpResult result = results.get(i);
+            ids[i] = result.getId();
+            categories[i] = result.getCategory();
+            languages[i] = result.getLanguage();
+            scores[i] = SentimentScorer.toNumeric(result.getSentimentScore());
+            keywords[i] = result.getKeywords() == null ? null : toArrayLiteral(result.getKeywords());
+            entities[i] = result.getEntities() == null ? null : toJson(result.getEntities());
+            duplicatesOf[i] = result.getDuplicateOf();
+            byId.put(result.getId(), result);
+        }
+
+        List<NlpResult> written = new ArrayList<>(size);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("text", categories));
+            statement.setArray(3, connection.createArrayOf("text", languages));
+            statement.setArray(4, connection.createArrayOf("numeric", scores));
+            statement.setArray(5, connection.createArrayOf("text", keywords));
+            statement.setArray(6, connection.createArrayOf("text", entities));
+            statement.setArray(7, connection.createArrayOf("bigint", duplicatesOf));
+            statement.setString(8, modelVersion);
+            return statement;
+        }, rs -> {
+            NlpResult result = byId.get(rs.getLong("id"));
+            result.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+            written.add(result);
+        });
+        return written;
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Entities are not serializable as JSON", e);
+        }
+    }
+
+    /**
+     * Build a PostgreSQL array literal such as {"a","b"} for the TEXT[] column
+     */
+    private String toArrayLiteral(String[] values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            if (values[i] == null) {
+                literal.append("NULL");
+                continue;
+            }
+            literal.append('"');
+            for (int j = 0; j < values[i].length(); j++) {
+                char c = values[i].charAt(j);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+}
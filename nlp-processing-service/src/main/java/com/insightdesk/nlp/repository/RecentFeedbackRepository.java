@@ -0,0 +1,54 @@
+package com.insightdesk.nlp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+
+/**
+ * Reads recent feedback messages for rebuilding the near-duplicate index at startup.
+ */
+@Repository
+public class RecentFeedbackRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    /**
+     * The newest messages that are not themselves duplicates, returned oldest first
+     * (uses idx_feedback_created_at)
+     */
+    private static final String SELECT_RECENT_SQL =
+        "SELECT id, project_id, message, created_at FROM ("
+            + "SELECT id, project_id, message, created_at FROM feedback "
+            + "WHERE created_at > ? AND duplicate_of IS NULL "
+            + "ORDER BY created_at DESC, id DESC LIMIT ?"
+            + ") recent ORDER BY created_at, id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream at most limit messages created after since; call inside a transaction so rows
+     * are fetched in chunks
+     */
+    public void forEachRecent(OffsetDateTime since, int limit, RecentFeedbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_RECENT_SQL);
+            statement.setObject(1, since);
+            statement.setInt(2, limit);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            Long projectId = rs.getObject("project_id", Long.class);
+            handler.accept(rs.getLong("id"), projectId, rs.getString("message"),
+                rs.getObject("created_at", OffsetDateTime.class));
+        });
+    }
+
+    @FunctionalInterface
+    public interface RecentFeedbackHandler {
+        void accept(long id, Long projectId, String message, OffsetDateTime createdAt);
+    }
+}
@@ -0,0 +1,335 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.BackfillRequest;
+import com.insightdesk.nlp.dto.BackfillStatus;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.repository.BackfillRepository;
+import com.insightdesk.nlp.repository.NlpResultRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reprocesses feedback that was never processed or was processed with another model
+ * version, as a background job that survives restarts.
+ *
+ * A job walks the feedback table by id in chunks of nlp.backfill.chunk-size rows. Each
+ * chunk runs through the NLP pipeline on the bounded backfill pool (low-priority threads,
+ * separate from the consumer's worker pool); its results, feedback-processed events and
+ * the job's checkpoint are then committed in one transaction, so a restart resumes after
+ * the last committed chunk. Throughput is capped at nlp.backfill.max-rows-per-second so
+ * live Kafka consumption keeps the database and CPU it needs.
+ *
+ * One job runs at a time across all instances. The instance running it holds a lease that
+ * each checkpoint renews; a job whose lease ran out (its instance stopped) is claimed by
+ * the next run of {@link #resumeJobs()} on any instance.
+ */
+@Service
+public class BackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillService.class);
+
+    private static final int LIST_LIMIT = 50;
+
+    /** No job running on this instance */
+    private static final long IDLE = -1;
+
+    @Autowired
+    private BackfillRepository backfillRepository;
+
+    @Autowired
+    private NlpProcessingService nlpProcessingService;
+
+    @Autowired
+    private NlpResultRepository nlpResultRepository;
+
+    @Autowired
+    private FeedbackProcessedPublisher feedbackProcessedPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConsumerBackpressure consumerBackpressure;
+
+    @Autowired
+    @Qualifier("nlpBackfillExecutor")
+    private ExecutorService nlpBackfillExecutor;
+
+    @Value("${nlp.model.version:1}")
+    private String modelVersion;
+
+    @Value("${nlp.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${nlp.backfill.max-rows-per-second:200}")
+    private double maxRowsPerSecond;
+
+    @Value("${nlp.backfill.lease-seconds:60}")
+    private long leaseSeconds;
+
+    private final String owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    /** Runs the chunk loop of the job this instance holds */
+    private final ExecutorService coordinator =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("nlp-backfill-job-"));
+
+    private final AtomicLong runningJobId = new AtomicLong(IDLE);
+
+    /**
+     * Create a job and start it on this instance.
+     * Throws IllegalArgumentException for an unknown scope, and DuplicateKeyException
+     * when another job is running.
+     */
+    public BackfillStatus start(BackfillRequest request) {
+        BackfillRequest.Scope scope = parseScope(request.getScope());
+        if (request.getCreatedFrom() != null && request.getCreatedTo() != null
+                && !request.getCreatedFrom().isBefore(request.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        long id = backfillRepository.createJob(scope, request, modelVersion);
+        logger.info("Created backfill job {}: scope={}, projectId={}, modelVersion={}",
+            id, scope, request.getProjectId(), modelVersion);
+        claimAndRun(id);
+        return backfillRepository.findJob(id);
+    }
+
+    public BackfillStatus getStatus(long id) {
+        return backfillRepository.findJob(id);
+    }
+
+    public List<BackfillStatus> listJobs() {
+        return backfillRepository.findJobs(LIST_LIMIT);
+    }
+
+    /**
+     * Stop a running job; false if it is not running
+     */
+    public boolean stop(long id) {
+        boolean stopped = backfillRepository.stop(id);
+        if (stopped) {
+            logger.info("Stopping backfill job {}", id);
+        }
+        return stopped;
+    }
+
+    /**
+     * Resume a stopped or failed job from its checkpoint; false if it is in neither state.
+     * Throws DuplicateKeyException when another job is running.
+     */
+    public boolean resume(long id) {
+        if (!backfillRepository.resume(id)) {
+            return false;
+        }
+        logger.info("Resuming backfill job {}", id);
+        claimAndRun(id);
+        return true;
+    }
+
+    /**
+     * Pick up running jobs that no instance holds, such as a job interrupted by a restart
+     */
+    @Scheduled(
+        initialDelayString = "${nlp.backfill.resume-interval-ms:30000}",
+        fixedDelayString = "${nlp.backfill.resume-interval-ms:30000}"
+    )
+    public void resumeJobs() {
+        if (runningJobId.get() != IDLE) {
+            return;
+        }
+        try {
+            for (Long id : backfillRepository.findClaimableJobIds()) {
+                if (claimAndRun(id)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not look for backfill jobs to resume: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hand the job back so another instance resumes it without waiting for the lease
+     */
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        long id = runningJobId.get();
+        if (id != IDLE) {
+            try {
+                coordinator.awaitTermination(10, TimeUnit.SECONDS);
+                backfillRepository.release(id, owner);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Could not release backfill job {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private boolean claimAndRun(long id) {
+        if (!runningJobId.compareAndSet(IDLE, id)) {
+            return false;
+        }
+        if (!backfillRepository.claim(id, owner, leaseSeconds)) {
+            runningJobId.set(IDLE);
+            return false;
+        }
+        coordinator.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                runningJobId.set(IDLE);
+            }
+        });
+        return true;
+    }
+
+    private void run(long id) {
+        BackfillStatus job = backfillRepository.findJob(id);
+        logger.info("Running backfill job {} from id {} to {} as {}", id, job.getLastId(), job.getMaxId(), owner);
+        long minChunkNanos = maxRowsPerSecond > 0 ? (long) (chunkSize * 1_000_000_000L / maxRowsPerSecond) : 0;
+        long lastId = job.getLastId();
+        try {
+            while (true) {
+                // The database is struggling with live traffic: leave it to the consumer, renewing
+                // the lease meanwhile so the job is not taken over while it waits
+                long renewed = System.nanoTime();
+                while (consumerBackpressure.isThrottling()) {
+                    TimeUnit.SECONDS.sleep(1);
+                    if (System.nanoTime() - renewed >= TimeUnit.SECONDS.toNanos(leaseSeconds) / 3) {
+                        if (!backfillRepository.claim(id, owner, leaseSeconds)) {
+                            logger.info("Backfill job {} was stopped or taken over while waiting after id {}", id, lastId);
+                            return;
+                        }
+                        renewed = System.nanoTime();
+                    }
+                }
+                long started = System.nanoTime();
+                List<FeedbackEvent> chunk = backfillRepository.findChunk(job, lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<NlpResult> results = process(chunk);
+                int failed = chunk.size() - results.size();
+                long chunkLastId = chunk.get(chunk.size() - 1).getId();
+                long writeStarted = System.nanoTime();
+                List<NlpResult> written = transactionTemplate.execute(status -> {
+                    List<NlpResult> updated = nlpResultRepository.updateResults(results);
+                    if (!backfillRepository.checkpoint(id, owner, chunkLastId, chunk.size(), updated.size(), failed, leaseSeconds)) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    // Sent once the chunk has committed
+                    for (NlpResult result : updated) {
+                        feedbackProcessedPublisher.publish(result);
+                    }
+                    return updated;
+                });
+                consumerBackpressure.recordWrite(System.nanoTime() - writeStarted);
+                if (written == null) {
+                    logger.info("Backfill job {} was stopped or taken over; discarding the chunk after id {}", id, lastId);
+                    return;
+                }
+                // Unprocessed rows are counted in the keyword document frequencies once written
+                nlpProcessingService.countDocuments(written);
+                lastId = chunkLastId;
+                logger.debug("Backfill job {}: {} of {} rows written up to id {}", id, written.size(), chunk.size(), lastId);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+
+                // Rate limit: at most max-rows-per-second on average
+                long remaining = started + minChunkNanos - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+            backfillRepository.finish(id, owner, BackfillRepository.COMPLETED, null);
+            logger.info("Backfill job {} completed", id);
+        } catch (InterruptedException e) {
+            // Shutting down: the job stays RUNNING and resumes from its checkpoint
+            Thread.currentThread().interrupt();
+            logger.info("Backfill job {} interrupted after id {}", id, lastId);
+        } catch (RuntimeException e) {
+            if (coordinator.isShutdown()) {
+                logger.info("Backfill job {} interrupted after id {}: {}", id, lastId, e.getMessage());
+                return;
+            }
+            logger.error("Backfill job {} failed after id {}: {}", id, lastId, e.getMessage(), e);
+            try {
+                backfillRepository.finish(id, owner, BackfillRepository.FAILED, e.getMessage());
+            } catch (RuntimeException finishFailure) {
+                logger.warn("Could not mark backfill job {} failed: {}", id, finishFailure.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run NLP over a chunk on the backfill pool; rows that fail are left as they are
+     */
+    private List<NlpResult> process(List<FeedbackEvent> chunk) throws InterruptedException {
+        List<Future<NlpResult>> futures = new ArrayList<>(chunk.size());
+        for (FeedbackEvent event : chunk) {
+            futures.add(nlpBackfillExecutor.submit(
+                () -> nlpProcessingService.processFeedback(event, Boolean.TRUE.equals(event.getProcessed()))));
+        }
+        List<NlpResult> results = new ArrayList<>(chunk.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.error("Error reprocessing feedback: id={}, error={}",
+                        chunk.get(i).getId(), e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            for (Future<NlpResult> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    private BackfillRequest.Scope parseScope(String scope) {
+        if (scope == null) {
+            return BackfillRequest.Scope.UNPROCESSED;
+        }
+        try {
+            return BackfillRequest.Scope.valueOf(scope.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown backfill scope: " + scope + " (expected unprocessed, stale or all)");
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.insightdesk.nlp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scales the feedback listener's concurrency and the NLP worker pool with the backlog.
+ *
+ * Every nlp.autoscale.interval-ms the consumer group's lag on the feedback topic is read
+ * with the admin client, and the throughput and batch latency of the interval are taken
+ * from the batches the listener reported. {@link ScalingPolicy} decides the concurrency;
+ * the worker pool is resized with it. Changing the concurrency restarts this instance's
+ * listener container, which rejoins the group; with cooperative-sticky assignment only
+ * the partitions that move are revoked, and other instances keep consuming. A cooldown
+ * keeps rebalances apart.
+ *
+ * The lag is that of the whole group, so with several instances each one sees the total:
+ * set nlp.autoscale.max-concurrency with the instance count in mind.
+ *
+ * Metrics: nlp.consumer.lag, nlp.consumer.concurrency, nlp.worker.pool.size,
+ * nlp.consumer.batch.duration and nlp.consumer.scaling (tagged direction=up|down).
+ */
+@Component
+public class ConsumerAutoscaler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerAutoscaler.class);
+
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+
+    @Value("${nlp.autoscale.enabled:true}")
+    private boolean enabled;
+
+    @Value("${nlp.autoscale.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${nlp.autoscale.max-concurrency:6}")
+    private int maxConcurrency;
+
+    @Value("${nlp.autoscale.min-workers:2}")
+    private int minWorkers;
+
+    /** 0 = one per available processor */
+    @Value("${nlp.autoscale.max-workers:0}")
+    private int maxWorkers;
+
+    @Value("${nlp.autoscale.target-drain-seconds:120}")
+    private double targetDrainSeconds;
+
+    @Value("${nlp.autoscale.scale-down-lag:1000}")
+    private long scaleDownLag;
+
+    @Value("${nlp.autoscale.scale-down-intervals:4}")
+    private int scaleDownIntervals;
+
+    @Value("${nlp.autoscale.max-batch-latency-ms:15000}")
+    private double maxBatchLatencyMs;
+
+    @Value("${nlp.autoscale.cooldown-ms:60000}")
+    private long cooldownMs;
+
+    @Value("${feedback.kafka.topic}")
+    private String topic;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Autowired
+    @Qualifier("consumerAdminClient")
+    private AdminClient adminClient;
+
+    @Autowired
+    @Qualifier("nlpWorkerExecutor")
+    private ThreadPoolExecutor nlpWorkerExecutor;
+
+    @Autowired
+    private ConsumerBackpressure consumerBackpressure;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ScalingPolicy policy;
+
+    private final LongAdder batchRecords = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private long lastDecisionNanos = System.nanoTime();
+    private long lastChangeNanos;
+
+    private final AtomicLong lag = new AtomicLong();
+    private final AtomicBoolean restarting = new AtomicBoolean();
+
+    private Timer batchDuration;
+    private Counter scaledUp;
+    private Counter scaledDown;
+
+    @PostConstruct
+    public void init() {
+        int upperWorkers = maxWorkers > 0 ? maxWorkers : Runtime.getRuntime().availableProcessors();
+        policy = new ScalingPolicy(minConcurrency, maxConcurrency, Math.min(minWorkers, upperWorkers), upperWorkers,
+            targetDrainSeconds, scaleDownLag, maxBatchLatencyMs, scaleDownIntervals);
+        lastChangeNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+
+        Gauge.builder("nlp.consumer.lag", lag, AtomicLong::get)
+            .description("Records of the feedback topic not yet committed by the consumer group")
+            .register(meterRegistry);
+        Gauge.builder("nlp.consumer.concurrency", this, autoscaler -> autoscaler.concurrency())
+            .description("Listener threads of the feedback consumer on this instance")
+            .register(meterRegistry);
+        Gauge.builder("nlp.worker.pool.size", nlpWorkerExecutor, ThreadPoolExecutor::getCorePoolSize)
+            .description("Threads of the NLP worker pool")
+            .register(meterRegistry);
+        batchDuration = Timer.builder("nlp.consumer.batch.duration")
+            .description("Time to process and write a batch of feedback events")
+            .register(meterRegistry);
+        scaledUp = Counter.builder("nlp.consumer.scaling").tag("direction", "up")
+            .description("Concurrency changes of the feedback consumer")
+            .register(meterRegistry);
+        scaledDown = Counter.builder("nlp.consumer.scaling").tag("direction", "down")
+            .description("Concurrency changes of the feedback consumer")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Report a processed batch; called by the listener
+     */
+    public void recordBatch(int records, long nanos) {
+        batchRecords.add(records);
+        batchNanos.add(nanos);
+        batches.increment();
+        batchDuration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Scheduled(
+        initialDelayString = "${nlp.autoscale.interval-ms:15000}",
+        fixedDelayString = "${nlp.autoscale.interval-ms:15000}"
+    )
+    public void scale() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastDecisionNanos) / 1e9);
+        lastDecisionNanos = now;
+        long records = batchRecords.sumThenReset();
+        long nanos = batchNanos.sumThenReset();
+        long batchCount = batches.sumThenReset();
+
+        TopicLag topicLag;
+        try {
+            topicLag = fetchLag();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Could not read consumer lag of {} on {}: {}", groupId, topic, e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        lag.set(topicLag.total());
+
+        ConcurrentMessageListenerContainer<?, ?> container = container();
+        // Throughput while partitions are paused for the database says nothing about capacity
+        if (!enabled || container == null || !container.isRunning() || restarting.get()
+                || consumerBackpressure.isThrottling()) {
+            return;
+        }
+        int current = container.getConcurrency();
+        double recordsPerSecond = records / seconds;
+        double batchLatencyMs = batchCount == 0 ? 0 : nanos / 1e6 / batchCount;
+        int target = policy.decide(current, topicLag.partitions(), topicLag.total(), recordsPerSecond, batchLatencyMs);
+        if (target == current) {
+            resizeWorkers(policy.workersFor(current, topicLag.partitions()));
+            return;
+        }
+        if (now - lastChangeNanos < TimeUnit.MILLISECONDS.toNanos(cooldownMs)) {
+            logger.debug("Scaling feedback consumer to {} deferred: in cooldown", target);
+            return;
+        }
+
+        lastChangeNanos = now;
+        logger.info("Scaling feedback consumer from {} to {} listeners: lag={}, {} records/s, {} ms per batch",
+            current, target, topicLag.total(), Math.round(recordsPerSecond), Math.round(batchLatencyMs));
+        (target > current ? scaledUp : scaledDown).increment();
+        // More workers before more listeners, fewer listeners before fewer workers
+        if (target > current) {
+            resizeWorkers(policy.workersFor(target, topicLag.partitions()));
+        }
+        restart(container, target, topicLag.partitions());
+    }
+
+    /**
+     * Listener threads currently configured
+     */
+    public int concurrency() {
+        ConcurrentMessageListenerContainer<?, ?> container = container();
+        return container == null ? 0 : container.getConcurrency();
+    }
+
+    /**
+     * Stop the container (in-flight batches finish and commit), then start it with the
+     * new concurrency
+     */
+    private void restart(ConcurrentMessageListenerContainer<?, ?> container, int concurrency, int partitions) {
+        restarting.set(true);
+        container.stop(() -> {
+            try {
+                container.setConcurrency(concurrency);
+                container.start();
+                resizeWorkers(policy.workersFor(concurrency, partitions));
+            } catch (RuntimeException e) {
+                logger.error("Could not restart feedback consumer with {} listeners: {}", concurrency, e.getMessage(), e);
+            } finally {
+                restarting.set(false);
+            }
+        });
+    }
+
+    private void resizeWorkers(int workers) {
+        if (workers == nlpWorkerExecutor.getCorePoolSize()) {
+            return;
+        }
+        logger.info("Resizing NLP worker pool from {} to {} threads", nlpWorkerExecutor.getCorePoolSize(), workers);
+        if (workers > nlpWorkerExecutor.getMaximumPoolSize()) {
+            nlpWorkerExecutor.setMaximumPoolSize(workers);
+            nlpWorkerExecutor.setCorePoolSize(workers);
+        } else {
+            nlpWorkerExecutor.setCorePoolSize(workers);
+            nlpWorkerExecutor.setMaximumPoolSize(workers);
+        }
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> container() {
+        MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(FeedbackConsumerService.LISTENER_ID);
+        return container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent ? concurrent : null;
+    }
+
+    /**
+     * Lag of the group over all partitions of the topic. A partition without a committed
+     * offset counts from its log start, as auto.offset.reset=earliest consumes it, and so
+     * does one whose committed offset has been deleted by retention.
+     */
+    private TopicLag fetchLag() throws ExecutionException, InterruptedException, TimeoutException {
+        TopicDescription description = adminClient.describeTopics(List.of(topic)).allTopicNames()
+            .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).get(topic);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+        for (TopicPartitionInfo partition : description.partitions()) {
+            TopicPartition topicPartition = new TopicPartition(topic, partition.partition());
+            latest.put(topicPartition, OffsetSpec.latest());
+            earliest.put(topicPartition, OffsetSpec.earliest());
+        }
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = adminClient.listOffsets(latest).all()
+            .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> starts = adminClient.listOffsets(earliest).all()
+            .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        long total = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : ends.entrySet()) {
+            OffsetAndMetadata offset = committed.get(end.getKey());
+            long from = Math.max(offset == null ? 0 : offset.offset(), starts.get(end.getKey()).offset());
+            total += Math.max(0, end.getValue().offset() - from);
+        }
+        return new TopicLag(description.partitions().size(), total);
+    }
+
+    private record TopicLag(int partitions, long total) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.insightdesk.nlp.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pauses the feedback consumer's partitions while Postgres is struggling, and resumes them
+ * gradually once it recovers.
+ *
+ * Every nlp.backpressure.interval-ms the mean time of the result writes reported in the
+ * interval, and the connection pool's waiting threads, are checked. When writes are slower
+ * than pause-latency-ms, or more than max-pending-connections threads wait for a
+ * connection, every assigned partition is paused. The consumer keeps polling while paused,
+ * so it stays in the group: there are no max.poll.interval.ms rebalances while the
+ * database is slow. Batches already running finish.
+ *
+ * Once writes are back under resume-latency-ms and the pool has no queue (and the pause
+ * lasted at least min-pause-ms), partitions are resumed one per ramp-interval-ms. Each
+ * resumed partition doubles as a probe: if its writes are slow again, everything is
+ * paused again.
+ *
+ * Metrics: nlp.db.write.duration, nlp.backpressure.paused.partitions, nlp.backpressure.pauses.
+ */
+@Component
+public class ConsumerBackpressure {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerBackpressure.class);
+
+    @Value("${nlp.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${nlp.backpressure.pause-latency-ms:2000}")
+    private long pauseLatencyMs;
+
+    @Value("${nlp.backpressure.resume-latency-ms:500}")
+    private long resumeLatencyMs;
+
+    @Value("${nlp.backpressure.max-pending-connections:2}")
+    private int maxPendingConnections;
+
+    @Value("${nlp.backpressure.min-pause-ms:5000}")
+    private long minPauseMs;
+
+    @Value("${nlp.backpressure.ramp-interval-ms:5000}")
+    private long rampIntervalMs;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final AtomicInteger pausedPartitions = new AtomicInteger();
+
+    private volatile boolean throttling;
+    private long pausedAtNanos;
+    private long lastResumeNanos;
+
+    private Timer writeDuration;
+    private Counter pauses;
+
+    @PostConstruct
+    public void init() {
+        writeDuration = Timer.builder("nlp.db.write.duration")
+            .description("Time to write a batch of NLP results")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        pauses = Counter.builder("nlp.backpressure.pauses")
+            .description("Times the feedback consumer paused its partitions for the database")
+            .register(meterRegistry);
+        Gauge.builder("nlp.backpressure.paused.partitions", pausedPartitions, AtomicInteger::get)
+            .description("Partitions of the feedback consumer paused for the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Report a result write; called by the listener and the backfill
+     */
+    public void recordWrite(long nanos) {
+        writeNanos.add(nanos);
+        writes.increment();
+        writeDuration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Whether partitions are paused or being resumed; other database work (the backfill)
+     * should wait meanwhile
+     */
+    public boolean isThrottling() {
+        return throttling;
+    }
+
+    @Scheduled(fixedDelayString = "${nlp.backpressure.interval-ms:1000}")
+    public void adjust() {
+        long count = writes.sumThenReset();
+        long nanos = writeNanos.sumThenReset();
+        MessageListenerContainer container =
+            kafkaListenerEndpointRegistry.getListenerContainer(FeedbackConsumerService.LISTENER_ID);
+        if (!enabled || container == null || !container.isRunning()) {
+            return;
+        }
+
+        double latencyMs = count == 0 ? 0 : nanos / 1e6 / count;
+        int pending = pendingConnections();
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null) {
+            return;
+        }
+        List<TopicPartition> paused = new ArrayList<>();
+        List<TopicPartition> active = new ArrayList<>();
+        for (TopicPartition partition : assigned) {
+            (container.isPartitionPauseRequested(partition) ? paused : active).add(partition);
+        }
+
+        switch (step(latencyMs, pending, active.size(), paused.size(), System.nanoTime())) {
+            case PAUSE_ALL -> {
+                logger.warn("Database under pressure ({} ms per write, {} threads waiting for a connection): pausing {} partitions",
+                    Math.round(latencyMs), pending, active.size());
+                active.forEach(container::pausePartition);
+                pauses.increment();
+                paused.addAll(active);
+            }
+            case RESUME_ONE -> {
+                TopicPartition partition = paused.remove(paused.size() - 1);
+                container.resumePartition(partition);
+                logger.info("Resuming partition {} ({} still paused)", partition, paused.size());
+            }
+            case HOLD -> {
+            }
+        }
+        pausedPartitions.set(paused.size());
+        throttling = !paused.isEmpty();
+    }
+
+    /**
+     * What to do with the partitions after an interval with the given mean write latency,
+     * threads waiting for a connection, and active and paused partition counts. Pressure
+     * pauses everything and restarts the minimum pause; once the database has recovered,
+     * one partition is resumed per ramp interval.
+     */
+    Step step(double latencyMs, int pending, int active, int paused, long now) {
+        if (latencyMs > pauseLatencyMs || pending > maxPendingConnections) {
+            pausedAtNanos = now;
+            return active > 0 ? Step.PAUSE_ALL : Step.HOLD;
+        }
+        // No writes in the interval is no sign of trouble: with everything paused there are none
+        boolean recovered = latencyMs < resumeLatencyMs && pending == 0;
+        if (paused > 0 && recovered
+                && now - pausedAtNanos >= TimeUnit.MILLISECONDS.toNanos(minPauseMs)
+                && now - lastResumeNanos >= TimeUnit.MILLISECONDS.toNanos(rampIntervalMs)) {
+            lastResumeNanos = now;
+            return Step.RESUME_ONE;
+        }
+        return Step.HOLD;
+    }
+
+    /**
+     * Threads waiting for a pooled connection; 0 if the pool is not Hikari or not started
+     */
+    private int pendingConnections() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        }
+        return 0;
+    }
+
+    enum Step {
+        PAUSE_ALL, RESUME_ONE, HOLD
+    }
+}
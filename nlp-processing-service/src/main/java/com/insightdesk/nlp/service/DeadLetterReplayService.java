@@ -0,0 +1,265 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.nlp.dto.DeadLetterReplayStatus;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays dead letters into feedback-events once the cause of their failure is fixed.
+ *
+ * A replay reads the dead-letter topic in its own consumer group, from the last replayed
+ * offset up to the end offsets taken when it starts, so events that fail again and come
+ * back are not replayed twice in one run. Each event is sent to the main topic with its
+ * key and value but none of the retry headers, so it gets the full set of retries again;
+ * the group's offsets are committed after each poll, once those sends are acknowledged.
+ * Throughput is capped at the requested rate so a replay does not swamp live traffic.
+ *
+ * Undecodable dead letters are replayed too (for a fix to the event format), unless
+ * skipUndecodable is set; skipped ones are committed past and not replayed again.
+ */
+@Service
+public class DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final long SEND_TIMEOUT_MS = 30000;
+
+    @Value("${feedback.kafka.topic}")
+    private String topic;
+
+    @Value("${nlp.dlt.replay.group-id:nlp-dlt-replay}")
+    private String groupId;
+
+    @Value("${nlp.dlt.replay.max-records-per-second:50}")
+    private double defaultRatePerSecond;
+
+    @Autowired
+    @Qualifier("deadLetterConsumerFactory")
+    private ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+
+    @Autowired
+    @Qualifier("deadLetterKafkaTemplate")
+    private KafkaTemplate<String, byte[]> deadLetterKafkaTemplate;
+
+    @Autowired
+    private FeedbackRetryRouter feedbackRetryRouter;
+
+    private final ExecutorService executor =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("nlp-dlt-replay-"));
+
+    private DeadLetterReplayStatus status = new DeadLetterReplayStatus();
+
+    private volatile boolean stopRequested;
+
+    /**
+     * Start a replay of at most maxRecords dead letters (all when null) at ratePerSecond
+     * (the configured rate when null); false if one is already running
+     */
+    public synchronized boolean start(Long maxRecords, Double ratePerSecond, boolean skipUndecodable) {
+        if (status.isRunning()) {
+            return false;
+        }
+        double rate = ratePerSecond == null ? defaultRatePerSecond : ratePerSecond;
+        if (rate <= 0 || (maxRecords != null && maxRecords <= 0)) {
+            throw new IllegalArgumentException("maxRecords and ratePerSecond must be positive");
+        }
+        status = new DeadLetterReplayStatus();
+        status.setRunning(true);
+        status.setMaxRecords(maxRecords);
+        status.setRatePerSecond(rate);
+        status.setStartedAt(OffsetDateTime.now());
+        stopRequested = false;
+        logger.info("Replaying dead letters of {}: maxRecords={}, ratePerSecond={}, skipUndecodable={}",
+            topic, maxRecords, rate, skipUndecodable);
+        executor.execute(() -> replay(maxRecords == null ? Long.MAX_VALUE : maxRecords, rate, skipUndecodable));
+        return true;
+    }
+
+    /**
+     * Stop the running replay after the event being sent; false if none is running
+     */
+    public synchronized boolean stop() {
+        if (!status.isRunning()) {
+            return false;
+        }
+        stopRequested = true;
+        return true;
+    }
+
+    /**
+     * The latest replay, with the dead letters not yet replayed
+     */
+    public DeadLetterReplayStatus getStatus() {
+        long pending = pending();
+        synchronized (this) {
+            status.setPending(pending);
+            return status;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        executor.shutdownNow();
+    }
+
+    private void replay(long maxRecords, double rate, boolean skipUndecodable) {
+        long nanosPerRecord = (long) (1_000_000_000L / rate);
+        long replayed = 0;
+        long skipped = 0;
+        String error = null;
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer(groupId, null)) {
+            List<TopicPartition> partitions = partitions(consumer);
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Set<TopicPartition> remaining = new HashSet<>();
+            for (TopicPartition partition : partitions) {
+                if (consumer.position(partition) < endOffsets.get(partition)) {
+                    remaining.add(partition);
+                } else {
+                    consumer.pause(Set.of(partition));
+                }
+            }
+
+            long next = System.nanoTime();
+            while (!remaining.isEmpty() && !stopRequested && replayed + skipped < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (!remaining.contains(partition) || stopRequested || replayed + skipped >= maxRecords) {
+                        continue;
+                    }
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        // Dead-lettered after the replay started
+                        remaining.remove(partition);
+                        consumer.pause(Set.of(partition));
+                        continue;
+                    }
+
+                    if (skipUndecodable && isUndecodable(record)) {
+                        skipped++;
+                    } else {
+                        // Rate limit: at most ratePerSecond on average
+                        long wait = next - System.nanoTime();
+                        if (wait > 0) {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        }
+                        next = Math.max(next, System.nanoTime() - nanosPerRecord) + nanosPerRecord;
+                        deadLetterKafkaTemplate.send(new ProducerRecord<>(topic, record.key(), record.value()))
+                            .get(SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                        replayed++;
+                    }
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    if (record.offset() + 1 >= endOffsets.get(partition)) {
+                        remaining.remove(partition);
+                        consumer.pause(Set.of(partition));
+                    }
+                }
+                if (!offsets.isEmpty()) {
+                    consumer.commitSync(offsets);
+                }
+                updateProgress(replayed, skipped);
+            }
+            logger.info("Dead-letter replay {}: {} replayed, {} skipped",
+                stopRequested ? "stopped" : "finished", replayed, skipped);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+            logger.info("Dead-letter replay interrupted after {} events", replayed);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            error = e.getMessage();
+            logger.error("Dead-letter replay failed after {} events: {}", replayed, e.getMessage(), e);
+        } finally {
+            finish(replayed, skipped, error);
+        }
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, byte[]> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        List<PartitionInfo> infos = consumer.partitionsFor(feedbackRetryRouter.deadLetterTopic());
+        if (infos != null) {
+            for (PartitionInfo info : infos) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Dead letters not yet replayed: end offsets minus the replay group's committed offsets
+     * (or the log start, for partitions it never read)
+     */
+    private long pending() {
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer(groupId, null)) {
+            List<TopicPartition> partitions = partitions(consumer);
+            if (partitions.isEmpty()) {
+                return 0;
+            }
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            long pending = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                long from = Math.max(offset == null ? 0 : offset.offset(), beginningOffsets.get(partition));
+                pending += Math.max(0, endOffsets.get(partition) - from);
+            }
+            return pending;
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the dead-letter backlog: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private static boolean isUndecodable(ConsumerRecord<String, byte[]> record) {
+        Header failureType = record.headers().lastHeader(FeedbackRetryRouter.FAILURE_TYPE_HEADER);
+        return record.value() == null || (failureType != null
+            && DeserializationException.class.getSimpleName().equals(new String(failureType.value(), StandardCharsets.UTF_8)));
+    }
+
+    private synchronized void updateProgress(long replayed, long skipped) {
+        status.setReplayed(replayed);
+        status.setSkipped(skipped);
+    }
+
+    private synchronized void finish(long replayed, long skipped, String error) {
+        updateProgress(replayed, skipped);
+        status.setError(error);
+        status.setFinishedAt(OffsetDateTime.now());
+        status.setRunning(false);
+    }
+}
@@ -0,0 +1,110 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.nlp.repository.DocumentFrequencyRepository;
+import com.insightdesk.nlp.text.DocumentFrequencies;
+import com.insightdesk.nlp.text.TermDictionary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Persists the in-memory keyword document frequencies and loads them back at startup,
+ * so a restarted consumer ranks keywords against the corpus seen so far.
+ *
+ * Only the counts added since the previous snapshot are written (and added to the stored
+ * counts). A failed snapshot keeps its counts pending for the next run. Messages are
+ * counted once their result is written, so redeliveries are not counted again; counts
+ * added after the last snapshot are lost only if the service dies without its shutdown
+ * snapshot.
+ */
+@Component
+public class DocumentFrequencySnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentFrequencySnapshots.class);
+
+    @Autowired
+    private DocumentFrequencies documentFrequencies;
+
+    @Autowired
+    private DocumentFrequencyRepository documentFrequencyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Load the stored counts before the listener containers start. If the snapshot cannot be
+     * read, the service starts with an empty corpus rather than failing.
+     */
+    @PostConstruct
+    public void warmUp() {
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                documentFrequencyRepository.forEachDocumentCount((projectId, documents) ->
+                    documentFrequencies.project(projectId).loadDocuments(documents));
+
+                TermDictionary terms = documentFrequencies.terms();
+                documentFrequencyRepository.forEachTermFrequency((projectId, term, documents) -> {
+                    int termId = terms.intern(term);
+                    if (termId != TermDictionary.NO_TERM) {
+                        documentFrequencies.project(projectId).loadTerm(termId, (int) Math.min(documents, Integer.MAX_VALUE));
+                    }
+                });
+            });
+            logger.info("Loaded keyword document frequencies: {} projects, {} terms in {} ms",
+                documentFrequencies.projectIds().size(), documentFrequencies.terms().size(),
+                (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Could not load keyword document frequencies, starting with an empty corpus: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write the counts added since the last snapshot, one transaction per project
+     */
+    @Scheduled(
+        fixedDelayString = "${nlp.keywords.snapshot-interval-ms:60000}",
+        initialDelayString = "${nlp.keywords.snapshot-interval-ms:60000}"
+    )
+    public void snapshot() {
+        int written = 0;
+        for (Long projectId : documentFrequencies.projectIds()) {
+            DocumentFrequencies.ProjectFrequencies project = documentFrequencies.project(projectId);
+            DocumentFrequencies.Delta delta = project.drainPending();
+            if (delta == null) {
+                continue;
+            }
+            try {
+                String[] terms = new String[delta.documentFrequencies().size()];
+                int[] frequencies = new int[terms.length];
+                int[] count = {0};
+                delta.documentFrequencies().forEach((termId, frequency) -> {
+                    terms[count[0]] = documentFrequencies.terms().term(termId);
+                    frequencies[count[0]++] = frequency;
+                });
+                transactionTemplate.executeWithoutResult(status ->
+                    documentFrequencyRepository.addCounts(projectId, delta.documents(), terms, frequencies));
+                written++;
+            } catch (RuntimeException e) {
+                project.restorePending(delta);
+                logger.warn("Keyword document frequencies of project {} not saved, will retry: {}", projectId, e.getMessage());
+            }
+        }
+        if (written > 0) {
+            logger.debug("Saved keyword document frequencies of {} projects", written);
+        }
+    }
+
+    /**
+     * Save what is pending on shutdown
+     */
+    @PreDestroy
+    public void flush() {
+        snapshot();
+    }
+}
@@ -1,78 +1,186 @@
 package com.insightdesk.nlp.service;
 
-import com.insightdesk.nlp.dto.FeedbackEvent;
-import com.insightdesk.nlp.entity.Feedback;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
 import com.insightdesk.nlp.repository.FeedbackRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class FeedbackConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(FeedbackConsumerService.class);
 
+    /** Id of the listener container, looked up by {@link ConsumerAutoscaler} */
+    public static final String LISTENER_ID = "nlp-feedback-consumer";
+
+    private static final String ORDER_BY_PROJECT = "project";
+
     @Autowired
     private FeedbackRepository feedbackRepository;
 
     @Autowired
     private NlpProcessingService nlpProcessingService;
 
+    @Autowired
+    private FeedbackResultWriter feedbackResultWriter;
+
+    @Autowired
+    private FeedbackRetryRouter feedbackRetryRouter;
+
+    @Autowired
+    private KeyOrderedExecutor keyOrderedExecutor;
+
+    @Autowired
+    private ConsumerAutoscaler consumerAutoscaler;
+
+    @Value("${nlp.processing.ordering-key:id}")
+    private String orderingKey;
+
+    @Value("${nlp.processing.batch-timeout-ms:30000}")
+    private long batchTimeoutMs;
+
+    @Value("${nlp.processing.nack-sleep-ms:1000}")
+    private long nackSleepMs;
+
     /**
-     * Consumes feedback events from Kafka topic
+     * Consumes feedback events from Kafka topic, one poll batch at a time.
+     *
+     * NLP runs on the worker pool in key-ordered lanes (see {@link KeyOrderedExecutor}):
+     * events with the same key are processed in offset order, unrelated events in parallel.
+     * The results of every event that finished before the deadline are written in one
+     * transaction, and offsets are committed up to the last event of the contiguous
+     * completed prefix; anything after it is redelivered by nack, and the idempotency check
+     * then skips the events already written. Events of that prefix whose NLP failed, or
+     * that cannot be decoded, are first forwarded to a retry topic or the dead-letter topic
+     * (see {@link FeedbackRetryRouter}), so one bad event neither blocks its partition nor
+     * is lost; so are events whose result row the database rejects.
+     * If the transaction or a forward fails otherwise, the exception goes to the container's
+     * error handler, which retries the whole batch with backoff and dead-letters it if the
+     * failure outlasts the backoff (see KafkaConsumerConfig#feedbackErrorHandler); nothing
+     * is committed meanwhile.
      */
     @KafkaListener(
+        id = LISTENER_ID,
         topics = "${feedback.kafka.topic}",
         groupId = "${spring.kafka.consumer.group-id}",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    @Transactional
-    public void consumeFeedback(
-            @Payload FeedbackEvent feedbackEvent,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            logger.info("Received feedback event: id={}, partition={}, offset={}", 
-                feedbackEvent.getId(), partition, offset);
-
-            // Check if feedback exists and is already processed (idempotency)
-            Optional<Feedback> existingFeedback = feedbackRepository.findById(feedbackEvent.getId());
-            if (existingFeedback.isPresent() && Boolean.TRUE.equals(existingFeedback.get().getProcessed())) {
-                logger.info("Feedback {} already processed. Skipping.", feedbackEvent.getId());
-                acknowledgment.acknowledge();
-                return;
+    public void consumeFeedback(List<ConsumerRecord<String, FeedbackEvent>> records, Acknowledgment acknowledgment) {
+        long started = System.nanoTime();
+        ConsumerRecord<String, FeedbackEvent> first = records.get(0);
+        logger.info("Received {} feedback events: partition={}, offset={}",
+            records.size(), first.partition(), first.offset());
+
+        List<NlpResult> results = new ArrayList<>(records.size());
+        Map<Integer, Exception> failures = new ConcurrentHashMap<>();
+        int completed = processBatch(records, results, failures);
+
+        Map<Long, Exception> rejected = new HashMap<>();
+        int updated = feedbackResultWriter.write(results, rejected);
+        FeedbackResultWriter.addRejected(records, rejected, failures);
+        feedbackRetryRouter.forward(records, failures, completed);
+
+        // Commit offsets only once the results have been committed and the failures forwarded,
+        // and only up to the completed prefix
+        if (completed == records.size()) {
+            acknowledgment.acknowledge();
+        } else {
+            logger.warn("Feedback batch not finished in time: committing {} of {} events, redelivering from offset {}",
+                completed, records.size(), records.get(completed).offset());
+            acknowledgment.nack(completed, Duration.ofMillis(nackSleepMs));
+        }
+
+        consumerAutoscaler.recordBatch(completed, System.nanoTime() - started);
+        logger.info("Processed feedback batch: {} of {} events updated", updated, records.size());
+    }
+
+    /**
+     * Run NLP over the batch. Results of all completed records are added to results and
+     * processing errors to failures, by record index; the returned value is the length of
+     * the contiguous completed prefix.
+     */
+    private int processBatch(List<ConsumerRecord<String, FeedbackEvent>> records, List<NlpResult> results,
+                             Map<Integer, Exception> failures) {
+        List<Long> ids = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, FeedbackEvent> record : records) {
+            if (record.value() != null && record.value().getId() != null) {
+                ids.add(record.value().getId());
             }
+        }
+
+        // One query for the idempotency check of the whole batch
+        Set<Long> alreadyProcessed = ids.isEmpty()
+            ? Set.of()
+            : new HashSet<>(feedbackRepository.findProcessedIds(ids));
 
+        // Indexes of the records that need NLP
+        List<Integer> pending = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            FeedbackEvent event = records.get(i).value();
+            if (event == null || event.getId() == null) {
+                // Forwarded to the dead-letter topic once the batch is written
+                logger.warn("Undecodable feedback event: partition={}, offset={}",
+                    records.get(i).partition(), records.get(i).offset());
+            } else if (alreadyProcessed.contains(event.getId())) {
+                logger.info("Feedback {} already processed. Skipping.", event.getId());
+            } else {
+                pending.add(i);
+            }
+        }
+
+        KeyOrderedExecutor.LaneResults<NlpResult> laneResults = keyOrderedExecutor.process(pending,
+            index -> orderingKey(records.get(index).value()),
+            index -> process(index, records.get(index).value(), failures),
+            Duration.ofMillis(batchTimeoutMs));
+
+        // A record is done if it needed no NLP, or its lane reached it before the deadline.
+        // Lanes keep each key in order, so a completed record never overtakes an unfinished
+        // one of its key
+        for (int j = 0; j < pending.size(); j++) {
+            if (laneResults.isCompleted(j) && laneResults.get(j) != null) {
+                results.add(laneResults.get(j));
+            }
+        }
+        int prefix = laneResults.completedPrefix();
+        return prefix == pending.size() ? records.size() : pending.get(prefix);
+    }
+
+    private NlpResult process(int index, FeedbackEvent event, Map<Integer, Exception> failures) {
+        try {
             // Process the feedback with NLP
-            Feedback processedFeedback = nlpProcessingService.processFeedback(feedbackEvent);
-            
-            // Save/update in database
-            feedbackRepository.save(processedFeedback);
-            
-            logger.info("Successfully processed and updated feedback: id={}, category={}, processed={}", 
-                processedFeedback.getId(), processedFeedback.getCategory(), processedFeedback.getProcessed());
-
-            // Acknowledge message after successful processing
-            acknowledgment.acknowledge();
-            
+            return nlpProcessingService.processFeedback(event);
         } catch (Exception e) {
-            logger.error("Error processing feedback: id={}, error={}", 
-                feedbackEvent.getId(), e.getMessage(), e);
-            
-            // For now, acknowledge to avoid infinite retries
-            // In production, you might want to implement DLQ (Dead Letter Queue)
-            acknowledgment.acknowledge();
+            // Retried from a retry topic rather than failing the whole batch
+            logger.error("Error processing feedback: id={}, error={}", event.getId(), e.getMessage(), e);
+            failures.put(index, e);
+            return null;
+        }
+    }
+
+    /**
+     * Key whose events must be processed in order: the feedback id, or the project when
+     * nlp.processing.ordering-key=project (events without a project fall back to their id)
+     */
+    private Object orderingKey(FeedbackEvent event) {
+        if (ORDER_BY_PROJECT.equalsIgnoreCase(orderingKey) && event.getProjectId() != null) {
+            return event.getProjectId();
         }
+        return event.getId();
     }
 }
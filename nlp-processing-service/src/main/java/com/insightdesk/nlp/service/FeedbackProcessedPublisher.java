@@ -0,0 +1,72 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.text.SentimentScorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes a feedback-processed event for every processed item, keyed by feedback id.
+ *
+ * Events are sent only after the processing transaction commits. Sending earlier would
+ * let feedback-service evict and immediately re-cache the pre-NLP row.
+ */
+@Service
+public class FeedbackProcessedPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackProcessedPublisher.class);
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private KafkaTemplate<String, FeedbackEvent> kafkaTemplate;
+
+    @Value("${feedback.kafka.processed-topic}")
+    private String processedTopic;
+
+    /**
+     * Queue a processed item; it is sent once the current transaction commits
+     */
+    public void publish(NlpResult result) {
+        applicationEventPublisher.publishEvent(new FeedbackProcessed(toEvent(result)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void send(FeedbackProcessed processed) {
+        FeedbackEvent event = processed.event();
+        kafkaTemplate.send(processedTopic, String.valueOf(event.getId()), event)
+            .whenComplete((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Unable to publish feedback-processed event: [id={}] due to: {}",
+                        event.getId(), ex.getMessage());
+                }
+            });
+    }
+
+    private FeedbackEvent toEvent(NlpResult result) {
+        FeedbackEvent event = new FeedbackEvent();
+        event.setId(result.getId());
+        event.setCategory(result.getCategory());
+        event.setSentimentScore(SentimentScorer.toNumeric(result.getSentimentScore()));
+        event.setKeywords(result.getKeywords());
+        event.setEntities(result.getEntities());
+        event.setProcessed(true);
+        event.setUpdatedAt(result.getUpdatedAt());
+        return event;
+    }
+
+    /**
+     * Application event carrying a processed item until the transaction commits
+     */
+    public record FeedbackProcessed(FeedbackEvent event) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.repository.NlpResultRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the NLP results of a batch in one transaction and queues their feedback-processed
+ * events; shared by the feedback listener and the retry listeners. Once the transaction has
+ * committed, the rows it wrote are counted in the keyword document frequencies, so results
+ * written again after a retry or redelivery (already processed) are not counted twice.
+ * Write times are reported to {@link ConsumerBackpressure}.
+ *
+ * A row the database rejects (a constraint or value out of range) or that cannot be
+ * serialized fails the whole transaction, so the batch is split in halves and each half
+ * written on its own until the rejected rows are isolated; the others are written, and the
+ * rejected ones are returned to the caller to forward to the dead-letter topic. Any other
+ * failure (database unavailable, timeout) propagates, and the batch is retried.
+ */
+@Service
+public class FeedbackResultWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackResultWriter.class);
+
+    @Autowired
+    private NlpResultRepository nlpResultRepository;
+
+    @Autowired
+    private FeedbackProcessedPublisher feedbackProcessedPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConsumerBackpressure consumerBackpressure;
+
+    @Autowired
+    private NlpProcessingService nlpProcessingService;
+
+    /**
+     * Write the results; returns the number of rows updated. Results whose row was
+     * rejected are added to rejected by feedback id. If the transaction fails for any other
+     * reason the exception propagates, so the caller's batch is redelivered.
+     */
+    public int write(List<NlpResult> results, Map<Long, Exception> rejected) {
+        // Latest result per id; a redelivered duplicate within the batch is written once
+        Map<Long, NlpResult> latest = new LinkedHashMap<>();
+        for (NlpResult result : results) {
+            latest.put(result.getId(), result);
+        }
+
+        // Slow writes pause the partitions (see ConsumerBackpressure); failed ones count too
+        long started = System.nanoTime();
+        try {
+            List<NlpResult> written = new ArrayList<>(latest.size());
+            writeOrSplit(new ArrayList<>(latest.values()), written, rejected);
+            nlpProcessingService.countDocuments(written);
+            return written.size();
+        } finally {
+            consumerBackpressure.recordWrite(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Add the rejected results to a batch's failures, under the index of their record
+     */
+    public static void addRejected(List<ConsumerRecord<String, FeedbackEvent>> records, Map<Long, Exception> rejected,
+                                   Map<Integer, Exception> failures) {
+        if (rejected.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            FeedbackEvent event = records.get(i).value();
+            if (event != null && event.getId() != null && rejected.containsKey(event.getId())) {
+                failures.put(i, rejected.get(event.getId()));
+            }
+        }
+    }
+
+    private void writeOrSplit(List<NlpResult> results, List<NlpResult> written, Map<Long, Exception> rejected) {
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
+            List<NlpResult> updated = transactionTemplate.execute(status -> writeResults(results));
+            if (updated != null) {
+                written.addAll(updated);
+            }
+        } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+            if (results.size() == 1) {
+                logger.error("Feedback {} result rejected by the database: {}", results.get(0).getId(), e.getMessage());
+                rejected.put(results.get(0).getId(), e);
+                return;
+            }
+            int half = results.size() / 2;
+            writeOrSplit(results.subList(0, half), written, rejected);
+            writeOrSplit(results.subList(half, results.size()), written, rejected);
+        }
+    }
+
+    private List<NlpResult> writeResults(List<NlpResult> results) {
+        // One multi-row UPDATE of the NLP columns for the whole batch
+        List<NlpResult> written = nlpResultRepository.updateResults(results);
+        if (written.size() < results.size()) {
+            // The outbox commits the row together with its event, so a missing row means
+            // another consumer processed it concurrently
+            logger.info("{} feedback rows were missing or already processed. Skipping.", results.size() - written.size());
+        }
+
+        // Notify feedback-service once this transaction has committed
+        for (NlpResult result : written) {
+            feedbackProcessedPublisher.publish(result);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,179 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.repository.FeedbackRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumes the retry topics of feedback-events, each once its delay has passed.
+ *
+ * There is one listener container per retry topic, in its own consumer group. A batch is
+ * processed up to its first record that is not yet due (written less than the topic's
+ * delay ago); the consumer then sleeps until that record is due by nacking from it, and
+ * keeps polling while it sleeps so it stays in the group. Events that fail again move on
+ * to the next retry topic, or to the dead-letter topic after the last one (see
+ * {@link FeedbackRetryRouter}). Retries wait while {@link ConsumerBackpressure} is
+ * throttling, like the rest of the database work. Events whose result row the database
+ * rejects go to the dead-letter topic. If a write or forward fails otherwise, the feedback
+ * listener's error handler retries the batch with backoff, and dead-letters it if the
+ * failure outlasts the backoff.
+ *
+ * The retry topics are few and quiet, so NLP runs on the listener thread.
+ */
+@Component
+public class FeedbackRetryConsumer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackRetryConsumer.class);
+
+    @Value("${nlp.retry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${nlp.retry.group-id:${spring.kafka.consumer.group-id}-retry}")
+    private String groupId;
+
+    @Value("${nlp.processing.nack-sleep-ms:1000}")
+    private long nackSleepMs;
+
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<String, FeedbackEvent> kafkaListenerContainerFactory;
+
+    @Autowired
+    private DefaultErrorHandler feedbackErrorHandler;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private NlpProcessingService nlpProcessingService;
+
+    @Autowired
+    private FeedbackResultWriter feedbackResultWriter;
+
+    @Autowired
+    private FeedbackRetryRouter feedbackRetryRouter;
+
+    @Autowired
+    private ConsumerBackpressure consumerBackpressure;
+
+    private final List<ConcurrentMessageListenerContainer<String, FeedbackEvent>> containers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> delays = feedbackRetryRouter.delaysMs();
+        for (int tier = 0; tier < delays.size(); tier++) {
+            int currentTier = tier;
+            ConcurrentMessageListenerContainer<String, FeedbackEvent> container =
+                kafkaListenerContainerFactory.createContainer(feedbackRetryRouter.retryTopic(tier));
+            container.setConcurrency(1);
+            container.setBeanName("nlp-feedback-retry-" + tier);
+            container.getContainerProperties().setGroupId(groupId);
+            // Built outside the endpoint registry: set the blocking error handler explicitly
+            container.setCommonErrorHandler(feedbackErrorHandler);
+            container.setupMessageListener((BatchAcknowledgingMessageListener<String, FeedbackEvent>)
+                (records, acknowledgment) -> consumeRetry(currentTier, records, acknowledgment));
+            container.start();
+            containers.add(container);
+        }
+        running = true;
+        logger.info("Consuming {} feedback retry topics with delays {} ms", containers.size(), delays);
+    }
+
+    @Override
+    public synchronized void stop() {
+        for (ConcurrentMessageListenerContainer<String, FeedbackEvent> container : containers) {
+            container.stop();
+        }
+        containers.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void consumeRetry(int tier, List<ConsumerRecord<String, FeedbackEvent>> records, Acknowledgment acknowledgment) {
+        if (consumerBackpressure.isThrottling()) {
+            acknowledgment.nack(0, Duration.ofMillis(nackSleepMs));
+            return;
+        }
+
+        // Records are due in the order they were forwarded; stop at the first one still waiting
+        long delayMs = feedbackRetryRouter.delaysMs().get(tier);
+        long now = System.currentTimeMillis();
+        int due = 0;
+        while (due < records.size() && records.get(due).timestamp() + delayMs <= now) {
+            due++;
+        }
+
+        if (due > 0) {
+            List<NlpResult> results = new ArrayList<>(due);
+            Map<Integer, Exception> failures = new HashMap<>();
+            Set<Long> alreadyProcessed = alreadyProcessed(records, due);
+            for (int i = 0; i < due; i++) {
+                FeedbackEvent event = records.get(i).value();
+                if (event == null || event.getId() == null || alreadyProcessed.contains(event.getId())) {
+                    continue;
+                }
+                try {
+                    NlpResult result = nlpProcessingService.processFeedback(event);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (Exception e) {
+                    logger.error("Error retrying feedback: id={}, error={}", event.getId(), e.getMessage(), e);
+                    failures.put(i, e);
+                }
+            }
+            Map<Long, Exception> rejected = new HashMap<>();
+            int updated = feedbackResultWriter.write(results, rejected);
+            FeedbackResultWriter.addRejected(records, rejected, failures);
+            feedbackRetryRouter.forward(records, failures, due);
+            logger.info("Retried {} feedback events from {}: {} updated, {} failed again",
+                due, feedbackRetryRouter.retryTopic(tier), updated, failures.size());
+        }
+
+        if (due == records.size()) {
+            acknowledgment.acknowledge();
+        } else {
+            long waitMs = Math.min(records.get(due).timestamp() + delayMs - now, delayMs);
+            acknowledgment.nack(due, Duration.ofMillis(Math.max(waitMs, nackSleepMs)));
+        }
+    }
+
+    private Set<Long> alreadyProcessed(List<ConsumerRecord<String, FeedbackEvent>> records, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FeedbackEvent event = records.get(i).value();
+            if (event != null && event.getId() != null) {
+                ids.add(event.getId());
+            }
+        }
+        return ids.isEmpty() ? Set.of() : new HashSet<>(feedbackRepository.findProcessedIds(ids));
+    }
+}
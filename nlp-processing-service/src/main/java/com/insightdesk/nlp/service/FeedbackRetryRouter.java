@@ -0,0 +1,238 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.events.FeedbackEventSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.LogFactory;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends feedback events that failed NLP to the next retry topic, or to the dead-letter topic.
+ *
+ * Retry topics are {topic}-retry-0, -1, ... with the delays of nlp.retry.delays-ms; each
+ * is consumed once its delay has passed (see {@link FeedbackRetryConsumer}), so the main
+ * partitions keep flowing while an event waits. An event that fails on the last retry
+ * topic, fails with an exception listed in nlp.retry.not-retryable (or a subclass of one),
+ * or cannot be decoded at all goes to {topic}-dlt, as do the records of a batch the error
+ * handler gave up on (see {@link #deadLetter}). Forwarded records keep their key and carry the attempt count,
+ * failure type and message, and the original topic, partition and offset as headers.
+ * Undecodable records are forwarded with their original bytes.
+ *
+ * Metrics: nlp.feedback.retries (tagged with the retry topic and failure type) and
+ * nlp.feedback.dead.letters (tagged with the failure type).
+ */
+@Service
+public class FeedbackRetryRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackRetryRouter.class);
+
+    public static final String ATTEMPTS_HEADER = "nlp-attempts";
+    public static final String FAILURE_TYPE_HEADER = "nlp-failure-type";
+    public static final String FAILURE_MESSAGE_HEADER = "nlp-failure-message";
+    public static final String ORIGINAL_TOPIC_HEADER = "nlp-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "nlp-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "nlp-original-offset";
+
+    private static final long SEND_TIMEOUT_MS = 30000;
+
+    private static final LogAccessor DESERIALIZATION_LOGGER = new LogAccessor(LogFactory.getLog(FeedbackRetryRouter.class));
+
+    @Value("${feedback.kafka.topic}")
+    private String topic;
+
+    @Value("${nlp.retry.delays-ms:10000,60000,300000}")
+    private List<Long> delaysMs;
+
+    @Value("${nlp.retry.not-retryable:java.lang.IllegalArgumentException,java.lang.ClassCastException,java.lang.NullPointerException,org.springframework.dao.DataIntegrityViolationException}")
+    private List<String> notRetryable;
+
+    @Autowired
+    @Qualifier("deadLetterKafkaTemplate")
+    private KafkaTemplate<String, byte[]> deadLetterKafkaTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final FeedbackEventSerializer serializer = new FeedbackEventSerializer();
+
+    public String retryTopic(int tier) {
+        return topic + "-retry-" + tier;
+    }
+
+    public String deadLetterTopic() {
+        return topic + "-dlt";
+    }
+
+    /**
+     * Delay of each retry topic, by tier
+     */
+    public List<Long> delaysMs() {
+        return delaysMs;
+    }
+
+    /**
+     * Forward the failed and undecodable records among the first count records, and wait
+     * until the broker has them; call before committing their offsets. Throws if a send
+     * fails, so the container's error handler retries the batch rather than losing the events.
+     */
+    public void forward(List<ConsumerRecord<String, FeedbackEvent>> records, Map<Integer, Exception> failures, int count) {
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ConsumerRecord<String, FeedbackEvent> record = records.get(i);
+            if (record.value() == null) {
+                sends.add(forwardUndecodable(record));
+            } else if (record.value().getId() == null) {
+                sends.add(forwardFailed(record, new IllegalArgumentException("Feedback event has no id")));
+            } else if (failures.containsKey(i)) {
+                sends.add(forwardFailed(record, failures.get(i)));
+            }
+        }
+        await(sends);
+    }
+
+    /**
+     * Send one record of a batch that kept failing straight to the dead-letter topic, and
+     * wait until the broker has it; the recoverer of the listeners' error handler. Throws if
+     * the send fails, so the batch is retried rather than committed.
+     */
+    @SuppressWarnings("unchecked")
+    public void deadLetter(ConsumerRecord<?, ?> record, Exception failure) {
+        ConsumerRecord<String, FeedbackEvent> feedbackRecord = (ConsumerRecord<String, FeedbackEvent>) record;
+        if (failure instanceof ListenerExecutionFailedException && failure.getCause() instanceof Exception cause) {
+            failure = cause;
+        }
+        if (feedbackRecord.value() == null) {
+            await(List.of(forwardUndecodable(feedbackRecord)));
+            return;
+        }
+        logger.error("Giving up on feedback {} at {}-{}@{} after repeated batch failures, forwarding to {}: {}",
+            feedbackRecord.value().getId(), record.topic(), record.partition(), record.offset(),
+            deadLetterTopic(), failure.getMessage());
+        await(List.of(send(feedbackRecord, deadLetterTopic(), serializer.serialize(deadLetterTopic(), feedbackRecord.value()),
+            attempts(record) + 1, failure.getClass().getSimpleName(), failure.getMessage())));
+    }
+
+    /**
+     * Topic a failed event goes to next: the retry topic of its attempt, or the dead-letter
+     * topic once the retries are used up or the failure is not retryable
+     */
+    String targetTopic(int attempts, Exception failure) {
+        return isRetryable(failure) && attempts <= delaysMs.size() ? retryTopic(attempts - 1) : deadLetterTopic();
+    }
+
+    private boolean isRetryable(Exception failure) {
+        for (Class<?> type = failure.getClass(); type != null; type = type.getSuperclass()) {
+            if (notRetryable.contains(type.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void await(List<CompletableFuture<?>> sends) {
+        if (sends.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding failed feedback events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not forward failed feedback events: " + e.getMessage(), e);
+        }
+    }
+
+    private CompletableFuture<?> forwardFailed(ConsumerRecord<String, FeedbackEvent> record, Exception failure) {
+        int attempts = attempts(record) + 1;
+        String failureType = failure.getClass().getSimpleName();
+        String target = targetTopic(attempts, failure);
+        logger.warn("Feedback {} failed NLP (attempt {}), forwarding to {}: {}",
+            record.value().getId(), attempts, target, failure.getMessage());
+        return send(record, target, serializer.serialize(target, record.value()), attempts, failureType, failure.getMessage());
+    }
+
+    private CompletableFuture<?> forwardUndecodable(ConsumerRecord<String, FeedbackEvent> record) {
+        DeserializationException failure = SerializationUtils.getExceptionFromHeader(record,
+            SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, DESERIALIZATION_LOGGER);
+        byte[] data = failure == null ? null : failure.getData();
+        String message = failure == null ? "Empty record" : failure.getMessage();
+        logger.warn("Undecodable feedback event at {}-{}@{}, forwarding to {}: {}",
+            record.topic(), record.partition(), record.offset(), deadLetterTopic(), message);
+        return send(record, deadLetterTopic(), data, attempts(record) + 1, DeserializationException.class.getSimpleName(), message);
+    }
+
+    private CompletableFuture<?> send(ConsumerRecord<String, FeedbackEvent> record, String target, byte[] value,
+                                      int attempts, String failureType, String failureMessage) {
+        Headers headers = new RecordHeaders();
+        copyOrSet(record, headers, ORIGINAL_TOPIC_HEADER, record.topic());
+        copyOrSet(record, headers, ORIGINAL_PARTITION_HEADER, String.valueOf(record.partition()));
+        copyOrSet(record, headers, ORIGINAL_OFFSET_HEADER, String.valueOf(record.offset()));
+        headers.add(ATTEMPTS_HEADER, bytes(String.valueOf(attempts)));
+        headers.add(FAILURE_TYPE_HEADER, bytes(failureType));
+        if (failureMessage != null) {
+            headers.add(FAILURE_MESSAGE_HEADER, bytes(failureMessage));
+        }
+
+        if (target.equals(deadLetterTopic())) {
+            Counter.builder("nlp.feedback.dead.letters")
+                .description("Feedback events sent to the dead-letter topic")
+                .tag("failure", failureType)
+                .register(meterRegistry)
+                .increment();
+        } else {
+            Counter.builder("nlp.feedback.retries")
+                .description("Feedback events sent to a retry topic")
+                .tag("topic", target)
+                .tag("failure", failureType)
+                .register(meterRegistry)
+                .increment();
+        }
+        return deadLetterKafkaTemplate.send(new ProducerRecord<>(target, null, record.key(), value, headers));
+    }
+
+    /**
+     * NLP attempts the record has been through before this one
+     */
+    public static int attempts(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPTS_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keep the original location across retries: only the first failure sets it
+     */
+    private static void copyOrSet(ConsumerRecord<?, ?> record, Headers headers, String name, String value) {
+        Header existing = record.headers().lastHeader(name);
+        headers.add(name, existing != null ? existing.value() : bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package com.insightdesk.nlp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs a batch of work items on the worker pool, in parallel across keys but in order per key.
+ *
+ * Items are split into lanes by key hash; each lane is one task that handles its items
+ * sequentially in batch order, so two items with the same key never run concurrently or
+ * out of order. Lanes still running at the deadline are cancelled, and their remaining
+ * items are reported as not completed.
+ */
+@Component
+public class KeyOrderedExecutor {
+
+    @Autowired
+    @Qualifier("nlpWorkerExecutor")
+    private ThreadPoolExecutor nlpWorkerExecutor;
+
+    @Value("${nlp.processing.lanes:0}")
+    private int configuredLanes;
+
+    /**
+     * Process all items and wait for them up to the timeout
+     */
+    public <T, R> LaneResults<R> process(List<T> items, Function<T, Object> keyOf, Function<T, R> work, Duration timeout) {
+        int laneCount = Math.max(1, Math.min(items.size(), lanes()));
+        List<List<Integer>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Object key = keyOf.apply(items.get(i));
+            lanes.get(Math.floorMod(key == null ? i : key.hashCode(), laneCount)).add(i);
+        }
+
+        LaneResults<R> results = new LaneResults<>(items.size());
+        List<Future<?>> futures = new ArrayList<>(laneCount);
+        for (List<Integer> lane : lanes) {
+            if (lane.isEmpty()) {
+                continue;
+            }
+            futures.add(nlpWorkerExecutor.submit(() -> {
+                for (int index : lane) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    results.complete(index, work.apply(items.get(index)));
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Seal first: an interrupted item can still return, and must not count
+                results.seal();
+                future.cancel(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.seal();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                // The lane stopped at the failing item; its remaining items stay incomplete
+            }
+        }
+        results.seal();
+        return results;
+    }
+
+    /**
+     * Configured lane count, or one lane per worker thread (the pool is resized at runtime)
+     */
+    private int lanes() {
+        return configuredLanes > 0 ? configuredLanes : nlpWorkerExecutor.getCorePoolSize();
+    }
+
+    /**
+     * Per-item results of one batch. Only items completed before the deadline count.
+     */
+    public static final class LaneResults<R> {
+
+        private final Object[] values;
+        private final boolean[] completed;
+        private volatile boolean sealed;
+
+        LaneResults(int size) {
+            this.values = new Object[size];
+            this.completed = new boolean[size];
+        }
+
+        private synchronized void complete(int index, R value) {
+            if (!sealed) {
+                values[index] = value;
+                completed[index] = true;
+            }
+        }
+
+        private synchronized void seal() {
+            sealed = true;
+        }
+
+        public synchronized boolean isCompleted(int index) {
+            return completed[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public synchronized R get(int index) {
+            return (R) values[index];
+        }
+
+        /**
+         * Number of leading items that all completed: offsets can be committed up to here
+         */
+        public synchronized int completedPrefix() {
+            int prefix = 0;
+            while (prefix < completed.length && completed[prefix]) {
+                prefix++;
+            }
+            return prefix;
+        }
+    }
+}
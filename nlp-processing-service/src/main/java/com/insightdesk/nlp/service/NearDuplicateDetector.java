@@ -0,0 +1,207 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.nlp.repository.FeedbackSignatureRepository;
+import com.insightdesk.nlp.repository.RecentFeedbackRepository;
+import com.insightdesk.nlp.text.DocumentFrequencies;
+import com.insightdesk.nlp.text.MinHash;
+import com.insightdesk.nlp.text.NearDuplicateIndex;
+import com.insightdesk.nlp.text.TokenBuffer;
+import com.insightdesk.nlp.text.Tokenizers;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Links feedback to a nearly identical earlier message of the same project, using MinHash
+ * signatures of the message's word shingles and LSH banding (see {@link NearDuplicateIndex}).
+ *
+ * Messages shorter than the minimum token count are never linked: short messages such as
+ * "great app" are common and unrelated. Signatures of canonical messages are kept in one
+ * of two stores (nlp.duplicates.store):
+ * - postgres (default): the feedback_signature tables, shared by all instances. Events of
+ *   one project are spread over partitions and so over instances; each lookup locks the
+ *   project, so near-duplicates are linked whichever instance processes them. Expired
+ *   signatures are purged on a schedule.
+ * - memory: the in-process index, rebuilt from the recent rows of the feedback table at
+ *   startup. Only correct with a single instance.
+ */
+@Component
+public class NearDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateDetector.class);
+
+    public static final String STORE_MEMORY = "memory";
+
+    @Value("${nlp.duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${nlp.duplicates.store:postgres}")
+    private String store;
+
+    @Value("${nlp.duplicates.min-tokens:5}")
+    private int minTokens;
+
+    @Value("${nlp.duplicates.window-minutes:1440}")
+    private long windowMinutes;
+
+    @Value("${nlp.duplicates.max-entries:50000}")
+    private int maxEntries;
+
+    /** Near-duplicates get no keywords or entities of their own; they are the canonical message's */
+    @Value("${nlp.duplicates.skip-stages:false}")
+    private boolean skipStages;
+
+    @Autowired
+    private MinHash minHash;
+
+    @Autowired
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Autowired
+    private Tokenizers tokenizers;
+
+    @Autowired
+    private RecentFeedbackRepository recentFeedbackRepository;
+
+    @Autowired
+    private FeedbackSignatureRepository feedbackSignatureRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Reused per worker thread, like the token buffers */
+    private final ThreadLocal<int[]> signatures = ThreadLocal.withInitial(() -> new int[minHash.signatureLength()]);
+
+    private final ThreadLocal<int[]> bandKeys = ThreadLocal.withInitial(() -> new int[nearDuplicateIndex.bands()]);
+
+    /**
+     * Index the recent feedback before the listener containers start. Messages are replayed
+     * oldest first, so near-duplicates among them are linked as they were when processed.
+     * If the rows cannot be read, the service starts with an empty index rather than failing.
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled || !inMemory()) {
+            return;
+        }
+        long started = System.nanoTime();
+        OffsetDateTime since = OffsetDateTime.now().minus(Duration.ofMinutes(windowMinutes));
+        TokenBuffer tokens = new TokenBuffer();
+        int[] count = {0};
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                recentFeedbackRepository.forEachRecent(since, maxEntries, (id, projectId, message, createdAt) -> {
+                    tokenizers.defaultTokenizer().tokenize(message, tokens);
+                    long timestamp = createdAt == null ? System.currentTimeMillis() : createdAt.toInstant().toEpochMilli();
+                    find(id, projectId, tokens, timestamp);
+                    count[0]++;
+                }));
+            logger.info("Rebuilt near-duplicate index from {} recent messages ({} indexed) in {} ms",
+                count[0], nearDuplicateIndex.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild near-duplicate index, starting empty: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Id of the canonical feedback this message nearly duplicates, or null. A message that
+     * is not a duplicate is indexed, so later messages can be linked to it.
+     */
+    public Long findDuplicateOf(Long id, Long projectId, TokenBuffer tokens) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        return find(id, projectId, tokens, System.currentTimeMillis());
+    }
+
+    /**
+     * Whether keyword and entity extraction are skipped for a message linked to duplicateOf
+     */
+    public boolean skipsStages(Long duplicateOf) {
+        return duplicateOf != null && skipStages;
+    }
+
+    /**
+     * Delete the shared signatures that have left the window
+     */
+    @Scheduled(
+        initialDelayString = "${nlp.duplicates.purge-interval-ms:600000}",
+        fixedDelayString = "${nlp.duplicates.purge-interval-ms:600000}"
+    )
+    public void purgeExpired() {
+        if (!enabled || inMemory()) {
+            return;
+        }
+        try {
+            int deleted = feedbackSignatureRepository.deleteOlderThan(OffsetDateTime.now().minus(Duration.ofMinutes(windowMinutes)));
+            logger.debug("Purged {} expired near-duplicate signatures", deleted);
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge expired near-duplicate signatures: {}", e.getMessage());
+        }
+    }
+
+    private Long find(long id, Long projectId, TokenBuffer tokens, long timestamp) {
+        // Stop words are kept in the shingles: they carry much of what makes two messages the same
+        if (tokens.size() < minTokens) {
+            return null;
+        }
+        int[] signature = signatures.get();
+        minHash.signature(tokens, signature);
+        long project = projectId == null ? DocumentFrequencies.NO_PROJECT : projectId;
+        long canonical = inMemory()
+            ? nearDuplicateIndex.findOrAdd(id, project, signature, timestamp)
+            : findOrAddShared(id, project, signature);
+        return canonical == NearDuplicateIndex.NO_DUPLICATE ? null : canonical;
+    }
+
+    /**
+     * {@link NearDuplicateIndex#findOrAdd} against the shared store: the most similar
+     * canonical message of the project within the window, or the message is added. A
+     * message already added (a redelivery) is not a duplicate of anything.
+     */
+    private long findOrAddShared(long id, long projectId, int[] signature) {
+        int[] keys = bandKeys.get();
+        nearDuplicateIndex.bandKeys(projectId, signature, keys);
+        OffsetDateTime since = OffsetDateTime.now().minus(Duration.ofMinutes(windowMinutes));
+        double threshold = nearDuplicateIndex.threshold();
+        Long canonical = transactionTemplate.execute(status -> {
+            feedbackSignatureRepository.lockProject(projectId);
+            long[] best = {NearDuplicateIndex.NO_DUPLICATE};
+            double[] bestSimilarity = {threshold};
+            boolean[] added = {false};
+            feedbackSignatureRepository.forEachCandidate(projectId, keys, since, (candidateId, candidate) -> {
+                if (candidateId == id) {
+                    added[0] = true;
+                    return;
+                }
+                double similarity = MinHash.similarity(candidate, 0, signature, 0, signature.length);
+                // The lowest id among equally similar messages, so the pick does not depend on row order
+                if (similarity > bestSimilarity[0] || similarity == bestSimilarity[0]
+                        && (best[0] == NearDuplicateIndex.NO_DUPLICATE || candidateId < best[0])) {
+                    best[0] = candidateId;
+                    bestSimilarity[0] = similarity;
+                }
+            });
+            if (added[0]) {
+                return NearDuplicateIndex.NO_DUPLICATE;
+            }
+            if (best[0] == NearDuplicateIndex.NO_DUPLICATE) {
+                feedbackSignatureRepository.add(id, projectId, signature, keys);
+            }
+            return best[0];
+        });
+        return canonical == null ? NearDuplicateIndex.NO_DUPLICATE : canonical;
+    }
+
+    private boolean inMemory() {
+        return STORE_MEMORY.equalsIgnoreCase(store);
+    }
+}
@@ -1,133 +1,158 @@
 package com.insightdesk.nlp.service;
 
-import com.insightdesk.nlp.dto.FeedbackEvent;
-import com.insightdesk.nlp.entity.Feedback;
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.pipeline.DuplicateStage;
+import com.insightdesk.nlp.pipeline.EntityStage;
+import com.insightdesk.nlp.pipeline.KeywordStage;
+import com.insightdesk.nlp.pipeline.LanguageStage;
+import com.insightdesk.nlp.pipeline.NlpContext;
+import com.insightdesk.nlp.pipeline.NlpPipeline;
+import com.insightdesk.nlp.pipeline.SentimentStage;
+import com.insightdesk.nlp.text.KeywordExtractor;
+import com.insightdesk.nlp.text.LanguageDetector;
+import com.insightdesk.nlp.text.SentimentScorer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Service for processing feedback with NLP
- * Currently just simulates processing - actual NLP will be added later
+ * The analysis itself runs as the stages of the {@link NlpPipeline}: language detection,
+ * lexicon-based sentiment, tokenization, near-duplicate linking, TF-IDF keywords and
+ * entities. This service combines their outputs with the values supplied with the
+ * feedback into the NLP result. Outputs are memoized per project and message text
+ * ({@link NlpResultCache})
  */
 @Service
 public class NlpProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(NlpProcessingService.class);
 
+    private static final double POSITIVE_THRESHOLD = 0.6;
+    private static final double NEGATIVE_THRESHOLD = 0.4;
+
+    @Autowired
+    private NlpPipeline nlpPipeline;
+
+    @Autowired
+    private NlpResultCache resultCache;
+
+    @Autowired
+    private LanguageDetector languageDetector;
+
+    @Autowired
+    private KeywordExtractor keywordExtractor;
+
+    /**
+     * Run NLP over a feedback event.
+     * Only the NLP-owned columns are produced; ingest fields are never written back.
+     * Sentiment, keywords and entities supplied with the feedback (e.g. from an import) are kept.
+     * Outputs of stages that are disabled or ran out of time are left empty.
+     */
+    public NlpResult processFeedback(FeedbackEvent event) {
+        return processFeedback(event, false);
+    }
+
     /**
-     * Process feedback event and update with NLP results
-     * For now, this is a simple pass-through with logging
-     * Real NLP processing will be added later
+     * Run NLP over feedback; reprocessing is set for feedback that was processed before
+     * (see {@link com.insightdesk.nlp.pipeline.NlpContext#reprocessing()})
      */
-    public Feedback processFeedback(FeedbackEvent event) {
-        logger.info("Processing feedback: id={}, message={}", event.getId(), event.getMessage());
-
-        Feedback feedback = new Feedback();
-        feedback.setId(event.getId());
-        feedback.setUserId(event.getUserId());
-        feedback.setProjectId(event.getProjectId());
-        feedback.setMessage(event.getMessage());
+    public NlpResult processFeedback(FeedbackEvent event, boolean reprocessing) {
+        logger.debug("Processing feedback: id={}, message={}", event.getId(), event.getMessage());
+
+        NlpResult result = new NlpResult();
+        result.setId(event.getId());
         
-        // Determine category based on sentiment
-        String category = determineSentimentLabel(event.getSentimentScore());
-        feedback.setCategory(category);
+        // A repeat of a message seen recently in the project reuses its outputs
+        NlpResultCache.Key cacheKey = resultCache.key(event.getProjectId(), event.getMessage());
+        NlpResultCache.Outputs cached = resultCache.get(cacheKey);
+        NlpContext context = nlpPipeline.run(event, cached, reprocessing);
+        
+        String language = context.output(LanguageStage.NAME);
+        if (language == null) {
+            language = languageDetector.defaultLanguage();
+        }
+        result.setLanguage(language);
+        
+        Long duplicateOf = context.output(DuplicateStage.NAME);
+        result.setDuplicateOf(duplicateOf);
         
-        // Set or update sentiment score
-        BigDecimal sentimentScore = event.getSentimentScore();
-        if (sentimentScore == null) {
-            // Simulate sentiment analysis if not present
-            sentimentScore = simulateSentimentScore(event.getMessage());
+        // A score supplied with the feedback wins over the scored one
+        Double scored = context.output(SentimentStage.NAME);
+        double sentimentScore;
+        if (event.getSentimentScore() != null) {
+            sentimentScore = event.getSentimentScore().doubleValue();
+        } else {
+            sentimentScore = scored != null ? scored : SentimentScorer.NEUTRAL;
         }
-        feedback.setSentimentScore(sentimentScore);
+        result.setSentimentScore(sentimentScore);
         
-        // Process keywords
+        // Determine category based on sentiment
+        String category = determineSentimentLabel(sentimentScore);
+        result.setCategory(category);
+        
+        // Keywords supplied with the feedback are kept; the message is counted either way
+        KeywordStage.Keywords keywordOutput = context.output(KeywordStage.NAME);
+        String[] extracted = keywordOutput == null ? null : keywordOutput.ranked();
+        if (keywordOutput != null && keywordOutput.terms() != null) {
+            result.setProjectId(event.getProjectId());
+            result.setDocumentTerms(keywordOutput.terms());
+        }
         String[] keywords = event.getKeywords();
         if (keywords == null || keywords.length == 0) {
-            keywords = extractKeywords(event.getMessage());
+            keywords = extracted;
         }
-        feedback.setKeywords(keywords);
+        result.setKeywords(keywords);
         
-        // Process entities
+        // Entities supplied with the feedback are kept; otherwise they are extracted from the message
         Map<String, Object> entities = convertEntitiesToMap(event.getEntities());
-        feedback.setEntities(entities);
-        
-        // Mark as processed
-        feedback.setProcessed(true);
-        feedback.setUpdatedAt(OffsetDateTime.now());
-
-        logger.info("Completed processing for feedback: id={}, category={}, score={}", 
-            event.getId(), category, sentimentScore);
-        
-        return feedback;
-    }
-
-    /**
-     * Determine sentiment label based on score
-     */
-    private String determineSentimentLabel(BigDecimal score) {
-        if (score == null) {
-            return "neutral";
+        Map<String, Object> extractedEntities = context.output(EntityStage.NAME);
+        if (entities.isEmpty() && extractedEntities != null) {
+            entities = extractedEntities;
         }
+        result.setEntities(entities);
         
-        if (score.compareTo(new BigDecimal("0.6")) > 0) {
-            return "positive";
-        } else if (score.compareTo(new BigDecimal("0.4")) < 0) {
-            return "negative";
-        } else {
-            return "neutral";
+        // Only complete outputs of the service itself are memoized
+        if (cached == null && scored != null && extracted != null && extractedEntities != null) {
+            resultCache.put(cacheKey, new NlpResultCache.Outputs(language, scored, extracted, extractedEntities));
         }
+
+        logger.debug("Completed processing for feedback: id={}, language={}, category={}, score={}, duplicateOf={}", 
+            event.getId(), language, category, sentimentScore, duplicateOf);
+        
+        return result;
     }
 
     /**
-     * Simulate sentiment score analysis (to be replaced with real NLP)
+     * Count written results in their projects' keyword document frequencies. Call once the
+     * results have been committed, with only the rows that were actually written: a
+     * message is then counted once however often it is processed.
      */
-    private BigDecimal simulateSentimentScore(String message) {
-        if (message == null) {
-            return new BigDecimal("0.50");
-        }
-        
-        String lowerMessage = message.toLowerCase();
-        if (lowerMessage.contains("great") || lowerMessage.contains("excellent") || 
-            lowerMessage.contains("amazing") || lowerMessage.contains("love")) {
-            return new BigDecimal("0.85");
-        } else if (lowerMessage.contains("bad") || lowerMessage.contains("terrible") || 
-                   lowerMessage.contains("hate") || lowerMessage.contains("poor")) {
-            return new BigDecimal("0.25");
+    public void countDocuments(List<NlpResult> written) {
+        for (NlpResult result : written) {
+            if (result.getDocumentTerms() != null) {
+                keywordExtractor.count(result.getProjectId(), result.getDocumentTerms());
+            }
         }
-        
-        return new BigDecimal("0.50");
     }
 
     /**
-     * Extract keywords from message (simple implementation)
+     * Determine sentiment label based on score
      */
-    private String[] extractKeywords(String message) {
-        if (message == null || message.isEmpty()) {
-            return new String[]{};
-        }
-        
-        // Simple keyword extraction - to be replaced with real NLP
-        String[] words = message.toLowerCase()
-            .replaceAll("[^a-z0-9\\s]", "")
-            .split("\\s+");
-        
-        // Filter out common words (very basic stop words)
-        java.util.List<String> keywords = new java.util.ArrayList<>();
-        for (String word : words) {
-            if (word.length() > 3 && 
-                !word.matches("the|and|for|with|this|that|from|have|been")) {
-                keywords.add(word);
-                if (keywords.size() >= 5) break;
-            }
+    private String determineSentimentLabel(double score) {
+        if (score > POSITIVE_THRESHOLD) {
+            return "positive";
+        } else if (score < NEGATIVE_THRESHOLD) {
+            return "negative";
+        } else {
+            return "neutral";
         }
-        
-        return keywords.toArray(new String[0]);
     }
 
     /**
@@ -0,0 +1,198 @@
+package com.insightdesk.nlp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memoizes the NLP outputs of a message, so repeats of the same text in a project
+ * (templated feedback, retried imports) are not analyzed again.
+ *
+ * Entries are keyed by a SHA-256 digest of the model version, project and message text;
+ * changing nlp.model.version therefore stops every older entry from matching. Values are
+ * stored as compact serialized bytes (see {@link #encode}), and the cache is bounded by
+ * their total size; hit and miss counts are exported by actuator as cache.gets.
+ * Keywords depend on the project's document frequencies, so entries also expire
+ * (see CacheConfig).
+ */
+@Component
+public class NlpResultCache {
+
+    public static final String CACHE_NAME = "nlp-results";
+
+    private static final int FORMAT = 1;
+
+    /** Most keywords, entity types or items of a type an entry can hold (an unsigned short) */
+    private static final int MAX_COUNT = 0xFFFF;
+
+    @Value("${nlp.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${nlp.model.version:1}")
+    private String modelVersion;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    /**
+     * Key of a message; null when caching is disabled or there is no message
+     */
+    public Key key(Long projectId, String message) {
+        if (!enabled || message == null) {
+            return null;
+        }
+        MessageDigest digest = digests.get();
+        digest.update(modelVersion.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(projectId == null ? -1L : projectId).array());
+        byte[] hash = digest.digest(message.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        return new Key(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Cached outputs for the key, decoded into new objects; null on a miss
+     */
+    public Outputs get(Key key) {
+        if (key == null) {
+            return null;
+        }
+        byte[] bytes = cache().get(key, byte[].class);
+        return bytes == null ? null : decode(bytes);
+    }
+
+    public void put(Key key, Outputs outputs) {
+        if (key == null) {
+            return;
+        }
+        // Outputs too large for an entry are simply computed again on a repeat
+        byte[] bytes = encode(outputs);
+        if (bytes != null) {
+            cache().put(key, bytes);
+        }
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    /**
+     * Layout: format, language, sentiment score, keywords (count, then strings), entities
+     * (type count; per type its name and item count; per item value, text, start, end),
+     * in the shape {@link com.insightdesk.nlp.text.EntityExtractor} returns. Null if the
+     * outputs do not fit: a string over 65535 bytes of modified UTF-8, or more than
+     * {@link #MAX_COUNT} keywords, entity types or items of one type.
+     */
+    static byte[] encode(Outputs outputs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeUTF(outputs.language());
+            out.writeDouble(outputs.sentimentScore());
+            String[] keywords = outputs.keywords();
+            if (keywords.length > MAX_COUNT || outputs.entities().size() > MAX_COUNT) {
+                return null;
+            }
+            out.writeShort(keywords.length);
+            for (String keyword : keywords) {
+                out.writeUTF(keyword);
+            }
+            out.writeShort(outputs.entities().size());
+            for (Map.Entry<String, Object> type : outputs.entities().entrySet()) {
+                List<?> items = (List<?>) type.getValue();
+                if (items.size() > MAX_COUNT) {
+                    return null;
+                }
+                out.writeUTF(type.getKey());
+                out.writeShort(items.size());
+                for (Object element : items) {
+                    Map<?, ?> item = (Map<?, ?>) element;
+                    out.writeUTF((String) item.get("value"));
+                    out.writeUTF((String) item.get("text"));
+                    out.writeInt((Integer) item.get("start"));
+                    out.writeInt((Integer) item.get("end"));
+                }
+            }
+        } catch (UTFDataFormatException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Outputs decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int format = in.readByte();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("Unknown cached result format: " + format);
+            }
+            String language = in.readUTF();
+            double sentimentScore = in.readDouble();
+            String[] keywords = new String[in.readUnsignedShort()];
+            for (int i = 0; i < keywords.length; i++) {
+                keywords[i] = in.readUTF();
+            }
+            Map<String, Object> entities = new LinkedHashMap<>();
+            for (int types = in.readUnsignedShort(); types > 0; types--) {
+                String type = in.readUTF();
+                int count = in.readUnsignedShort();
+                List<Map<String, Object>> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("value", in.readUTF());
+                    item.put("text", in.readUTF());
+                    item.put("start", in.readInt());
+                    item.put("end", in.readInt());
+                    items.add(item);
+                }
+                entities.put(type, items);
+            }
+            return new Outputs(language, sentimentScore, keywords, entities);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 128 bits of the content digest
+     */
+    public record Key(long high, long low) {
+    }
+
+    /**
+     * What the service computed for a message, before any values supplied with the feedback
+     */
+    public record Outputs(String language, double sentimentScore, String[] keywords, Map<String, Object> entities) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.insightdesk.nlp.service;
+
+/**
+ * Decides the listener concurrency of the feedback consumer from its lag and throughput.
+ *
+ * Scales up by one listener when the lag would take longer than the target drain time at
+ * the current throughput, but only while batches are fast: slow batches mean the workers
+ * or the database are saturated, and more listeners would only add contention. A consumer
+ * that is not consuming at all (paused, or the database is down) is never scaled up.
+ * Scales down by one after the lag has stayed low for several consecutive decisions.
+ * Concurrency is capped by the partition count: extra listeners would sit idle.
+ */
+public class ScalingPolicy {
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final double targetDrainSeconds;
+    private final long scaleDownLag;
+    private final double maxBatchLatencyMs;
+    private final int scaleDownDecisions;
+
+    /** Consecutive decisions with a low lag */
+    private int lowLagStreak;
+
+    public ScalingPolicy(int minConcurrency, int maxConcurrency, int minWorkers, int maxWorkers,
+                         double targetDrainSeconds, long scaleDownLag, double maxBatchLatencyMs, int scaleDownDecisions) {
+        if (minConcurrency < 1 || maxConcurrency < minConcurrency) {
+            throw new IllegalArgumentException("Invalid concurrency bounds: " + minConcurrency + ".." + maxConcurrency);
+        }
+        if (minWorkers < 1 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("Invalid worker bounds: " + minWorkers + ".." + maxWorkers);
+        }
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.targetDrainSeconds = targetDrainSeconds;
+        this.scaleDownLag = scaleDownLag;
+        this.maxBatchLatencyMs = maxBatchLatencyMs;
+        this.scaleDownDecisions = scaleDownDecisions;
+    }
+
+    /**
+     * Concurrency for the next interval.
+     *
+     * @param recordsPerSecond records processed per second over the last interval
+     * @param batchLatencyMs   mean time to process a batch over the last interval (0 if none)
+     */
+    public synchronized int decide(int current, int partitions, long lag, double recordsPerSecond, double batchLatencyMs) {
+        int upper = Math.max(minConcurrency, Math.min(maxConcurrency, partitions));
+        int bounded = Math.max(minConcurrency, Math.min(upper, current));
+        if (bounded != current) {
+            lowLagStreak = 0;
+            return bounded;
+        }
+
+        if (lag <= scaleDownLag) {
+            if (++lowLagStreak >= scaleDownDecisions && current > minConcurrency) {
+                lowLagStreak = 0;
+                return current - 1;
+            }
+            return current;
+        }
+        lowLagStreak = 0;
+
+        boolean consuming = recordsPerSecond > 0;
+        boolean behind = consuming && lag / recordsPerSecond > targetDrainSeconds;
+        if (behind && batchLatencyMs <= maxBatchLatencyMs && current < upper) {
+            return current + 1;
+        }
+        return current;
+    }
+
+    /**
+     * Worker pool size for a concurrency: grows with it, from minWorkers at the lowest
+     * concurrency to maxWorkers at the highest one the partitions allow
+     */
+    public int workersFor(int concurrency, int partitions) {
+        int upper = Math.max(minConcurrency, Math.min(maxConcurrency, partitions));
+        if (upper == minConcurrency) {
+            return maxWorkers;
+        }
+        double share = (double) (concurrency - minConcurrency) / (upper - minConcurrency);
+        int workers = (int) Math.round(minWorkers + share * (maxWorkers - minWorkers));
+        return Math.max(minWorkers, Math.min(maxWorkers, workers));
+    }
+}
@@ -0,0 +1,234 @@
+package com.insightdesk.nlp.text;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable Aho-Corasick automaton over lower-case patterns.
+ *
+ * Built once, then frozen into flat arrays: the goto function is stored CSR-style
+ * (per state, a sorted run of edge chars and targets), next to the failure and output
+ * links. Scanning only reads these arrays, so callers can match text without allocating.
+ *
+ * Usage: feed folded chars through {@link #next(int, char)} starting from {@link #ROOT};
+ * after each char, walk the matches ending there with {@link #firstMatch(int)} and
+ * {@link #nextMatch(int)}, longest pattern first.
+ */
+public final class AhoCorasick {
+
+    public static final int ROOT = 0;
+
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    /** Pattern ending exactly at each state, or -1 */
+    private final int[] patternAt;
+    /** Nearest state on the failure chain that ends a pattern, or -1 */
+    private final int[] outputLink;
+    private final int[] patternLengths;
+
+    private AhoCorasick(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int[] fail,
+                        int[] patternAt, int[] outputLink, int[] patternLengths) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.patternAt = patternAt;
+        this.outputLink = outputLink;
+        this.patternLengths = patternLengths;
+    }
+
+    /**
+     * Compile an automaton. Pattern ids are list indexes; patterns must be non-empty,
+     * lower case and distinct.
+     *
+     * The trie is built from the patterns in sorted order, so states are numbered depth-first
+     * and every state's children are created in char order; the CSR arrays are filled
+     * directly, without a per-state map, which keeps large dictionaries cheap to compile.
+     */
+    public static AhoCorasick compile(List<String> patterns) {
+        int patternCount = patterns.size();
+        Integer[] order = new Integer[patternCount];
+        for (int id = 0; id < patternCount; id++) {
+            if (patterns.get(id).isEmpty()) {
+                throw new IllegalArgumentException("Empty pattern at index " + id);
+            }
+            order[id] = id;
+        }
+        Arrays.sort(order, Comparator.comparing(patterns::get));
+
+        // First pass: count the states, i.e. chars not shared with the previous pattern
+        int states = 1;
+        int maxLength = 0;
+        String previous = "";
+        for (Integer id : order) {
+            String pattern = patterns.get(id);
+            if (pattern.equals(previous)) {
+                throw new IllegalArgumentException("Duplicate pattern: " + pattern);
+            }
+            states += pattern.length() - commonPrefix(previous, pattern);
+            maxLength = Math.max(maxLength, pattern.length());
+            previous = pattern;
+        }
+
+        // Second pass: create the states; path[k] is the state of the previous pattern's first k chars
+        int[] parent = new int[states];
+        char[] label = new char[states];
+        int[] patternAt = new int[states];
+        Arrays.fill(patternAt, -1);
+        int[] patternLengths = new int[patternCount];
+        int[] path = new int[maxLength + 1];
+        int stateCount = 1;
+        previous = "";
+        for (Integer id : order) {
+            String pattern = patterns.get(id);
+            int common = commonPrefix(previous, pattern);
+            int state = path[common];
+            for (int i = common; i < pattern.length(); i++) {
+                int child = stateCount++;
+                parent[child] = state;
+                label[child] = pattern.charAt(i);
+                path[i + 1] = child;
+                state = child;
+            }
+            patternAt[state] = id;
+            patternLengths[id] = pattern.length();
+            previous = pattern;
+        }
+
+        // Freeze the goto function into CSR arrays; children come in state order, which is char order
+        int[] edgeStart = new int[states + 1];
+        for (int child = 1; child < states; child++) {
+            edgeStart[parent[child] + 1]++;
+        }
+        for (int s = 0; s < states; s++) {
+            edgeStart[s + 1] += edgeStart[s];
+        }
+        char[] edgeChars = new char[states - 1];
+        int[] edgeTargets = new int[states - 1];
+        int[] fill = Arrays.copyOf(edgeStart, states);
+        for (int child = 1; child < states; child++) {
+            int e = fill[parent[child]]++;
+            edgeChars[e] = label[child];
+            edgeTargets[e] = child;
+        }
+
+        // Failure and output links, breadth-first so every failure target is finished before it is used
+        int[] fail = new int[states];
+        int[] outputLink = new int[states];
+        outputLink[ROOT] = -1;
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+            int child = edgeTargets[e];
+            fail[child] = ROOT;
+            outputLink[child] = -1;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                char c = edgeChars[e];
+                int child = edgeTargets[e];
+                int f = fail[state];
+                int target = edge(edgeStart, edgeChars, edgeTargets, f, c);
+                while (target < 0 && f != ROOT) {
+                    f = fail[f];
+                    target = edge(edgeStart, edgeChars, edgeTargets, f, c);
+                }
+                fail[child] = target < 0 ? ROOT : target;
+                outputLink[child] = patternAt[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+
+        return new AhoCorasick(edgeStart, edgeChars, edgeTargets, fail, patternAt, outputLink, patternLengths);
+    }
+
+    /**
+     * State after reading c in state
+     */
+    public int next(int state, char c) {
+        while (true) {
+            int target = edge(edgeStart, edgeChars, edgeTargets, state, c);
+            if (target >= 0) {
+                return target;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * First (longest) state ending a pattern at the current position, or -1
+     */
+    public int firstMatch(int state) {
+        return patternAt[state] >= 0 ? state : outputLink[state];
+    }
+
+    /**
+     * Next shorter state ending a pattern at the same position, or -1
+     */
+    public int nextMatch(int matchState) {
+        return outputLink[matchState];
+    }
+
+    /**
+     * Pattern id ending at a match state returned by {@link #firstMatch} or {@link #nextMatch}
+     */
+    public int patternAt(int matchState) {
+        return patternAt[matchState];
+    }
+
+    public int patternLength(int patternId) {
+        return patternLengths[patternId];
+    }
+
+    public int patternCount() {
+        return patternLengths.length;
+    }
+
+    public int stateCount() {
+        return fail.length;
+    }
+
+    /**
+     * Target of the edge from state labelled c, or -1 (binary search in the state's sorted run)
+     */
+    private static int edge(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int state, char c) {
+        int lo = edgeStart[state];
+        int hi = edgeStart[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                lo = mid + 1;
+            } else if (edge > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "AhoCorasick{patterns=" + patternLengths.length + ", states=" + fail.length
+            + ", edges=" + edgeChars.length + ", maxPattern=" + Arrays.stream(patternLengths).max().orElse(0) + "}";
+    }
+}
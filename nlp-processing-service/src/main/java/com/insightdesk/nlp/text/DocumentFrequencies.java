@@ -0,0 +1,129 @@
+package com.insightdesk.nlp.text;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-project document frequencies: for each term id, the number of feedback messages of
+ * the project that contain the term, plus the project's message count.
+ *
+ * Counts are kept in memory and updated as messages are processed. Counts added since the
+ * last {@link ProjectFrequencies#drainPending()} are tracked separately, so a snapshot only
+ * has to write what changed.
+ */
+public final class DocumentFrequencies {
+
+    /** Project key used for feedback without a project */
+    public static final long NO_PROJECT = 0L;
+
+    private final TermDictionary terms;
+    private final ConcurrentMap<Long, ProjectFrequencies> projects = new ConcurrentHashMap<>();
+
+    public DocumentFrequencies(int maxTerms) {
+        this.terms = new TermDictionary(maxTerms);
+    }
+
+    public TermDictionary terms() {
+        return terms;
+    }
+
+    public ProjectFrequencies project(Long projectId) {
+        return projects.computeIfAbsent(projectId == null ? NO_PROJECT : projectId, ProjectFrequencies::new);
+    }
+
+    public Set<Long> projectIds() {
+        return projects.keySet();
+    }
+
+    /**
+     * Counts of one project. All methods lock the project, not the whole table.
+     */
+    public static final class ProjectFrequencies {
+
+        private final long projectId;
+        private final IntIntHashMap documentFrequencies = new IntIntHashMap(1024);
+        private long documents;
+
+        private IntIntHashMap pendingFrequencies = new IntIntHashMap();
+        private long pendingDocuments;
+
+        private ProjectFrequencies(long projectId) {
+            this.projectId = projectId;
+        }
+
+        public long projectId() {
+            return projectId;
+        }
+
+        /**
+         * Count one message containing the given distinct terms. The frequency of each term,
+         * this message included, is written to df; returns the project's message count.
+         */
+        public synchronized long addDocument(int[] termIds, int count, int[] df) {
+            for (int i = 0; i < count; i++) {
+                df[i] = documentFrequencies.addTo(termIds[i], 1);
+                pendingFrequencies.addTo(termIds[i], 1);
+            }
+            pendingDocuments++;
+            return ++documents;
+        }
+
+        /**
+         * Write the frequency of each given term to df without counting anything; returns
+         * the project's message count
+         */
+        public synchronized long lookup(int[] termIds, int count, int[] df) {
+            for (int i = 0; i < count; i++) {
+                df[i] = documentFrequencies.get(termIds[i]);
+            }
+            return documents;
+        }
+
+        /**
+         * Add counts read from a snapshot; they are not pending
+         */
+        public synchronized void loadDocuments(long documents) {
+            this.documents += documents;
+        }
+
+        public synchronized void loadTerm(int termId, int documentFrequency) {
+            documentFrequencies.addTo(termId, documentFrequency);
+        }
+
+        public synchronized long documents() {
+            return documents;
+        }
+
+        public synchronized int documentFrequency(int termId) {
+            return documentFrequencies.get(termId);
+        }
+
+        /**
+         * Take the counts added since the last call; null if there are none
+         */
+        public synchronized Delta drainPending() {
+            if (pendingDocuments == 0 && pendingFrequencies.isEmpty()) {
+                return null;
+            }
+            Delta delta = new Delta(pendingDocuments, pendingFrequencies);
+            pendingFrequencies = new IntIntHashMap();
+            pendingDocuments = 0;
+            return delta;
+        }
+
+        /**
+         * Put back counts that could not be saved, so the next snapshot retries them
+         */
+        public synchronized void restorePending(Delta delta) {
+            pendingDocuments += delta.documents();
+            delta.documentFrequencies().forEach(pendingFrequencies::addTo);
+        }
+    }
+
+    /**
+     * Counts added to a project since its previous snapshot
+     */
+    public record Delta(long documents, IntIntHashMap documentFrequencies) {
+    }
+}
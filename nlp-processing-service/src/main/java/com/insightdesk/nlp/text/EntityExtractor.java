@@ -0,0 +1,423 @@
+package com.insightdesk.nlp.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named-entity extractor for feedback messages.
+ *
+ * Dictionary entries (product, feature and platform names, or any other type) are compiled into
+ * one {@link AhoCorasick} automaton and matched case-insensitively in a single pass over the
+ * message: whole words only, and where entries overlap the longest one wins. In the same pass,
+ * URLs, e-mail addresses and version numbers are recognized by small scanners at word starts;
+ * text they cover is not matched against the dictionary. The instance is immutable and thread-safe.
+ *
+ * The result maps each entity type to its distinct values in order of first mention, e.g.
+ * {"platform": [{"value": "iOS", "text": "iphone", "start": 4, "end": 10}], "version": [...]}.
+ */
+public final class EntityExtractor {
+
+    public static final String DEFAULT_DICTIONARY = "lexicon/entities.tsv";
+
+    public static final String URL = "url";
+    public static final String EMAIL = "email";
+    public static final String VERSION = "version";
+
+    /** Words after which a number with a single dot ("version 4.2") is taken as a version */
+    private static final String[] VERSION_CUES = {"version", "ver", "release", "build", "update"};
+
+    /** Entity types after which any number is taken as a version ("iOS 17", "Windows 11") */
+    private static final String[] VERSIONED_TYPES = {"platform", "product"};
+
+    private static final String URL_TRAILING_PUNCTUATION = ".,;:!?)]}'";
+
+    private final AhoCorasick automaton;
+    private final String[] types;
+    private final String[] values;
+
+    private EntityExtractor(AhoCorasick automaton, String[] types, String[] values) {
+        this.automaton = automaton;
+        this.types = types;
+        this.values = values;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Load the dictionary bundled with the service
+     */
+    public static EntityExtractor load() {
+        InputStream input = EntityExtractor.class.getClassLoader().getResourceAsStream(DEFAULT_DICTIONARY);
+        if (input == null) {
+            throw new IllegalArgumentException("Entity dictionary not found on classpath: " + DEFAULT_DICTIONARY);
+        }
+        return builder().addDictionary(input, DEFAULT_DICTIONARY).build();
+    }
+
+    /**
+     * Extract the entities of a message; empty if there are none
+     */
+    public Map<String, Object> extract(CharSequence text) {
+        Map<String, Object> entities = new LinkedHashMap<>();
+        if (text == null) {
+            return entities;
+        }
+
+        int length = text.length();
+        int state = AhoCorasick.ROOT;
+        // Dictionary match not yet added, since a longer one covering it may still end later
+        int pendingId = -1;
+        int pendingStart = -1;
+        int pendingEnd = -1;
+
+        char previous = ' ';
+        int i = 0;
+        while (i < length) {
+            char c = TextChars.fold(text.charAt(i));
+            boolean wordChar = TextChars.isWordChar(c);
+
+            if (wordChar && !TextChars.isWordChar(previous)) {
+                boolean afterVersioned = pendingId >= 0 && isVersioned(types[pendingId]) && onlySpaces(text, pendingEnd + 1, i);
+                int end = scanPattern(text, i, afterVersioned, entities);
+                if (end > i) {
+                    if (pendingId >= 0) {
+                        addMatch(entities, text, pendingId, pendingStart, pendingEnd);
+                        pendingId = -1;
+                    }
+                    state = AhoCorasick.ROOT;
+                    previous = TextChars.fold(text.charAt(end - 1));
+                    i = end;
+                    continue;
+                }
+            }
+
+            state = automaton.next(state, c);
+            char next = i + 1 < length ? TextChars.fold(text.charAt(i + 1)) : ' ';
+
+            // Entries end on a word char followed by a non-word char
+            if (wordChar && !TextChars.isWordChar(next)) {
+                for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+                    int id = automaton.patternAt(m);
+                    int start = i - automaton.patternLength(id) + 1;
+                    if (start > 0 && TextChars.isWordChar(TextChars.fold(text.charAt(start - 1)))) {
+                        continue;
+                    }
+                    if (pendingId >= 0 && start <= pendingEnd) {
+                        if (start > pendingStart) {
+                            // Partial overlap with an earlier entry
+                            continue;
+                        }
+                        // A longer entry covering the pending one replaces it
+                    } else if (pendingId >= 0) {
+                        addMatch(entities, text, pendingId, pendingStart, pendingEnd);
+                    }
+                    pendingId = id;
+                    pendingStart = start;
+                    pendingEnd = i;
+                    // Longest match only
+                    break;
+                }
+            }
+            previous = c;
+            i++;
+        }
+
+        if (pendingId >= 0) {
+            addMatch(entities, text, pendingId, pendingStart, pendingEnd);
+        }
+        return entities;
+    }
+
+    public int size() {
+        return automaton.patternCount();
+    }
+
+    /**
+     * Recognize a URL, e-mail address or version starting at a word start; returns the end
+     * of the entity (exclusive), or -1 if there is none
+     */
+    private static int scanPattern(CharSequence text, int start, boolean afterVersioned, Map<String, Object> entities) {
+        int end = urlEnd(text, start);
+        if (end > 0) {
+            String url = text.subSequence(start, end).toString();
+            add(entities, URL, url, url, start, end);
+            return end;
+        }
+        end = emailEnd(text, start);
+        if (end > 0) {
+            String email = text.subSequence(start, end).toString();
+            add(entities, EMAIL, email.toLowerCase(Locale.ROOT), email, start, end);
+            return end;
+        }
+        end = versionEnd(text, start, afterVersioned);
+        if (end > 0) {
+            String version = text.subSequence(start, end).toString();
+            int prefix = version.charAt(0) == 'v' || version.charAt(0) == 'V' ? 1 : 0;
+            add(entities, VERSION, version.substring(prefix), version, start, end);
+            return end;
+        }
+        return -1;
+    }
+
+    private static int urlEnd(CharSequence text, int start) {
+        int p;
+        if (startsWith(text, start, "https://")) {
+            p = start + 8;
+        } else if (startsWith(text, start, "http://")) {
+            p = start + 7;
+        } else if (startsWith(text, start, "www.")) {
+            p = start + 4;
+        } else {
+            return -1;
+        }
+        int end = p;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))
+                && text.charAt(end) != '<' && text.charAt(end) != '>' && text.charAt(end) != '"') {
+            end++;
+        }
+        // Trailing punctuation belongs to the sentence
+        while (end > p && URL_TRAILING_PUNCTUATION.indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return end > p ? end : -1;
+    }
+
+    private static int emailEnd(CharSequence text, int start) {
+        int length = text.length();
+        int at = start;
+        while (at < length && isLocalPartChar(text.charAt(at))) {
+            at++;
+        }
+        if (at == start || at >= length || text.charAt(at) != '@') {
+            return -1;
+        }
+        int end = at + 1;
+        while (end < length && (isAsciiLetterOrDigit(text.charAt(end)) || text.charAt(end) == '-' || text.charAt(end) == '.')) {
+            end++;
+        }
+        while (end > at + 1 && text.charAt(end - 1) == '.') {
+            end--;
+        }
+        // The domain needs a dot with labels on both sides
+        for (int i = end - 2; i > at + 1; i--) {
+            if (text.charAt(i) == '.') {
+                return text.charAt(i - 1) != '.' ? end : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * v2, v1.4, 1.4.2, 2.0.1-beta, a number with one dot after a cue word ("version 4.2"),
+     * or any number right after a platform or product ("iOS 17")
+     */
+    private static int versionEnd(CharSequence text, int start, boolean afterVersioned) {
+        int length = text.length();
+        int p = start;
+        boolean prefixed = text.charAt(p) == 'v' || text.charAt(p) == 'V';
+        if (prefixed) {
+            p++;
+        }
+        if (p >= length || !isAsciiDigit(text.charAt(p))) {
+            return -1;
+        }
+        while (p < length && isAsciiDigit(text.charAt(p))) {
+            p++;
+        }
+        int dots = 0;
+        while (p + 1 < length && text.charAt(p) == '.' && isAsciiDigit(text.charAt(p + 1))) {
+            dots++;
+            p++;
+            while (p < length && isAsciiDigit(text.charAt(p))) {
+                p++;
+            }
+        }
+        if (!prefixed && !afterVersioned && dots < 2 && !(dots == 1 && followsCue(text, start))) {
+            return -1;
+        }
+        // Pre-release suffix
+        if (p + 1 < length && text.charAt(p) == '-' && isAsciiLetterOrDigit(text.charAt(p + 1))) {
+            p++;
+            while (p < length && isAsciiLetterOrDigit(text.charAt(p))) {
+                p++;
+            }
+        }
+        if (p < length && TextChars.isWordChar(TextChars.fold(text.charAt(p)))) {
+            return -1;
+        }
+        return p;
+    }
+
+    private static boolean followsCue(CharSequence text, int start) {
+        int end = start;
+        while (end > 0 && (text.charAt(end - 1) == ' ' || text.charAt(end - 1) == ':')) {
+            end--;
+        }
+        int wordStart = end;
+        while (wordStart > 0 && Character.isLetter(text.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        for (String cue : VERSION_CUES) {
+            if (end - wordStart == cue.length() && startsWith(text, wordStart, cue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVersioned(String type) {
+        for (String versioned : VERSIONED_TYPES) {
+            if (versioned.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean onlySpaces(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addMatch(Map<String, Object> entities, CharSequence text, int id, int start, int last) {
+        add(entities, types[id], values[id], text.subSequence(start, last + 1).toString(), start, last + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void add(Map<String, Object> entities, String type, String value, String text, int start, int end) {
+        List<Map<String, Object>> items = (List<Map<String, Object>>) entities.computeIfAbsent(type, k -> new ArrayList<>());
+        for (Map<String, Object> item : items) {
+            if (value.equals(item.get("value"))) {
+                return;
+            }
+        }
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("value", value);
+        item.put("text", text);
+        item.put("start", start);
+        item.put("end", end);
+        items.add(item);
+    }
+
+    /**
+     * Case-insensitive comparison with a lower-case ASCII prefix
+     */
+    private static boolean startsWith(CharSequence text, int start, String prefix) {
+        if (start + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (TextChars.fold(text.charAt(start + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isAsciiDigit(c);
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @Override
+    public String toString() {
+        return "EntityExtractor{" + automaton + "}";
+    }
+
+    /**
+     * Collects dictionary entries. Entries are folded to lower case; if a term appears more than
+     * once (in one dictionary or across several), the first entry wins.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, String> typeNames = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add an entry; value is the canonical name reported for it (the term itself if null).
+         * Terms must start and end with a letter or digit, since only whole words are matched.
+         */
+        public Builder add(String term, String type, String value) {
+            String trimmed = term.trim();
+            StringBuilder folded = new StringBuilder(trimmed.length());
+            for (int i = 0; i < trimmed.length(); i++) {
+                folded.append(TextChars.fold(trimmed.charAt(i)));
+            }
+            if (folded.isEmpty()
+                    || !TextChars.isWordChar(folded.charAt(0))
+                    || !TextChars.isWordChar(folded.charAt(folded.length() - 1))) {
+                throw new IllegalArgumentException("Entity term must start and end with a letter or digit: '" + term + "'");
+            }
+            String key = folded.toString();
+            if (ids.putIfAbsent(key, terms.size()) == null) {
+                terms.add(key);
+                // One string per type, however many entries share it
+                types.add(typeNames.computeIfAbsent(type, t -> t));
+                values.add(value != null && !value.isBlank() ? value : trimmed);
+            }
+            return this;
+        }
+
+        /**
+         * Add a dictionary: lines of term, type and optional canonical name separated by tabs, # for comments
+         */
+        public Builder addDictionary(InputStream input, String source) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t");
+                    if (fields.length < 2 || fields.length > 3 || fields[1].isBlank()) {
+                        throw new IllegalArgumentException(source + ":" + lineNumber + ": expected term, type and optional canonical name");
+                    }
+                    try {
+                        add(fields[0], fields[1].trim(), fields.length == 3 ? fields[2].trim() : null);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(source + ":" + lineNumber + ": " + e.getMessage(), e);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading entity dictionary " + source, e);
+            }
+            return this;
+        }
+
+        public EntityExtractor build() {
+            return new EntityExtractor(AhoCorasick.compile(terms),
+                types.toArray(new String[0]), values.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.insightdesk.nlp.text;
+
+import java.util.Arrays;
+
+/**
+ * Ranks the terms of a message by TF-IDF against the document frequencies of its project.
+ *
+ * Every message is counted into the project's {@link DocumentFrequencies} before ranking, so
+ * the corpus grows as events are processed. Terms are weighted (1 + ln tf) * (ln((1 + N) / (1 + df)) + 1);
+ * ties go to the term that occurs first. Stop words, tokens shorter than 3 chars and tokens
+ * without a letter are not candidates. Until a project has seen a few messages every term has
+ * about the same idf, and the ranking falls back to term frequency and position.
+ */
+public final class KeywordExtractor {
+
+    private static final int MIN_LENGTH = 3;
+    private static final int MAX_LENGTH = 40;
+
+    private final DocumentFrequencies frequencies;
+
+    /** Per-thread scratch arrays, so ranking does not allocate after warm-up */
+    private final ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(Scratch::new);
+
+    public KeywordExtractor(DocumentFrequencies frequencies) {
+        this.frequencies = frequencies;
+    }
+
+    /**
+     * Count the message's terms for the project and return its top terms, best first
+     */
+    public String[] extract(Long projectId, TokenBuffer tokens, int maxKeywords) {
+        return extract(projectId, tokens, maxKeywords, true);
+    }
+
+    /**
+     * Return the message's top terms, best first; count it into the project's document
+     * frequencies only if count is set (not for a message that was already counted)
+     */
+    public String[] extract(Long projectId, TokenBuffer tokens, int maxKeywords, boolean count) {
+        Scratch scratch = scratches.get();
+        int distinct = distinctTerms(tokens, scratch);
+        if (distinct < 0) {
+            return new String[0];
+        }
+
+        DocumentFrequencies.ProjectFrequencies project = frequencies.project(projectId);
+        long documents = count
+            ? project.addDocument(scratch.terms, distinct, scratch.df)
+            : project.lookup(scratch.terms, distinct, scratch.df);
+        for (int k = 0; k < distinct; k++) {
+            double idf = Math.log((1.0 + documents) / (1.0 + scratch.df[k])) + 1.0;
+            scratch.scores[k] = (1.0 + Math.log(scratch.tf[k])) * idf;
+        }
+
+        // Partial selection of the best maxKeywords terms
+        int selected = Math.min(maxKeywords, distinct);
+        String[] keywords = new String[selected];
+        for (int n = 0; n < selected; n++) {
+            int best = n;
+            for (int k = n + 1; k < distinct; k++) {
+                if (scratch.scores[k] > scratch.scores[best]
+                        || (scratch.scores[k] == scratch.scores[best] && scratch.first[k] < scratch.first[best])) {
+                    best = k;
+                }
+            }
+            scratch.swap(n, best);
+            keywords[n] = tokens.text(scratch.first[n]);
+        }
+        return keywords;
+    }
+
+    /**
+     * Distinct term ids of the message's candidate terms, to count it later with
+     * {@link #count(Long, int[])}; null if it has no candidate term, as such a message is
+     * not counted
+     */
+    public int[] terms(TokenBuffer tokens) {
+        Scratch scratch = scratches.get();
+        int distinct = distinctTerms(tokens, scratch);
+        return distinct < 0 ? null : Arrays.copyOf(scratch.terms, distinct);
+    }
+
+    /**
+     * Count one message with the given distinct terms into the project's document frequencies
+     */
+    public void count(Long projectId, int[] termIds) {
+        Scratch scratch = scratches.get();
+        scratch.ensureCapacity(termIds.length);
+        frequencies.project(projectId).addDocument(termIds, termIds.length, scratch.df);
+    }
+
+    /**
+     * Collect the distinct candidate terms of the message into the scratch arrays, with their
+     * frequency in the message and first occurrence; -1 if it has no candidate at all
+     */
+    private int distinctTerms(TokenBuffer tokens, Scratch scratch) {
+        scratch.ensureCapacity(tokens.size());
+
+        int candidates = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (isCandidate(tokens, i)) {
+                scratch.tokens[candidates++] = i;
+            }
+        }
+        if (candidates == 0) {
+            return -1;
+        }
+        frequencies.terms().intern(tokens, scratch.tokens, candidates, scratch.ids);
+
+        int distinct = 0;
+        scratch.slots.clear();
+        for (int i = 0; i < candidates; i++) {
+            int id = scratch.ids[i];
+            if (id == TermDictionary.NO_TERM) {
+                continue;
+            }
+            int slot = scratch.slots.get(id) - 1;
+            if (slot < 0) {
+                slot = distinct++;
+                scratch.slots.addTo(id, slot + 1);
+                scratch.terms[slot] = id;
+                scratch.tf[slot] = 0;
+                scratch.first[slot] = scratch.tokens[i];
+            }
+            scratch.tf[slot]++;
+        }
+        return distinct;
+    }
+
+    private static boolean isCandidate(TokenBuffer tokens, int token) {
+        int length = tokens.length(token);
+        if (tokens.isStopWord(token) || length < MIN_LENGTH || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.isLetter(tokens.charAt(token, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Scratch {
+
+        private final IntIntHashMap slots = new IntIntHashMap(64);
+
+        // Per candidate token
+        private int[] tokens = new int[64];
+        private int[] ids = new int[64];
+
+        // Per distinct term
+        private int[] terms = new int[64];
+        private int[] tf = new int[64];
+        private int[] first = new int[64];
+        private int[] df = new int[64];
+        private double[] scores = new double[64];
+
+        void ensureCapacity(int size) {
+            if (size > tokens.length) {
+                int capacity = Integer.highestOneBit(size - 1) << 1;
+                tokens = Arrays.copyOf(tokens, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                terms = Arrays.copyOf(terms, capacity);
+                tf = Arrays.copyOf(tf, capacity);
+                first = Arrays.copyOf(first, capacity);
+                df = Arrays.copyOf(df, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+        }
+
+        void swap(int a, int b) {
+            int term = terms[a];
+            terms[a] = terms[b];
+            terms[b] = term;
+            int token = first[a];
+            first[a] = first[b];
+            first[b] = token;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.insightdesk.nlp.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Language identification for feedback messages, returning ISO 639-1 codes.
+ *
+ * Letters outside the Latin script decide by script (Cyrillic = ru, Han = zh, or ja with kana,
+ * ...). Latin-script text is classified by character trigrams: each profile language has
+ * smoothed log-probabilities for hashed trigram buckets, stored interleaved in one flat float
+ * array, so scoring a trigram against every language reads one contiguous run. Only the first
+ * {@value #MAX_CHARS} chars are read. Messages with too few trigrams get the default language.
+ *
+ * Profiles are built at startup from the sample texts in lexicon/langid/{language}.txt.
+ * The instance is immutable and thread-safe.
+ */
+public final class LanguageDetector {
+
+    public static final String PROFILE_DIRECTORY = "lexicon/langid/";
+
+    private static final int MAX_CHARS = 512;
+    private static final int MIN_TRIGRAMS = 8;
+    private static final int BUCKET_BITS = 14;
+    private static final int BUCKET_MASK = (1 << BUCKET_BITS) - 1;
+    /** Additive smoothing for trigrams a sample text does not contain */
+    private static final double SMOOTHING = 0.5;
+
+    private final String[] languages;
+    /** log P(bucket | language) at [bucket * languages.length + language] */
+    private final float[] weights;
+    private final String defaultLanguage;
+
+    private LanguageDetector(String[] languages, float[] weights, String defaultLanguage) {
+        this.languages = languages;
+        this.weights = weights;
+        this.defaultLanguage = defaultLanguage;
+    }
+
+    /**
+     * Build trigram profiles for the given Latin-script languages from their sample texts
+     */
+    public static LanguageDetector load(List<String> languages, String defaultLanguage) {
+        String[] codes = new String[languages.size()];
+        int buckets = BUCKET_MASK + 1;
+        float[] weights = new float[buckets * codes.length];
+        for (int l = 0; l < codes.length; l++) {
+            codes[l] = languages.get(l).trim().toLowerCase(Locale.ROOT);
+            int[] counts = new int[buckets];
+            long total = countTrigrams(PROFILE_DIRECTORY + codes[l] + ".txt", counts);
+            double denominator = Math.log(total + SMOOTHING * buckets);
+            for (int b = 0; b < buckets; b++) {
+                weights[b * codes.length + l] = (float) (Math.log(counts[b] + SMOOTHING) - denominator);
+            }
+        }
+        return new LanguageDetector(codes, weights, defaultLanguage.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Detect the language of a message; the default language if it cannot be told
+     */
+    public String detect(CharSequence text) {
+        if (text == null) {
+            return defaultLanguage;
+        }
+
+        int count = languages.length;
+        float[] scores = new float[count];
+        int trigrams = 0;
+        int latin = 0;
+        int cyrillic = 0, greek = 0, arabic = 0, hebrew = 0, han = 0, kana = 0, hangul = 0, thai = 0, devanagari = 0;
+
+        // Letters are lower-cased, everything else is a single word separator
+        char first = ' ';
+        char second = ' ';
+        int length = Math.min(text.length(), MAX_CHARS);
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetter(c)) {
+                if (c < 0x250) {
+                    latin++;
+                } else {
+                    switch (Character.UnicodeScript.of(c)) {
+                        case LATIN -> latin++;
+                        case CYRILLIC -> cyrillic++;
+                        case GREEK -> greek++;
+                        case ARABIC -> arabic++;
+                        case HEBREW -> hebrew++;
+                        case HAN -> han++;
+                        case HIRAGANA, KATAKANA -> kana++;
+                        case HANGUL -> hangul++;
+                        case THAI -> thai++;
+                        case DEVANAGARI -> devanagari++;
+                        default -> {
+                        }
+                    }
+                }
+                c = TextChars.fold(c);
+            } else {
+                if (second == ' ') {
+                    continue;
+                }
+                c = ' ';
+            }
+            if (second != ' ' || first != ' ') {
+                int base = bucket(first, second, c) * count;
+                for (int l = 0; l < count; l++) {
+                    scores[l] += weights[base + l];
+                }
+                trigrams++;
+            }
+            first = second;
+            second = c;
+        }
+
+        int other = Math.max(Math.max(Math.max(cyrillic, greek), Math.max(arabic, hebrew)),
+            Math.max(Math.max(han + kana, hangul), Math.max(thai, devanagari)));
+        if (other > latin) {
+            if (other == han + kana) {
+                return kana > 0 ? "ja" : "zh";
+            } else if (other == cyrillic) {
+                return "ru";
+            } else if (other == greek) {
+                return "el";
+            } else if (other == arabic) {
+                return "ar";
+            } else if (other == hebrew) {
+                return "he";
+            } else if (other == hangul) {
+                return "ko";
+            } else if (other == thai) {
+                return "th";
+            }
+            return "hi";
+        }
+
+        if (trigrams < MIN_TRIGRAMS || count == 0) {
+            return defaultLanguage;
+        }
+        int best = 0;
+        for (int l = 1; l < count; l++) {
+            if (scores[l] > scores[best]) {
+                best = l;
+            }
+        }
+        return languages[best];
+    }
+
+    public String defaultLanguage() {
+        return defaultLanguage;
+    }
+
+    /**
+     * Count the trigrams of a sample text the same way {@link #detect} reads messages; returns the total
+     */
+    private static long countTrigrams(String resource, int[] counts) {
+        InputStream input = LanguageDetector.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalArgumentException("Language profile sample not found on classpath: " + resource);
+        }
+        long total = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                char first = ' ';
+                char second = ' ';
+                for (int i = 0; i <= line.length(); i++) {
+                    char c = i < line.length() && Character.isLetter(line.charAt(i)) ? TextChars.fold(line.charAt(i)) : ' ';
+                    if (c == ' ' && second == ' ') {
+                        continue;
+                    }
+                    if (second != ' ' || first != ' ') {
+                        counts[bucket(first, second, c)]++;
+                        total++;
+                    }
+                    first = second;
+                    second = c;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading language profile sample " + resource, e);
+        }
+        return total;
+    }
+
+    private static int bucket(char first, char second, char third) {
+        int h = ((first * 31) + second) * 31 + third;
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 15)) & BUCKET_MASK;
+    }
+
+    @Override
+    public String toString() {
+        return "LanguageDetector{languages=" + String.join(",", languages) + ", buckets=" + (BUCKET_MASK + 1) + "}";
+    }
+}
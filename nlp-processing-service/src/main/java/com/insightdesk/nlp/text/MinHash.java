@@ -0,0 +1,90 @@
+package com.insightdesk.nlp.text;
+
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of tokenized messages, for estimating the Jaccard similarity of
+ * their word shingles (pairs of adjacent tokens; the token itself for one-token messages).
+ *
+ * Each signature value is the minimum of one multiply-shift hash over the message's
+ * shingles; the share of equal values in two signatures estimates the similarity. Token
+ * hashes come from {@link TokenBuffer#hash(int)}, so no strings are created. The hash
+ * functions are derived from a fixed seed, so signatures are stable across restarts.
+ * The instance is immutable and thread-safe.
+ */
+public final class MinHash {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final long[] multipliers;
+    private final long[] increments;
+
+    public MinHash(int signatureLength) {
+        if (signatureLength <= 0) {
+            throw new IllegalArgumentException("Signature length must be positive: " + signatureLength);
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        multipliers = new long[signatureLength];
+        increments = new long[signatureLength];
+        for (int i = 0; i < signatureLength; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    public int signatureLength() {
+        return multipliers.length;
+    }
+
+    /**
+     * Write the signature of the tokens to signature[0, signatureLength()); returns false,
+     * leaving the array untouched, if there are no tokens
+     */
+    public boolean signature(TokenBuffer tokens, int[] signature) {
+        int size = tokens.size();
+        if (size == 0) {
+            return false;
+        }
+        int length = multipliers.length;
+        for (int i = 0; i < length; i++) {
+            signature[i] = Integer.MAX_VALUE;
+        }
+
+        int previous = tokens.hash(0);
+        for (int t = size == 1 ? 0 : 1; t < size; t++) {
+            int current = tokens.hash(t);
+            long shingle = mix(size == 1 ? current : ((long) previous << 32) | (current & 0xFFFFFFFFL));
+            for (int i = 0; i < length; i++) {
+                // Top 31 bits of a*x + b: a non-negative value, so plain int comparison works
+                int value = (int) ((multipliers[i] * shingle + increments[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+            previous = current;
+        }
+        return true;
+    }
+
+    /**
+     * Estimated Jaccard similarity: the share of equal values in two signatures
+     */
+    public static double similarity(int[] a, int aOffset, int[] b, int bOffset, int length) {
+        int equal = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] == b[bOffset + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / length;
+    }
+
+    /**
+     * Finalizer of SplitMix64, so similar shingles hash far apart before the linear hashes
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,192 @@
+package com.insightdesk.nlp.text;
+
+/**
+ * LSH index of recent {@link MinHash} signatures, for finding earlier feedback of the same
+ * project that is nearly identical to a new message.
+ *
+ * A signature is split into bands of rows; messages whose signatures agree on every row of
+ * at least one band are candidates, and a candidate is a near-duplicate if its estimated
+ * similarity reaches the threshold. With 16 bands of 4 rows, pairs at 0.8 similarity are
+ * candidates with probability 0.9998, while pairs below 0.3 rarely are.
+ *
+ * Entries live in a ring of fixed capacity, so memory is allocated once: when the ring is
+ * full the oldest entry is overwritten, and entries older than the window are ignored.
+ * Each band bucket is a chain through the ring from its newest entry to older ones; a link
+ * to an overwritten slot is recognized by the slot's newer insertion sequence, so eviction
+ * never has to unlink anything. All methods lock the index; a lookup is a few microseconds.
+ */
+public final class NearDuplicateIndex {
+
+    /** Returned by {@link #findOrAdd} for messages that are not near-duplicates */
+    public static final long NO_DUPLICATE = -1L;
+
+    private static final int NO_SLOT = -1;
+
+    private final int bands;
+    private final int rows;
+    private final int signatureLength;
+    private final int capacity;
+    private final long windowMillis;
+    private final double threshold;
+
+    private final long[] ids;
+    private final long[] projects;
+    private final long[] timestamps;
+    /** Insertion sequence of each slot, starting at 1; 0 for a slot never used */
+    private final long[] sequences;
+    private final int[] signatures;
+    /** Bucket key of each band of each slot, at [slot * bands + band] */
+    private final int[] bandKeys;
+    /** Next older slot in the same bucket, at [slot * bands + band] */
+    private final int[] next;
+    private final int[] scratchKeys;
+    private long sequence;
+
+    /** Bucket key to newest slot + 1 */
+    private IntIntHashMap heads;
+
+    public NearDuplicateIndex(int bands, int rows, int capacity, long windowMillis, double threshold) {
+        if (bands <= 0 || rows <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Bands, rows and capacity must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.signatureLength = bands * rows;
+        this.capacity = capacity;
+        this.windowMillis = windowMillis;
+        this.threshold = threshold;
+        this.ids = new long[capacity];
+        this.projects = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.sequences = new long[capacity];
+        this.signatures = new int[capacity * signatureLength];
+        this.bandKeys = new int[capacity * bands];
+        this.next = new int[capacity * bands];
+        this.scratchKeys = new int[bands];
+        this.heads = new IntIntHashMap(capacity * bands);
+    }
+
+    /**
+     * Signature length the index expects: bands * rows
+     */
+    public int signatureLength() {
+        return signatureLength;
+    }
+
+    public int bands() {
+        return bands;
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    /**
+     * Bucket key of every band of a signature, into keys; for looking candidates up in a
+     * store shared between instances, with the same banding as this index
+     */
+    public void bandKeys(long projectId, int[] signature, int[] keys) {
+        for (int band = 0; band < bands; band++) {
+            keys[band] = bandKey(projectId, band, signature);
+        }
+    }
+
+    /**
+     * Find the most similar recent message of the project within the window and return its
+     * id. Otherwise the message is added, and {@link #NO_DUPLICATE} is returned; so is it for
+     * a message whose id is already in the index (a redelivery). Near-duplicates are not
+     * added, so every match is the first message of its group: the canonical one.
+     */
+    public synchronized long findOrAdd(long id, long projectId, int[] signature, long timestamp) {
+        long cutoff = timestamp - windowMillis;
+        int best = NO_SLOT;
+        double bestSimilarity = threshold;
+        for (int band = 0; band < bands; band++) {
+            int key = bandKey(projectId, band, signature);
+            scratchKeys[band] = key;
+            long newer = Long.MAX_VALUE;
+            for (int slot = heads.get(key) - 1; slot != NO_SLOT; slot = next[slot * bands + band]) {
+                // Stop at a slot overwritten since it was linked, or at expired entries
+                if (sequences[slot] >= newer || bandKeys[slot * bands + band] != key || timestamps[slot] < cutoff) {
+                    break;
+                }
+                newer = sequences[slot];
+                if (projects[slot] != projectId) {
+                    continue;
+                }
+                if (ids[slot] == id) {
+                    return NO_DUPLICATE;
+                }
+                if (slot != best) {
+                    double similarity = MinHash.similarity(signatures, slot * signatureLength, signature, 0, signatureLength);
+                    if (similarity >= bestSimilarity) {
+                        best = slot;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+        }
+        if (best != NO_SLOT) {
+            return ids[best];
+        }
+        add(id, projectId, signature, timestamp);
+        return NO_DUPLICATE;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(sequence, capacity);
+    }
+
+    private void add(long id, long projectId, int[] signature, long timestamp) {
+        int slot = (int) (sequence % capacity);
+        ids[slot] = id;
+        projects[slot] = projectId;
+        timestamps[slot] = timestamp;
+        sequences[slot] = ++sequence;
+        System.arraycopy(signature, 0, signatures, slot * signatureLength, signatureLength);
+        for (int band = 0; band < bands; band++) {
+            bandKeys[slot * bands + band] = scratchKeys[band];
+            next[slot * bands + band] = heads.put(scratchKeys[band], slot + 1) - 1;
+        }
+
+        // Buckets whose entries were all overwritten keep their head; drop them once they
+        // make up a third of the table
+        if (heads.size() > capacity * bands * 3 / 2) {
+            relink();
+        }
+    }
+
+    /**
+     * Rebuild the bucket heads and chains from the live slots, oldest first
+     */
+    private void relink() {
+        heads = new IntIntHashMap(capacity * bands);
+        int live = size();
+        int oldest = sequence > capacity ? (int) (sequence % capacity) : 0;
+        for (int i = 0; i < live; i++) {
+            int slot = (oldest + i) % capacity;
+            for (int band = 0; band < bands; band++) {
+                next[slot * bands + band] = heads.put(bandKeys[slot * bands + band], slot + 1) - 1;
+            }
+        }
+    }
+
+    /**
+     * Bucket key of one band: the project and band number hashed with the band's rows. Keys
+     * of different buckets may collide; candidates are checked by similarity and project.
+     */
+    private int bandKey(long projectId, int band, int[] signature) {
+        long h = projectId * 0x9E3779B97F4A7C15L + band;
+        for (int r = band * rows, end = r + rows; r < end; r++) {
+            h = (h ^ signature[r]) * 0xBF58476D1CE4E5B9L;
+        }
+        h ^= h >>> 31;
+        return (int) (h ^ (h >>> 32)) & Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "NearDuplicateIndex{bands=" + bands + ", rows=" + rows + ", capacity=" + capacity
+            + ", windowMillis=" + windowMillis + ", threshold=" + threshold + "}";
+    }
+}
@@ -0,0 +1,228 @@
+package com.insightdesk.nlp.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lexicon-based sentiment scorer.
+ *
+ * All lexicon terms (sentiment words and phrases, negators, intensifiers, contrast words)
+ * are compiled into one {@link AhoCorasick} automaton, and a message is scored in a single
+ * pass over its chars with case folding on the fly. Only whole-word matches count; where
+ * terms overlap, the longest one wins. Negation ends at clause punctuation. Scoring keeps its state in locals, so
+ * {@link #score(CharSequence)} does not allocate; the instance is immutable and thread-safe.
+ *
+ * The result is a primitive in [0, 1] (0.5 = neutral), the scale of feedback.sentiment_score;
+ * use {@link #toNumeric(double)} when it is persisted.
+ */
+public final class SentimentScorer {
+
+    public static final String DEFAULT_LEXICON = "lexicon/sentiment.tsv";
+
+    public static final double NEUTRAL = 0.5;
+
+    private static final byte SENTIMENT = 0;
+    private static final byte NEGATOR = 1;
+    private static final byte INTENSIFIER = 2;
+    private static final byte CONTRAST = 3;
+
+    /** Words after a negator that it applies to */
+    private static final int NEGATION_SCOPE = 3;
+    /** Words after an intensifier that it can reach */
+    private static final int INTENSIFIER_SCOPE = 2;
+    /** Valence multiplier for negated terms ("not good" is weaker than "bad") */
+    private static final double NEGATION_FACTOR = -0.74;
+    private static final double BEFORE_CONTRAST = 0.5;
+    private static final double AFTER_CONTRAST = 1.5;
+    /** Normalization constant for sum / sqrt(sum^2 + alpha) */
+    private static final double ALPHA = 15.0;
+
+    private final AhoCorasick automaton;
+    private final byte[] types;
+    private final double[] values;
+
+    private SentimentScorer(AhoCorasick automaton, byte[] types, double[] values) {
+        this.automaton = automaton;
+        this.types = types;
+        this.values = values;
+    }
+
+    /**
+     * Load the lexicon bundled with the service
+     */
+    public static SentimentScorer load() {
+        return load(DEFAULT_LEXICON);
+    }
+
+    /**
+     * Load a lexicon from the classpath: lines of term, type and value separated by tabs
+     */
+    public static SentimentScorer load(String resource) {
+        InputStream input = SentimentScorer.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalArgumentException("Lexicon not found on classpath: " + resource);
+        }
+        List<String> terms = new ArrayList<>();
+        List<Byte> typeList = new ArrayList<>();
+        List<Double> valueList = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException(resource + ":" + lineNumber + ": expected term, type and value");
+                }
+                terms.add(fields[0].trim().toLowerCase(Locale.ROOT));
+                typeList.add(parseType(fields[1].trim(), resource, lineNumber));
+                valueList.add(Double.parseDouble(fields[2].trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading lexicon " + resource, e);
+        }
+
+        byte[] types = new byte[terms.size()];
+        double[] values = new double[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            types[i] = typeList.get(i);
+            values[i] = valueList.get(i);
+        }
+        return new SentimentScorer(AhoCorasick.compile(terms), types, values);
+    }
+
+    private static byte parseType(String type, String resource, int lineNumber) {
+        return switch (type) {
+            case "sentiment" -> SENTIMENT;
+            case "negator" -> NEGATOR;
+            case "intensifier" -> INTENSIFIER;
+            case "contrast" -> CONTRAST;
+            default -> throw new IllegalArgumentException(resource + ":" + lineNumber + ": unknown type " + type);
+        };
+    }
+
+    /**
+     * Score a message: 0 = very negative, 0.5 = neutral (or no sentiment terms), 1 = very positive
+     */
+    public double score(CharSequence text) {
+        if (text == null) {
+            return NEUTRAL;
+        }
+
+        int length = text.length();
+        int state = AhoCorasick.ROOT;
+        int word = -1;
+        boolean inWord = false;
+        int lastMatchStart = -1;
+        int lastMatchEnd = -1;
+        double lastContribution = 0.0;
+
+        int negatedThrough = -1;
+        int negatorWord = -1;
+        double boost = 1.0;
+        int boostThrough = -1;
+        double sum = 0.0;
+        double weight = 1.0;
+
+        char c = length > 0 ? TextChars.fold(text.charAt(0)) : 0;
+        for (int i = 0; i < length; i++) {
+            char next = i + 1 < length ? TextChars.fold(text.charAt(i + 1)) : ' ';
+            boolean wordChar = TextChars.isWordChar(c);
+            if (wordChar && !inWord) {
+                word++;
+            }
+            inWord = wordChar;
+            if (isClauseBreak(c)) {
+                // Negation does not carry over into the next clause
+                negatedThrough = -1;
+            }
+            state = automaton.next(state, c);
+
+            // Terms end on a word char followed by a non-word char
+            if (wordChar && !TextChars.isWordChar(next)) {
+                for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+                    int id = automaton.patternAt(m);
+                    int start = i - automaton.patternLength(id) + 1;
+                    if (start > 0 && TextChars.isWordChar(TextChars.fold(text.charAt(start - 1)))) {
+                        continue;
+                    }
+                    if (start <= lastMatchEnd) {
+                        if (start > lastMatchStart) {
+                            // Partial overlap with an earlier term
+                            continue;
+                        }
+                        // A longer term covering the previous one ("waste" -> "waste of time") replaces it
+                        sum -= lastContribution;
+                    }
+                    lastMatchStart = start;
+                    lastMatchEnd = i;
+                    lastContribution = 0.0;
+
+                    switch (types[id]) {
+                        case NEGATOR -> {
+                            negatorWord = word;
+                            negatedThrough = word + NEGATION_SCOPE;
+                        }
+                        case INTENSIFIER -> {
+                            boost = values[id];
+                            boostThrough = word + INTENSIFIER_SCOPE;
+                        }
+                        case CONTRAST -> {
+                            sum *= BEFORE_CONTRAST;
+                            weight = AFTER_CONTRAST;
+                        }
+                        default -> {
+                            double valence = values[id];
+                            if (word <= boostThrough) {
+                                valence *= boost;
+                                boostThrough = -1;
+                            }
+                            if (word > negatorWord && word <= negatedThrough) {
+                                valence *= NEGATION_FACTOR;
+                            }
+                            lastContribution = valence * weight;
+                            sum += lastContribution;
+                        }
+                    }
+                    // Longest match only
+                    break;
+                }
+            }
+            c = next;
+        }
+
+        if (sum == 0.0) {
+            return NEUTRAL;
+        }
+        double compound = sum / Math.sqrt(sum * sum + ALPHA);
+        return (compound + 1.0) / 2.0;
+    }
+
+    /**
+     * Convert a score to the NUMERIC(3,2) value stored in feedback.sentiment_score
+     */
+    public static BigDecimal toNumeric(double score) {
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static boolean isClauseBreak(char c) {
+        return c == ',' || c == '.' || c == ';' || c == ':' || c == '!' || c == '?';
+    }
+
+    @Override
+    public String toString() {
+        return "SentimentScorer{" + automaton + "}";
+    }
+}
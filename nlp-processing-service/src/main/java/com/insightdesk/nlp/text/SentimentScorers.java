@@ -0,0 +1,37 @@
+package com.insightdesk.nlp.text;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One {@link SentimentScorer} per language that has a lexicon (lexicon/sentiment-{language}.tsv).
+ * Other languages, and missing ones, use the default lexicon ({@link SentimentScorer#DEFAULT_LEXICON}).
+ */
+public final class SentimentScorers {
+
+    private final Map<String, SentimentScorer> byLanguage = new HashMap<>();
+    private final SentimentScorer defaultScorer;
+
+    public SentimentScorers(Iterable<String> languages) {
+        this.defaultScorer = SentimentScorer.load();
+        for (String language : languages) {
+            String key = language.trim().toLowerCase(Locale.ROOT);
+            String resource = "lexicon/sentiment-" + key + ".tsv";
+            if (SentimentScorers.class.getClassLoader().getResource(resource) != null) {
+                byLanguage.put(key, SentimentScorer.load(resource));
+            }
+        }
+    }
+
+    public SentimentScorer forLanguage(String language) {
+        if (language == null) {
+            return defaultScorer;
+        }
+        return byLanguage.getOrDefault(language, defaultScorer);
+    }
+
+    public SentimentScorer defaultScorer() {
+        return defaultScorer;
+    }
+}
@@ -0,0 +1,110 @@
+package com.insightdesk.nlp.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable stop-word set that is probed with a char slice, so tokens can be checked
+ * without creating a string. Open addressing over String.hashCode-compatible hashes.
+ */
+public final class StopWords {
+
+    private final String[] table;
+    private final int mask;
+    private final int size;
+
+    private StopWords(Set<String> words) {
+        int capacity = Integer.highestOneBit(Math.max(4, words.size() * 2) - 1) << 1;
+        this.table = new String[capacity];
+        this.mask = capacity - 1;
+        this.size = words.size();
+        for (String word : words) {
+            int slot = spread(word.hashCode()) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = word;
+        }
+    }
+
+    public static StopWords of(Set<String> words) {
+        return new StopWords(words);
+    }
+
+    /**
+     * Load lexicon/stopwords-{language}.txt from the classpath: whitespace-separated words, # for comments.
+     * Words are normalized the same way as tokens.
+     */
+    public static StopWords load(String language) {
+        String resource = "lexicon/stopwords-" + language.toLowerCase(Locale.ROOT) + ".txt";
+        InputStream input = StopWords.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalArgumentException("Stop-word list not found on classpath: " + resource);
+        }
+        Set<String> words = new LinkedHashSet<>();
+        TokenBuffer buffer = new TokenBuffer();
+        Tokenizer tokenizer = new Tokenizer();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                tokenizer.tokenize(line, buffer);
+                for (int i = 0; i < buffer.size(); i++) {
+                    words.add(buffer.text(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading stop words " + resource, e);
+        }
+        return new StopWords(words);
+    }
+
+    public boolean contains(char[] chars, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + chars[i];
+        }
+        for (int slot = spread(h) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            String word = table[slot];
+            if (word.length() == length && matches(word, chars, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(CharSequence word) {
+        for (int slot = spread(word.toString().hashCode()) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            if (table[slot].contentEquals(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(String word, char[] chars, int offset) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,110 @@
+package com.insightdesk.nlp.text;
+
+import java.util.Arrays;
+
+/**
+ * Assigns a dense int id to every distinct term, so counts can be kept in primitive maps.
+ * Terms are looked up with a token slice and only become strings when first added.
+ *
+ * Thread-safe; a message's tokens are interned in one call to keep locking per message.
+ */
+public final class TermDictionary {
+
+    /** Id of a token that could not be added because the dictionary is full */
+    public static final int NO_TERM = -1;
+
+    private final int maxTerms;
+
+    private String[] terms = new String[1024];
+    private int[] hashes = new int[1024];
+    private int size;
+
+    /** Open-addressing table of term id + 1; 0 marks an empty slot */
+    private int[] table = new int[2048];
+    private int mask = table.length - 1;
+
+    public TermDictionary(int maxTerms) {
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * Write the id of each of the given tokens to ids[0..count), adding new terms.
+     * Once maxTerms is reached, unseen terms get {@link #NO_TERM}.
+     */
+    public synchronized void intern(TokenBuffer tokens, int[] tokenIndexes, int count, int[] ids) {
+        for (int i = 0; i < count; i++) {
+            ids[i] = intern(tokens, tokenIndexes[i]);
+        }
+    }
+
+    /**
+     * Id of the term, adding it if needed (used when loading a snapshot)
+     */
+    public synchronized int intern(String term) {
+        int h = term.hashCode();
+        int slot = spread(h) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == h && terms[id].equals(term)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(term, h, slot);
+    }
+
+    public synchronized String term(int id) {
+        return terms[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int intern(TokenBuffer tokens, int token) {
+        int h = tokens.hash(token);
+        int slot = spread(h) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == h && tokens.textEquals(token, terms[id])) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(tokens.text(token), h, slot);
+    }
+
+    private int add(String term, int h, int slot) {
+        if (size >= maxTerms) {
+            return NO_TERM;
+        }
+        if (size == terms.length) {
+            terms = Arrays.copyOf(terms, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        terms[id] = term;
+        hashes[id] = h;
+        table[slot] = id + 1;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,31 @@
+package com.insightdesk.nlp.text;
+
+/**
+ * Char helpers shared by the single-pass scanners that match raw message text
+ * ({@link SentimentScorer}, {@link EntityExtractor})
+ */
+final class TextChars {
+
+    private TextChars() {
+    }
+
+    /**
+     * Lower-case a char, mapping the typographic apostrophe (U+2019) to ASCII so it matches "don't"
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        if (c == '\u2019') {
+            return '\'';
+        }
+        return Character.toLowerCase(c);
+    }
+
+    static boolean isWordChar(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '\'';
+        }
+        return Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,140 @@
+package com.insightdesk.nlp.text;
+
+import java.util.Arrays;
+
+/**
+ * Reusable output of {@link Tokenizer}: normalized tokens stored back to back in one
+ * char array, with per-token start, length, source offset and stop-word flag.
+ *
+ * A buffer is cleared and refilled for every message, so after warm-up tokenizing does
+ * not allocate. Not thread-safe; keep one per thread.
+ */
+public final class TokenBuffer {
+
+    private char[] chars = new char[512];
+    private int charCount;
+
+    private int[] starts = new int[64];
+    private int[] lengths = new int[64];
+    private int[] sourceOffsets = new int[64];
+    private boolean[] stopWords = new boolean[64];
+    private int size;
+
+    private int tokenStart = -1;
+
+    public void clear() {
+        charCount = 0;
+        size = 0;
+        tokenStart = -1;
+    }
+
+    /**
+     * Number of tokens
+     */
+    public int size() {
+        return size;
+    }
+
+    public int length(int token) {
+        return lengths[token];
+    }
+
+    public char charAt(int token, int index) {
+        return chars[starts[token] + index];
+    }
+
+    /**
+     * Offset of the token's first char in the tokenized text
+     */
+    public int sourceOffset(int token) {
+        return sourceOffsets[token];
+    }
+
+    public boolean isStopWord(int token) {
+        return stopWords[token];
+    }
+
+    /**
+     * Backing array; token chars are at [start(token), start(token) + length(token))
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    public int start(int token) {
+        return starts[token];
+    }
+
+    /**
+     * Same hash as {@link String#hashCode()} of the token text, computed without creating the string
+     */
+    public int hash(int token) {
+        int h = 0;
+        for (int i = starts[token], end = i + lengths[token]; i < end; i++) {
+            h = 31 * h + chars[i];
+        }
+        return h;
+    }
+
+    public boolean sameText(int token, int other) {
+        return Arrays.equals(chars, starts[token], starts[token] + lengths[token],
+            chars, starts[other], starts[other] + lengths[other]);
+    }
+
+    public boolean textEquals(int token, CharSequence text) {
+        if (lengths[token] != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < lengths[token]; i++) {
+            if (chars[starts[token] + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Token text as a new string; only call this for tokens that are kept
+     */
+    public String text(int token) {
+        return new String(chars, starts[token], lengths[token]);
+    }
+
+    void startToken(int sourceOffset) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            sourceOffsets = Arrays.copyOf(sourceOffsets, capacity);
+            stopWords = Arrays.copyOf(stopWords, capacity);
+        }
+        tokenStart = charCount;
+        sourceOffsets[size] = sourceOffset;
+    }
+
+    void append(char c) {
+        if (charCount == chars.length) {
+            chars = Arrays.copyOf(chars, charCount * 2);
+        }
+        chars[charCount++] = c;
+    }
+
+    boolean inToken() {
+        return tokenStart >= 0;
+    }
+
+    /**
+     * Finish the current token; returns its index
+     */
+    int endToken() {
+        starts[size] = tokenStart;
+        lengths[size] = charCount - tokenStart;
+        stopWords[size] = false;
+        tokenStart = -1;
+        return size++;
+    }
+
+    void markStopWord(int token) {
+        stopWords[token] = true;
+    }
+}
@@ -0,0 +1,100 @@
+package com.insightdesk.nlp.text;
+
+import java.text.Normalizer;
+
+/**
+ * Single-pass tokenizer shared by the NLP stages.
+ *
+ * Walks the text's code points once and writes tokens into a reusable {@link TokenBuffer}.
+ * Tokens are runs of letters and digits; apostrophes inside a word are dropped
+ * ("don't" becomes "dont"), everything else separates tokens. Case and accents are
+ * folded on the fly through a table precomputed for the Latin blocks, so no normalized
+ * copy of the message is made.
+ *
+ * A tokenizer is immutable and thread-safe; buffers are not.
+ */
+public final class Tokenizer {
+
+    /** Folded form of every char below FOLD_LIMIT: lower case, accents removed */
+    private static final char[] FOLD;
+    private static final int FOLD_LIMIT = 0x250;
+
+    static {
+        FOLD = new char[FOLD_LIMIT];
+        for (char c = 0; c < FOLD_LIMIT; c++) {
+            char lower = Character.toLowerCase(c);
+            String decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            FOLD[c] = base < FOLD_LIMIT && Character.isLetter(base) ? base : lower;
+        }
+    }
+
+    private final StopWords stopWords;
+
+    /**
+     * Tokenizer that does not flag stop words
+     */
+    public Tokenizer() {
+        this(null);
+    }
+
+    public Tokenizer(StopWords stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    /**
+     * Tokenize text into the buffer, replacing its previous contents
+     */
+    public void tokenize(CharSequence text, TokenBuffer buffer) {
+        buffer.clear();
+        if (text == null) {
+            return;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = Character.codePointAt(text, i);
+            int charCount = Character.charCount(codePoint);
+
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (!buffer.inToken()) {
+                    buffer.startToken(i);
+                }
+                if (codePoint < FOLD_LIMIT) {
+                    buffer.append(FOLD[codePoint]);
+                } else {
+                    int lower = Character.toLowerCase(codePoint);
+                    if (Character.isBmpCodePoint(lower)) {
+                        buffer.append((char) lower);
+                    } else {
+                        buffer.append(Character.highSurrogate(lower));
+                        buffer.append(Character.lowSurrogate(lower));
+                    }
+                }
+            } else if (buffer.inToken() && (Character.getType(codePoint) == Character.NON_SPACING_MARK
+                    || (isApostrophe(codePoint) && i + charCount < length
+                        && Character.isLetterOrDigit(Character.codePointAt(text, i + charCount))))) {
+                // Combining accents and apostrophes inside a word do not end the token
+            } else {
+                finishToken(buffer);
+            }
+            i += charCount;
+        }
+        finishToken(buffer);
+    }
+
+    private void finishToken(TokenBuffer buffer) {
+        if (!buffer.inToken()) {
+            return;
+        }
+        int token = buffer.endToken();
+        if (stopWords != null && stopWords.contains(buffer.chars(), buffer.start(token), buffer.length(token))) {
+            buffer.markStopWord(token);
+        }
+    }
+
+    private static boolean isApostrophe(int codePoint) {
+        return codePoint == '\'' || codePoint == 0x2019;
+    }
+}
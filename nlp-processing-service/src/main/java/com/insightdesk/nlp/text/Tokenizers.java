@@ -0,0 +1,36 @@
+package com.insightdesk.nlp.text;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One {@link Tokenizer} per configured language, each flagging that language's stop words.
+ * Unknown or missing languages fall back to the default language.
+ */
+public final class Tokenizers {
+
+    private final Map<String, Tokenizer> byLanguage = new HashMap<>();
+    private final Tokenizer defaultTokenizer;
+
+    public Tokenizers(Iterable<String> languages, String defaultLanguage) {
+        for (String language : languages) {
+            String key = language.trim().toLowerCase(Locale.ROOT);
+            byLanguage.put(key, new Tokenizer(StopWords.load(key)));
+        }
+        String defaultKey = defaultLanguage.trim().toLowerCase(Locale.ROOT);
+        Tokenizer fallback = byLanguage.get(defaultKey);
+        this.defaultTokenizer = fallback != null ? fallback : new Tokenizer(StopWords.load(defaultKey));
+    }
+
+    public Tokenizer forLanguage(String language) {
+        if (language == null) {
+            return defaultTokenizer;
+        }
+        return byLanguage.getOrDefault(language, defaultTokenizer);
+    }
+
+    public Tokenizer defaultTokenizer() {
+        return defaultTokenizer;
+    }
+}
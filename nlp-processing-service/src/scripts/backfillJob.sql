@@ -0,0 +1,33 @@
+-- ======================================================
+-- Reprocessing (backfill) jobs of the NLP service
+--
+-- A job walks feedback by id up to max_id, the highest id
+-- when it was created; last_id is the checkpoint, written in
+-- the same transaction as the results of each chunk. The
+-- instance running a job holds a lease (owner, lease_until);
+-- a job whose lease ran out is resumed by any instance.
+-- At most one job is RUNNING at a time.
+-- ======================================================
+
+CREATE TABLE IF NOT EXISTS nlp_backfill_job (
+    id BIGSERIAL PRIMARY KEY,
+    scope VARCHAR(16) NOT NULL,
+    project_id BIGINT,
+    created_from TIMESTAMPTZ,
+    created_to TIMESTAMPTZ,
+    model_version VARCHAR(32) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    first_id BIGINT NOT NULL,
+    last_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    written_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    owner VARCHAR(128),
+    lease_until TIMESTAMPTZ,
+    error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_nlp_backfill_job_running ON nlp_backfill_job (status) WHERE status = 'RUNNING';
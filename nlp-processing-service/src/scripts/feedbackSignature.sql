@@ -0,0 +1,31 @@
+-- ======================================================
+-- Near-duplicate detection shared by all NLP instances
+--
+-- feedback_signature holds the MinHash signature of every
+-- canonical message (one that is not a near-duplicate);
+-- feedback_signature_band holds the LSH bucket key of each
+-- of its bands. project_id 0 holds feedback without a
+-- project. Lookups and inserts of a project run under a
+-- transaction-scoped advisory lock, and signatures older
+-- than nlp.duplicates.window-minutes are purged by the
+-- service. Only used with nlp.duplicates.store=postgres.
+-- ======================================================
+
+CREATE TABLE IF NOT EXISTS feedback_signature (
+    feedback_id BIGINT PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    signature INT[] NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_feedback_signature_created_at ON feedback_signature (created_at);
+
+CREATE TABLE IF NOT EXISTS feedback_signature_band (
+    project_id BIGINT NOT NULL,
+    band_key INT NOT NULL,
+    feedback_id BIGINT NOT NULL REFERENCES feedback_signature (feedback_id) ON DELETE CASCADE,
+    PRIMARY KEY (project_id, band_key, feedback_id)
+);
+
+-- Cascaded deletes from feedback_signature look rows up by feedback_id
+CREATE INDEX IF NOT EXISTS idx_feedback_signature_band_feedback_id ON feedback_signature_band (feedback_id);
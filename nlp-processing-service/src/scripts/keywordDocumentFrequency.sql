@@ -0,0 +1,20 @@
+-- ======================================================
+-- Document frequencies for TF-IDF keyword extraction
+-- Owned by nlp-processing-service: each consumer instance
+-- adds the counts it accumulated since its last snapshot
+-- and loads the totals at startup.
+-- project_id 0 holds feedback without a project.
+-- ======================================================
+
+CREATE TABLE IF NOT EXISTS keyword_document_count (
+    project_id BIGINT PRIMARY KEY,
+    documents BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS keyword_term_frequency (
+    project_id BIGINT NOT NULL,
+    term TEXT NOT NULL,
+    documents BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, term)
+);
@@ -0,0 +1,89 @@
+package com.insightdesk.nlp.repository;
+
+import com.insightdesk.nlp.dto.BackfillStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BackfillRepositoryTests {
+
+	private static final String SELECT = "SELECT id, user_id, project_id, message, category, sentiment_score, "
+		+ "keywords, entities, processed, created_at FROM feedback WHERE id > ? AND id <= ?";
+
+	private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+	@Test
+	void eachScopeSelectsItsRows() {
+		BackfillRepository repository = repository();
+
+		repository.findChunk(job("UNPROCESSED"), 100, 500);
+		assertEquals(SELECT + " AND processed IS NOT TRUE ORDER BY id LIMIT ?", jdbcTemplate.sql);
+		assertEquals(List.of(100L, 900L, 500), jdbcTemplate.args);
+
+		repository.findChunk(job("STALE"), 100, 500);
+		assertEquals(SELECT + " AND processed = TRUE AND model_version IS DISTINCT FROM ? ORDER BY id LIMIT ?",
+			jdbcTemplate.sql);
+		assertEquals(List.of(100L, 900L, "2", 500), jdbcTemplate.args);
+
+		repository.findChunk(job("ALL"), 100, 500);
+		assertEquals(SELECT + " AND (processed IS NOT TRUE OR model_version IS DISTINCT FROM ?) ORDER BY id LIMIT ?",
+			jdbcTemplate.sql);
+		assertEquals(List.of(100L, 900L, "2", 500), jdbcTemplate.args);
+	}
+
+	@Test
+	void projectAndCreationRangeNarrowTheScope() {
+		BackfillRepository repository = repository();
+		OffsetDateTime from = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+		OffsetDateTime to = OffsetDateTime.of(2025, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+		BackfillStatus job = job("STALE");
+		job.setProjectId(7L);
+		job.setCreatedFrom(from);
+		job.setCreatedTo(to);
+
+		repository.findChunk(job, 0, 1000);
+
+		assertEquals(SELECT + " AND processed = TRUE AND model_version IS DISTINCT FROM ?"
+			+ " AND project_id = ? AND created_at >= ? AND created_at < ? ORDER BY id LIMIT ?", jdbcTemplate.sql);
+		assertEquals(List.of(0L, 900L, "2", 7L, from, to, 1000), jdbcTemplate.args);
+	}
+
+	private BackfillRepository repository() {
+		BackfillRepository repository = new BackfillRepository();
+		ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+		return repository;
+	}
+
+	private static BackfillStatus job(String scope) {
+		BackfillStatus job = new BackfillStatus();
+		job.setScope(scope);
+		job.setModelVersion("2");
+		job.setMaxId(900);
+		return job;
+	}
+
+	/**
+	 * Keeps the last query and its arguments instead of running it
+	 */
+	private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+		private String sql;
+		private List<Object> args;
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			this.sql = sql;
+			this.args = Arrays.asList(args);
+			return new ArrayList<>();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.nlp.service.ConsumerBackpressure.Step;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerBackpressureTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void slowWritesPauseAndRecoveryResumesOnePartitionPerRampInterval() {
+		ConsumerBackpressure backpressure = backpressure();
+		long t = 1000 * SECOND;
+
+		assertEquals(Step.HOLD, backpressure.step(1500, 0, 3, 0, t));
+		assertEquals(Step.PAUSE_ALL, backpressure.step(2500, 0, 3, 0, t));
+		// Paused: no writes, but the minimum pause has not passed
+		assertEquals(Step.HOLD, backpressure.step(0, 0, 0, 3, t + 4 * SECOND));
+		assertEquals(Step.RESUME_ONE, backpressure.step(0, 0, 0, 3, t + 5 * SECOND));
+		// One partition per ramp interval, and only while writes stay fast
+		assertEquals(Step.HOLD, backpressure.step(100, 0, 1, 2, t + 8 * SECOND));
+		assertEquals(Step.HOLD, backpressure.step(800, 0, 1, 2, t + 10 * SECOND));
+		assertEquals(Step.RESUME_ONE, backpressure.step(100, 0, 1, 2, t + 11 * SECOND));
+		assertEquals(Step.RESUME_ONE, backpressure.step(100, 0, 2, 1, t + 16 * SECOND));
+		assertEquals(Step.HOLD, backpressure.step(100, 0, 3, 0, t + 21 * SECOND));
+	}
+
+	@Test
+	void aSlowProbePausesEverythingAgainAndRestartsTheMinimumPause() {
+		ConsumerBackpressure backpressure = backpressure();
+		long t = 1000 * SECOND;
+
+		assertEquals(Step.PAUSE_ALL, backpressure.step(3000, 0, 4, 0, t));
+		assertEquals(Step.RESUME_ONE, backpressure.step(0, 0, 0, 4, t + 5 * SECOND));
+		// The resumed partition's writes are slow again
+		assertEquals(Step.PAUSE_ALL, backpressure.step(2500, 0, 1, 3, t + 6 * SECOND));
+		// Still under pressure with everything paused: nothing to do, the pause keeps restarting
+		assertEquals(Step.HOLD, backpressure.step(2500, 0, 0, 4, t + 7 * SECOND));
+		assertEquals(Step.HOLD, backpressure.step(0, 0, 0, 4, t + 11 * SECOND));
+		assertEquals(Step.RESUME_ONE, backpressure.step(0, 0, 0, 4, t + 12 * SECOND));
+	}
+
+	@Test
+	void threadsWaitingForAConnectionPauseAndHoldTheResume() {
+		ConsumerBackpressure backpressure = backpressure();
+		long t = 1000 * SECOND;
+
+		assertEquals(Step.HOLD, backpressure.step(100, 2, 3, 0, t));
+		assertEquals(Step.PAUSE_ALL, backpressure.step(100, 3, 3, 0, t));
+		assertEquals(Step.HOLD, backpressure.step(0, 1, 0, 3, t + 6 * SECOND));
+		assertEquals(Step.RESUME_ONE, backpressure.step(0, 0, 0, 3, t + 7 * SECOND));
+	}
+
+	private ConsumerBackpressure backpressure() {
+		ConsumerBackpressure backpressure = new ConsumerBackpressure();
+		ReflectionTestUtils.setField(backpressure, "pauseLatencyMs", 2000L);
+		ReflectionTestUtils.setField(backpressure, "resumeLatencyMs", 500L);
+		ReflectionTestUtils.setField(backpressure, "maxPendingConnections", 2);
+		ReflectionTestUtils.setField(backpressure, "minPauseMs", 5000L);
+		ReflectionTestUtils.setField(backpressure, "rampIntervalMs", 5000L);
+		return backpressure;
+	}
+}
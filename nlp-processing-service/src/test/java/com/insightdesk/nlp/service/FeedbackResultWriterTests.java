@@ -0,0 +1,172 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.events.FeedbackEvent;
+import com.insightdesk.nlp.dto.NlpResult;
+import com.insightdesk.nlp.repository.NlpResultRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedbackResultWriterTests {
+
+	private final FakeRepository repository = new FakeRepository();
+	private final List<Long> published = new ArrayList<>();
+	private final List<Long> counted = new ArrayList<>();
+	private final int[] transactions = {0};
+
+	@Test
+	void writesTheLatestResultPerIdInOneTransaction() {
+		FeedbackResultWriter writer = writer();
+		NlpResult first = result(1L, "bug");
+		NlpResult redelivered = result(1L, "question");
+		Map<Long, Exception> rejected = new HashMap<>();
+
+		int written = writer.write(List.of(first, result(2L, "bug"), redelivered), rejected);
+
+		assertEquals(2, written);
+		assertEquals(1, transactions[0]);
+		assertEquals(List.of(List.of(1L, 2L)), repository.batches);
+		assertEquals("question", repository.lastWritten.get(1L).getCategory());
+		assertEquals(List.of(1L, 2L), published);
+		assertEquals(List.of(1L, 2L), counted);
+		assertTrue(rejected.isEmpty());
+	}
+
+	@Test
+	void rowsTheDatabaseRejectsAreSplitOutAndTheOthersWritten() {
+		FeedbackResultWriter writer = writer();
+		repository.rejectedIds = Set.of(3L, 6L);
+		List<NlpResult> results = new ArrayList<>();
+		for (long id = 1; id <= 8; id++) {
+			results.add(result(id, "bug"));
+		}
+		Map<Long, Exception> rejected = new HashMap<>();
+
+		int written = writer.write(results, rejected);
+
+		assertEquals(6, written);
+		assertEquals(Set.of(3L, 6L), rejected.keySet());
+		assertTrue(rejected.get(3L) instanceof DataIntegrityViolationException);
+		// Only rows of committed transactions are published and counted
+		assertEquals(List.of(1L, 2L, 4L, 5L, 7L, 8L), published);
+		assertEquals(List.of(1L, 2L, 4L, 5L, 7L, 8L), counted);
+	}
+
+	@Test
+	void otherDatabaseFailuresPropagateWithoutWritingAnything() {
+		FeedbackResultWriter writer = writer();
+		repository.failure = new DataAccessResourceFailureException("Connection refused");
+		Map<Long, Exception> rejected = new HashMap<>();
+
+		assertThrows(DataAccessResourceFailureException.class,
+			() -> writer.write(List.of(result(1L, "bug"), result(2L, "bug")), rejected));
+
+		assertEquals(1, transactions[0]);
+		assertTrue(rejected.isEmpty());
+		assertTrue(counted.isEmpty());
+	}
+
+	@Test
+	void rejectedResultsAreReportedUnderTheIndexOfTheirRecord() {
+		List<ConsumerRecord<String, FeedbackEvent>> records = List.of(
+			record(0, 10L), record(1, null), record(2, 12L), record(3, 13L));
+		Map<Integer, Exception> failures = new HashMap<>();
+		IllegalStateException tokenizerFailure = new IllegalStateException("Tokenizer crashed");
+		failures.put(2, tokenizerFailure);
+		DataIntegrityViolationException rejection = new DataIntegrityViolationException("value too long");
+
+		FeedbackResultWriter.addRejected(records, Map.of(13L, rejection), failures);
+
+		assertEquals(Map.of(2, tokenizerFailure, 3, rejection), failures);
+	}
+
+	private FeedbackResultWriter writer() {
+		FeedbackResultWriter writer = new FeedbackResultWriter();
+		ReflectionTestUtils.setField(writer, "nlpResultRepository", repository);
+		ReflectionTestUtils.setField(writer, "transactionTemplate", new TransactionTemplate() {
+			@Override
+			public <T> T execute(TransactionCallback<T> action) {
+				transactions[0]++;
+				// Rows published in a transaction that fails are never sent
+				int publishedBefore = published.size();
+				try {
+					return action.doInTransaction(null);
+				} catch (RuntimeException e) {
+					published.subList(publishedBefore, published.size()).clear();
+					throw e;
+				}
+			}
+		});
+		ReflectionTestUtils.setField(writer, "feedbackProcessedPublisher", new FeedbackProcessedPublisher() {
+			@Override
+			public void publish(NlpResult result) {
+				published.add(result.getId());
+			}
+		});
+		ReflectionTestUtils.setField(writer, "consumerBackpressure", new ConsumerBackpressure() {
+			@Override
+			public void recordWrite(long nanos) {
+			}
+		});
+		ReflectionTestUtils.setField(writer, "nlpProcessingService", new NlpProcessingService() {
+			@Override
+			public void countDocuments(List<NlpResult> written) {
+				written.forEach(result -> counted.add(result.getId()));
+			}
+		});
+		return writer;
+	}
+
+	private static NlpResult result(Long id, String category) {
+		NlpResult result = new NlpResult();
+		result.setId(id);
+		result.setCategory(category);
+		return result;
+	}
+
+	private static ConsumerRecord<String, FeedbackEvent> record(long offset, Long id) {
+		FeedbackEvent event = new FeedbackEvent();
+		event.setId(id);
+		return new ConsumerRecord<>("feedback-events", 0, offset, String.valueOf(id), event);
+	}
+
+	/**
+	 * Writes every row, except that a batch holding a rejected id fails as a whole
+	 */
+	private static class FakeRepository extends NlpResultRepository {
+
+		private final List<List<Long>> batches = new ArrayList<>();
+		private final Map<Long, NlpResult> lastWritten = new HashMap<>();
+		private Set<Long> rejectedIds = Set.of();
+		private RuntimeException failure;
+
+		@Override
+		public List<NlpResult> updateResults(List<NlpResult> results) {
+			batches.add(results.stream().map(NlpResult::getId).toList());
+			if (failure != null) {
+				throw failure;
+			}
+			for (NlpResult result : results) {
+				if (rejectedIds.contains(result.getId())) {
+					throw new DataIntegrityViolationException("value too long for feedback " + result.getId());
+				}
+			}
+			results.forEach(result -> lastWritten.put(result.getId(), result));
+			return new ArrayList<>(results);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.insightdesk.nlp.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeedbackRetryRouterTests {
+
+	@Test
+	void failuresMoveThroughTheRetryTiersToTheDeadLetterTopic() {
+		FeedbackRetryRouter router = router();
+		IllegalStateException failure = new IllegalStateException("Tokenizer crashed");
+
+		assertEquals("feedback-events-retry-0", router.targetTopic(1, failure));
+		assertEquals("feedback-events-retry-1", router.targetTopic(2, failure));
+		assertEquals("feedback-events-retry-2", router.targetTopic(3, failure));
+		assertEquals("feedback-events-dlt", router.targetTopic(4, failure));
+	}
+
+	@Test
+	void notRetryableFailuresAndTheirSubclassesGoStraightToTheDeadLetterTopic() {
+		FeedbackRetryRouter router = router();
+
+		assertEquals("feedback-events-dlt", router.targetTopic(1, new IllegalArgumentException("No message")));
+		assertEquals("feedback-events-dlt", router.targetTopic(1, new NumberFormatException("Not a number")));
+		assertEquals("feedback-events-dlt", router.targetTopic(2, new NullPointerException()));
+		assertEquals("feedback-events-retry-0", router.targetTopic(1, new RuntimeException("Timeout")));
+	}
+
+	@Test
+	void attemptsAreReadFromTheLastHeader() {
+		ConsumerRecord<String, String> first = new ConsumerRecord<>("feedback-events", 0, 10L, "42", "event");
+		ConsumerRecord<String, String> retried = new ConsumerRecord<>("feedback-events-retry-1", 0, 3L, "42", "event");
+		retried.headers().add(FeedbackRetryRouter.ATTEMPTS_HEADER, "1".getBytes(StandardCharsets.UTF_8));
+		retried.headers().add(FeedbackRetryRouter.ATTEMPTS_HEADER, "2".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(0, FeedbackRetryRouter.attempts(first));
+		assertEquals(2, FeedbackRetryRouter.attempts(retried));
+	}
+
+	private FeedbackRetryRouter router() {
+		FeedbackRetryRouter router = new FeedbackRetryRouter();
+		ReflectionTestUtils.setField(router, "topic", "feedback-events");
+		ReflectionTestUtils.setField(router, "delaysMs", List.of(10000L, 60000L, 300000L));
+		ReflectionTestUtils.setField(router, "notRetryable", List.of("java.lang.IllegalArgumentException",
+			"java.lang.ClassCastException", "java.lang.NullPointerException",
+			"org.springframework.dao.DataIntegrityViolationException"));
+		return router;
+	}
+}
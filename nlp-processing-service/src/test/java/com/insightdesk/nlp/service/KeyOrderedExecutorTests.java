@@ -0,0 +1,121 @@
+package com.insightdesk.nlp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedExecutorTests {
+
+	private final ThreadPoolExecutor workers = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+
+	@AfterEach
+	void shutDown() {
+		workers.shutdownNow();
+	}
+
+	@Test
+	void itemsOfAKeyRunInBatchOrderAndOneAtATime() {
+		KeyOrderedExecutor executor = executor(4);
+		List<Integer> items = IntStream.range(0, 200).boxed().toList();
+		Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+		Map<Integer, AtomicInteger> running = new ConcurrentHashMap<>();
+		AtomicInteger overlaps = new AtomicInteger();
+
+		KeyOrderedExecutor.LaneResults<Integer> results = executor.process(items, item -> item % 7, item -> {
+			AtomicInteger active = running.computeIfAbsent(item % 7, key -> new AtomicInteger());
+			if (active.incrementAndGet() > 1) {
+				overlaps.incrementAndGet();
+			}
+			seen.computeIfAbsent(item % 7, key -> new ArrayList<>()).add(item);
+			Thread.yield();
+			active.decrementAndGet();
+			return item * 2;
+		}, Duration.ofSeconds(10));
+
+		assertEquals(0, overlaps.get());
+		for (Map.Entry<Integer, List<Integer>> key : seen.entrySet()) {
+			List<Integer> expected = items.stream().filter(item -> item % 7 == key.getKey()).toList();
+			assertEquals(expected, key.getValue(), "order of key " + key.getKey());
+		}
+		assertEquals(items.size(), results.completedPrefix());
+		assertEquals(Integer.valueOf(398), results.get(199));
+	}
+
+	@Test
+	void lanesStillRunningAtTheDeadlineAreCancelled() throws InterruptedException {
+		KeyOrderedExecutor executor = executor(2);
+		// Keys 0, 2 and 4 share one lane, keys 1 and 3 the other
+		List<Integer> items = List.of(0, 1, 2, 3, 4);
+		Set<Integer> started = ConcurrentHashMap.newKeySet();
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		KeyOrderedExecutor.LaneResults<Integer> results = executor.process(items, item -> item, item -> {
+			started.add(item);
+			if (item == 1) {
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					Thread.currentThread().interrupt();
+				}
+			}
+			return item;
+		}, Duration.ofMillis(200));
+
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the blocked lane was not interrupted");
+		workers.shutdown();
+		assertTrue(workers.awaitTermination(5, TimeUnit.SECONDS));
+		assertTrue(results.isCompleted(0));
+		assertTrue(results.isCompleted(2));
+		assertTrue(results.isCompleted(4));
+		// The item running at the deadline does not count even though it returned, and the
+		// rest of its lane never starts
+		assertFalse(results.isCompleted(1));
+		assertFalse(results.isCompleted(3));
+		assertFalse(started.contains(3));
+		assertEquals(1, results.completedPrefix());
+	}
+
+	@Test
+	void aFailingItemStopsItsLaneAndEndsTheCompletedPrefix() {
+		KeyOrderedExecutor executor = executor(2);
+		List<Integer> items = List.of(0, 1, 2, 3, 4, 5);
+
+		KeyOrderedExecutor.LaneResults<Integer> results = executor.process(items, item -> item, item -> {
+			if (item == 3) {
+				throw new IllegalStateException("item 3");
+			}
+			return item;
+		}, Duration.ofSeconds(10));
+
+		assertTrue(results.isCompleted(1));
+		assertTrue(results.isCompleted(4));
+		assertFalse(results.isCompleted(3));
+		assertFalse(results.isCompleted(5));
+		assertEquals(3, results.completedPrefix());
+	}
+
+	private KeyOrderedExecutor executor(int lanes) {
+		KeyOrderedExecutor executor = new KeyOrderedExecutor();
+		ReflectionTestUtils.setField(executor, "nlpWorkerExecutor", workers);
+		ReflectionTestUtils.setField(executor, "configuredLanes", lanes);
+		return executor;
+	}
+}
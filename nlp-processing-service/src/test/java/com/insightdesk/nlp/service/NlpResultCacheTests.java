@@ -0,0 +1,59 @@
+package com.insightdesk.nlp.service;
+
+import com.insightdesk.nlp.text.EntityExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NlpResultCacheTests {
+
+	@Test
+	void serializedOutputsDecodeToTheSameValues() {
+		Map<String, Object> entities = EntityExtractor.load()
+			.extract("Crashes on iOS 17.2 since the last update, see https://example.com/issue or mail help@example.com");
+		NlpResultCache.Outputs outputs = new NlpResultCache.Outputs("en", 0.125,
+			new String[] {"crashes", "update", "café"}, entities);
+
+		byte[] bytes = NlpResultCache.encode(outputs);
+		NlpResultCache.Outputs decoded = NlpResultCache.decode(bytes);
+
+		assertEquals("en", decoded.language());
+		assertEquals(0.125, decoded.sentimentScore());
+		assertArrayEquals(outputs.keywords(), decoded.keywords());
+		assertEquals(entities, decoded.entities());
+		assertTrue(entities.size() >= 3, "entities " + entities);
+		assertTrue(bytes.length < 300, "encoded size " + bytes.length);
+	}
+
+	@Test
+	void outputsTooLargeForAnEntryAreNotEncoded() {
+		String longKeyword = "a".repeat(70000);
+		assertNull(NlpResultCache.encode(new NlpResultCache.Outputs("en", 0.5, new String[] {longKeyword}, Map.of())));
+
+		String[] manyKeywords = new String[70000];
+		Arrays.fill(manyKeywords, "k");
+		assertNull(NlpResultCache.encode(new NlpResultCache.Outputs("en", 0.5, manyKeywords, Map.of())));
+	}
+
+	@Test
+	void countsAboveThirtyTwoThousandRoundTrip() {
+		String[] keywords = new String[40000];
+		Arrays.fill(keywords, "k");
+		Map<String, Object> item = Map.of("value", "v", "text", "t", "start", 0, "end", 1);
+		Map<String, Object> entities = Map.of("product", Collections.nCopies(40000, item));
+
+		NlpResultCache.Outputs decoded = NlpResultCache.decode(
+			NlpResultCache.encode(new NlpResultCache.Outputs("en", 0.5, keywords, entities)));
+
+		assertEquals(40000, decoded.keywords().length);
+		assertEquals(40000, ((List<?>) decoded.entities().get("product")).size());
+	}
+}
@@ -0,0 +1,44 @@
+package com.insightdesk.nlp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScalingPolicyTests {
+
+	@Test
+	void scalesUpWhileBehindAndDownAfterTheLagStaysLow() {
+		ScalingPolicy policy = new ScalingPolicy(1, 6, 2, 8, 60, 1000, 10_000, 3);
+
+		// 100k records at 500/s is 200 s to drain: one more listener, up to the partition count
+		assertEquals(2, policy.decide(1, 3, 100_000, 500, 2000));
+		assertEquals(3, policy.decide(2, 3, 100_000, 500, 2000));
+		assertEquals(3, policy.decide(3, 3, 100_000, 500, 2000));
+		// Draining fast enough, slow batches (saturated) or nothing consumed: hold
+		assertEquals(2, policy.decide(2, 3, 10_000, 500, 2000));
+		assertEquals(2, policy.decide(2, 3, 100_000, 500, 20_000));
+		assertEquals(2, policy.decide(2, 3, 100_000, 0, 0));
+
+		// Low lag for three decisions in a row, interrupted once
+		assertEquals(3, policy.decide(3, 3, 10, 50, 100));
+		assertEquals(3, policy.decide(3, 3, 10, 50, 100));
+		assertEquals(3, policy.decide(3, 3, 5000, 500, 100));
+		assertEquals(3, policy.decide(3, 3, 10, 50, 100));
+		assertEquals(3, policy.decide(3, 3, 10, 50, 100));
+		assertEquals(2, policy.decide(3, 3, 10, 50, 100));
+		// Back within bounds when partitions were removed
+		assertEquals(2, policy.decide(6, 2, 0, 0, 0));
+	}
+
+	@Test
+	void workersFollowTheConcurrency() {
+		ScalingPolicy policy = new ScalingPolicy(1, 6, 2, 8, 60, 1000, 10_000, 3);
+
+		assertEquals(2, policy.workersFor(1, 3));
+		assertEquals(5, policy.workersFor(2, 3));
+		assertEquals(8, policy.workersFor(3, 3));
+		assertEquals(8, policy.workersFor(6, 12));
+		// A single partition allows no more listeners: all workers
+		assertEquals(8, policy.workersFor(1, 1));
+	}
+}
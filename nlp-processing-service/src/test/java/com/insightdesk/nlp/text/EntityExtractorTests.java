@@ -0,0 +1,57 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityExtractorTests {
+
+	private final EntityExtractor extractor = EntityExtractor.load();
+
+	@Test
+	void extractsTypedEntitiesInOnePass() {
+		Map<String, Object> entities = extractor.extract(
+			"Dark mode crashes on my iPhone 15 (iOS 17.2) since release 4.2, see https://status.example.com/x. "
+				+ "Mail Jane.Doe@Example.com; the Android app v2.3.1-beta is fine, dark-mode too.");
+
+		assertEquals(List.of("dark mode"), values(entities, "feature"));
+		assertEquals(List.of("iOS", "Android"), values(entities, "platform"));
+		assertEquals(List.of("15", "17.2", "4.2", "2.3.1-beta"), values(entities, "version"));
+		assertEquals(List.of("https://status.example.com/x"), values(entities, "url"));
+		assertEquals(List.of("jane.doe@example.com"), values(entities, "email"));
+		assertEquals("Dark mode", item(entities, "feature", 0).get("text"));
+		assertEquals(24, item(entities, "platform", 0).get("start"));
+	}
+
+	@Test
+	void wholeWordsLongestEntryAndLargeDictionaries() {
+		EntityExtractor.Builder builder = EntityExtractor.builder()
+			.add("search", "feature", null)
+			.add("search bar", "feature", "Search Bar")
+			.add("Search", "product", "ignored duplicate");
+		for (int i = 0; i < 200000; i++) {
+			builder.add("product " + Integer.toString(i, 36), "product", "P" + i);
+		}
+		EntityExtractor large = builder.build();
+
+		Map<String, Object> entities = large.extract("The search bar hides research results; product zz and Product 37QO.");
+		assertEquals(List.of("Search Bar"), values(entities, "feature"));
+		assertEquals(List.of("P1295", "P150000"), values(entities, "product"));
+		assertTrue(large.extract("numbers 1.5 and 3 are not versions").isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> values(Map<String, Object> entities, String type) {
+		List<Map<String, Object>> items = (List<Map<String, Object>>) entities.getOrDefault(type, List.of());
+		return items.stream().map(item -> item.get("value")).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> item(Map<String, Object> entities, String type, int index) {
+		return ((List<Map<String, Object>>) entities.get(type)).get(index);
+	}
+}
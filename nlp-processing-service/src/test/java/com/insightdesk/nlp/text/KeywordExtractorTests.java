@@ -0,0 +1,88 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeywordExtractorTests {
+
+	private final Tokenizer tokenizer = new Tokenizer(StopWords.load("en"));
+	private final TokenBuffer buffer = new TokenBuffer();
+
+	@Test
+	void ranksTermsRareInTheProjectFirst() {
+		DocumentFrequencies frequencies = new DocumentFrequencies(1000);
+		KeywordExtractor extractor = new KeywordExtractor(frequencies);
+		for (int i = 0; i < 20; i++) {
+			extract(extractor, 100L, "The app is slow today");
+		}
+
+		String[] keywords = extract(extractor, 100L, "The app crashed at checkout, app is slow after checkout");
+
+		assertArrayEquals(new String[] {"checkout", "crashed", "app", "slow"}, keywords);
+		assertEquals(21, frequencies.project(100L).documents());
+		// Reprocessing ranks against the same counts without adding to them
+		tokenizer.tokenize("The app crashed at checkout, app is slow after checkout", buffer);
+		assertArrayEquals(keywords, extractor.extract(100L, buffer, 5, false));
+		assertEquals(21, frequencies.project(100L).documents());
+		// Other projects have their own counts
+		assertArrayEquals(new String[] {"app", "crashed"}, extract(extractor, 200L, "App crashed 42"));
+	}
+
+	@Test
+	void countingTheTermsLaterMatchesCountingWhileExtracting() {
+		DocumentFrequencies extracted = new DocumentFrequencies(1000);
+		DocumentFrequencies counted = new DocumentFrequencies(1000);
+		KeywordExtractor extractor = new KeywordExtractor(extracted);
+		KeywordExtractor counter = new KeywordExtractor(counted);
+		String message = "Checkout fails, checkout button greyed out";
+
+		extract(extractor, 100L, message);
+		tokenizer.tokenize(message, buffer);
+		int[] terms = counter.terms(buffer);
+		assertEquals(0, counted.project(100L).documents());
+		counter.count(100L, terms);
+
+		assertEquals(4, terms.length);
+		assertEquals(1, counted.project(100L).documents());
+		assertEquals(extracted.project(100L).documentFrequency(extracted.terms().intern("checkout")),
+			counted.project(100L).documentFrequency(counted.terms().intern("checkout")));
+		// A message without candidate terms has none to count
+		tokenizer.tokenize("the 42", buffer);
+		assertNull(counter.terms(buffer));
+	}
+
+	@Test
+	void tracksPendingCountsAndMapsGrow() {
+		DocumentFrequencies frequencies = new DocumentFrequencies(1000);
+		KeywordExtractor extractor = new KeywordExtractor(frequencies);
+		extract(extractor, null, "search results search");
+		extract(extractor, null, "search filters");
+
+		DocumentFrequencies.ProjectFrequencies project = frequencies.project(null);
+		DocumentFrequencies.Delta delta = project.drainPending();
+		int search = frequencies.terms().intern("search");
+		assertEquals(2, delta.documents());
+		assertEquals(2, delta.documentFrequencies().get(search));
+		assertNull(project.drainPending());
+
+		project.restorePending(delta);
+		assertEquals(2, project.drainPending().documentFrequencies().get(search));
+
+		IntIntHashMap map = new IntIntHashMap();
+		for (int key = 0; key < 10000; key++) {
+			map.addTo(key, key);
+		}
+		map.addTo(7, 1);
+		assertEquals(10000, map.size());
+		assertEquals(8, map.get(7));
+		assertEquals(0, map.get(10001));
+	}
+
+	private String[] extract(KeywordExtractor extractor, Long projectId, String message) {
+		tokenizer.tokenize(message, buffer);
+		return extractor.extract(projectId, buffer, 5);
+	}
+}
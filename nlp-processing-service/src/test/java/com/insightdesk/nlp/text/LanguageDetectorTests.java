@@ -0,0 +1,58 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageDetectorTests {
+
+	private final LanguageDetector detector = LanguageDetector.load(List.of("en", "es", "fr", "de", "pt", "it", "nl"), "en");
+
+	@Test
+	void detectsHeldOutFeedback() throws Exception {
+		List<String> misses = new ArrayList<>();
+		int total = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				getClass().getClassLoader().getResourceAsStream("language-samples.tsv"), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\t");
+				total++;
+				String detected = detector.detect(fields[1]);
+				if (!detected.equals(fields[0])) {
+					misses.add(fields[0] + " -> " + detected + ": " + fields[1]);
+				}
+			}
+		}
+		assertTrue(total >= 40);
+		assertTrue(misses.size() <= total / 20, "misses: " + misses);
+	}
+
+	@Test
+	void shortMessagesGetTheDefaultLanguage() {
+		assertEquals("en", detector.detect("ok"));
+		assertEquals("en", detector.detect(null));
+		assertEquals("en", detector.detect("12345 !!!"));
+	}
+
+	@Test
+	void languageSelectsTheSentimentLexicon() {
+		SentimentScorers scorers = new SentimentScorers(List.of("en", "es", "fr", "de", "pt"));
+
+		assertTrue(scorers.forLanguage("es").score("La aplicación es muy lenta y confusa") < 0.4);
+		assertTrue(scorers.forLanguage("fr").score("L'application n'est pas bonne") < 0.5);
+		assertTrue(scorers.forLanguage("de").score("Die neue Suche ist wirklich toll") > 0.6);
+		// No Portuguese lexicon: falls back to the default one
+		assertEquals(scorers.defaultScorer(), scorers.forLanguage("pt"));
+	}
+}
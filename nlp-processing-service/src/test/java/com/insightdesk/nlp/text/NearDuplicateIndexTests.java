@@ -0,0 +1,61 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateIndexTests {
+
+	private static final long HOUR = 3_600_000L;
+
+	private final Tokenizer tokenizer = new Tokenizer();
+	private final TokenBuffer buffer = new TokenBuffer();
+	private final MinHash minHash = new MinHash(64);
+	private final int[] signature = new int[64];
+
+	@Test
+	void linksNearDuplicatesWithinTheProjectAndWindow() {
+		NearDuplicateIndex index = new NearDuplicateIndex(16, 4, 1000, 24 * HOUR, 0.8);
+		String message = "The app crashes every time I open the settings page on my phone after the latest update";
+
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 1, 100L, message, 0));
+		assertEquals(1, find(index, 2, 100L, "the app crashes every time I open the settings page on my phone after the latest update!!", HOUR));
+		// Redelivered: the canonical message itself is not its own duplicate
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 1, 100L, message, HOUR));
+		// Other projects, unrelated text and expired entries do not match
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 3, 200L, message, HOUR));
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 4, 100L, "Love the new dark mode, the colors are easy on the eyes at night", HOUR));
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 5, 100L, message, 25 * HOUR));
+		assertEquals(5, find(index, 6, 100L, message, 26 * HOUR));
+	}
+
+	@Test
+	void evictsTheOldestEntriesAtCapacity() {
+		NearDuplicateIndex index = new NearDuplicateIndex(16, 4, 100, 24 * HOUR, 0.8);
+		for (int i = 0; i < 1000; i++) {
+			find(index, i, 1L, "message number " + i + " about feature " + (i * 7919) + " and screen " + (i * 104729), i);
+		}
+		assertEquals(100, index.size());
+
+		assertEquals(999, find(index, 5000, 1L, "message number 999 about feature " + (999 * 7919) + " and screen " + (999 * 104729), 1000));
+		assertEquals(NearDuplicateIndex.NO_DUPLICATE, find(index, 5001, 1L, "message number 0 about feature 0 and screen 0", 1000));
+
+		// Estimated similarity follows the shared shingles
+		minHash.signature(tokenize("one two three four five six seven eight nine ten"), signature);
+		int[] other = new int[64];
+		minHash.signature(tokenize("one two three four five six seven eight nine eleven"), other);
+		double similarity = MinHash.similarity(signature, 0, other, 0, 64);
+		assertTrue(similarity > 0.6 && similarity < 1.0, "similarity " + similarity);
+	}
+
+	private long find(NearDuplicateIndex index, long id, long projectId, String message, long timestamp) {
+		minHash.signature(tokenize(message), signature);
+		return index.findOrAdd(id, projectId, signature, timestamp);
+	}
+
+	private TokenBuffer tokenize(String message) {
+		tokenizer.tokenize(message, buffer);
+		return buffer;
+	}
+}
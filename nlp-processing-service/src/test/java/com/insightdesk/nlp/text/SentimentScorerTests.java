@@ -0,0 +1,74 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentimentScorerTests {
+
+	private final SentimentScorer scorer = SentimentScorer.load();
+
+	@Test
+	void automatonFindsOverlappingPatterns() {
+		AhoCorasick automaton = AhoCorasick.compile(List.of("he", "she", "his", "hers"));
+		List<String> found = new ArrayList<>();
+		String text = "ushers";
+		int state = AhoCorasick.ROOT;
+		for (int i = 0; i < text.length(); i++) {
+			state = automaton.next(state, text.charAt(i));
+			for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+				int id = automaton.patternAt(m);
+				found.add(text.substring(i - automaton.patternLength(id) + 1, i + 1));
+			}
+		}
+		assertEquals(List.of("she", "he", "hers"), found);
+	}
+
+	@Test
+	void negationIntensifiersAndPhrases() {
+		double good = scorer.score("The search is good");
+		assertTrue(good > 0.6);
+		assertTrue(scorer.score("The search is very good") > good);
+		assertTrue(scorer.score("The search is not good") < 0.5);
+		assertTrue(scorer.score("Wasting time") == SentimentScorer.NEUTRAL);
+		assertTrue(scorer.score("a waste of time") < scorer.score("a waste"));
+		assertTrue(scorer.score("goodness") == SentimentScorer.NEUTRAL);
+		assertEquals(SentimentScorer.NEUTRAL, scorer.score(""));
+		assertEquals(new BigDecimal("0.85"), SentimentScorer.toNumeric(0.8472));
+	}
+
+	@Test
+	void accuracyOnLabeledFeedback() throws Exception {
+		int total = 0;
+		int correct = 0;
+		List<String> misses = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				getClass().getClassLoader().getResourceAsStream("sentiment-accuracy.tsv"), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\t", 2);
+				double score = scorer.score(fields[1]);
+				String label = score > 0.6 ? "positive" : score < 0.4 ? "negative" : "neutral";
+				total++;
+				if (label.equals(fields[0])) {
+					correct++;
+				} else {
+					misses.add(fields[0] + " -> " + label + " (" + score + "): " + fields[1]);
+				}
+			}
+		}
+		double accuracy = (double) correct / total;
+		assertTrue(accuracy >= 0.9, "accuracy " + accuracy + ", misses: " + misses);
+	}
+}
@@ -0,0 +1,46 @@
+package com.insightdesk.nlp.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenizerTests {
+
+	@Test
+	void foldsCaseAccentsAndApostrophes() {
+		Tokenizer tokenizer = new Tokenizer();
+		TokenBuffer buffer = new TokenBuffer();
+
+		tokenizer.tokenize("Don't break the Café naıve-UI, café v2.0!", buffer);
+
+		assertEquals(List.of("dont", "break", "the", "cafe", "naıve", "ui", "cafe", "v2", "0"), texts(buffer));
+		assertEquals(6, buffer.sourceOffset(1));
+	}
+
+	@Test
+	void flagsStopWordsAndReusesBuffer() {
+		Tokenizer tokenizer = new Tokenizer(StopWords.load("en"));
+		TokenBuffer buffer = new TokenBuffer();
+
+		tokenizer.tokenize("This isn't the checkout I wanted", buffer);
+		assertTrue(buffer.isStopWord(0));
+		assertTrue(buffer.isStopWord(1));
+		assertTrue(!buffer.isStopWord(3));
+
+		tokenizer.tokenize("Checkout " + "x ".repeat(200), buffer);
+		assertEquals(201, buffer.size());
+		assertTrue(buffer.textEquals(0, "checkout"));
+	}
+
+	private static List<String> texts(TokenBuffer buffer) {
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < buffer.size(); i++) {
+			texts.add(buffer.text(i));
+		}
+		return texts;
+	}
+}